@@ -0,0 +1,31 @@
+-- =====================================================================
+-- 001 訂單 / 訂單明細 / 錢包交易 改用「表格號段 (pooled)」產生主鍵
+--
+-- 原因：GenerationType.IDENTITY 必須逐筆 INSERT 才能拿到 ID，
+--       Hibernate 因此無法批次寫入 (hibernate.jdbc.batch_size 失效)。
+--       改用 id_generators 表一次取 50 個 ID，一次結帳的 INSERT 可以批次送出。
+--
+-- 注意：
+--   1. 原本的 AUTO_INCREMENT 保留不動 (Hibernate 會自己帶入 ID)。
+--   2. next_val 以「現有最大 ID + 號段大小 + 1」起算，避免與舊資料衝突。
+--   3. allocationSize (50) 必須與 PO 上的 @TableGenerator 一致。
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE IF NOT EXISTS `id_generators` (
+  `gen_name` varchar(255) NOT NULL COMMENT '產生器名稱 (= 資料表名稱)',
+  `next_val` bigint DEFAULT NULL COMMENT '下一個號段的起點',
+  PRIMARY KEY (`gen_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='主鍵號段 (Hibernate @TableGenerator)';
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'orders', COALESCE(MAX(`order_id`), 0) + 51 FROM `orders`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'order_items', COALESCE(MAX(`order_item_id`), 0) + 51 FROM `order_items`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'wallet_transactions', COALESCE(MAX(`tx_id`), 0) + 51 FROM `wallet_transactions`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
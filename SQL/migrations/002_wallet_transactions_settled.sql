@@ -0,0 +1,11 @@
+-- =====================================================================
+-- 002 賣家收款改為「只寫流水帳」，由排程非同步併入錢包餘額
+--
+-- settled = 1：建立時已更新 wallets.balance (既有資料全部視為已入帳)
+-- settled = 0：賣家收款 (PAYMENT_RECEIVED)，等待 WalletSettlementJob 入帳
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `wallet_transactions`
+  ADD COLUMN `settled` tinyint(1) NOT NULL DEFAULT '1' COMMENT '是否已併入錢包餘額' AFTER `timestamp`,
+  ADD KEY `idx_wallet_transactions_settled` (`settled`, `wallet_id`);
@@ -0,0 +1,13 @@
+-- =====================================================================
+-- 003 商品與錢包加上樂觀鎖版本號 (對應 ProductPO / WalletPO 的 @Version)
+--
+-- 每次 UPDATE 都會 version + 1，並以 WHERE version = ? 檢查是否被他人改過
+-- (既有資料從 0 開始)
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `products`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT '0' COMMENT '樂觀鎖版本號';
+
+ALTER TABLE `wallets`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT '0' COMMENT '樂觀鎖版本號';
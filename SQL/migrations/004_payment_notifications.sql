@@ -0,0 +1,24 @@
+-- =====================================================================
+-- 004 綠界付款通知收件匣 (payment_notifications)
+--
+-- /notify 只負責「寫入一筆紀錄」並立刻回覆 1|OK，
+-- 由 PaymentNotificationWorker 非同步建單
+-- uk_payment_notifications_trade_no：同一個 MerchantTradeNo 只會被收下一次 (綠界重送時直接忽略)
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE `payment_notifications` (
+  `notification_id` bigint NOT NULL AUTO_INCREMENT COMMENT '通知 ID',
+  `merchant_trade_no` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '綠界特店交易編號 (MerchantTradeNo)',
+  `user_id` bigint NOT NULL COMMENT '買家 (CustomField1)',
+  `trade_amt` decimal(10,2) NOT NULL COMMENT '付款金額 (TradeAmt)',
+  `payload` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci COMMENT '原始通知參數 (對帳用)',
+  `status` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '處理狀態 (PENDING, PROCESSED, FAILED)',
+  `attempts` int NOT NULL DEFAULT '0' COMMENT '失敗次數',
+  `last_error` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '最後一次失敗原因',
+  `received_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '收到通知的時間',
+  `processed_at` timestamp NULL DEFAULT NULL COMMENT '建單完成的時間',
+  PRIMARY KEY (`notification_id`),
+  UNIQUE KEY `uk_payment_notifications_trade_no` (`merchant_trade_no`),
+  KEY `idx_payment_notifications_status` (`status`, `received_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='綠界付款通知收件匣';
@@ -0,0 +1,42 @@
+-- =====================================================================
+-- 005 綠界「待付款訂單」(pending_payments)
+--
+-- /createOrder 時：快照購物車、先扣庫存 (保留)，並記錄 MerchantTradeNo -> 保留單
+-- /notify  時：只把狀態 PENDING -> PAID，依快照建立訂單 (不再重新讀取 / 驗證購物車)
+-- 超過 expires_at 仍未付款：由 PendingPaymentSweeper 批次改為 EXPIRED 並歸還庫存
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE `pending_payments` (
+  `pending_payment_id` bigint NOT NULL AUTO_INCREMENT COMMENT '待付款訂單 ID',
+  `merchant_trade_no` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '綠界特店交易編號 (MerchantTradeNo)',
+  `buyer_id` bigint NOT NULL COMMENT '買家',
+  `total_amount` decimal(10,2) NOT NULL COMMENT '應付總金額',
+  `status` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '狀態 (PENDING, PAID, EXPIRED)',
+  `expires_at` timestamp NOT NULL COMMENT '庫存保留期限',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '建立時間',
+  PRIMARY KEY (`pending_payment_id`),
+  UNIQUE KEY `uk_pending_payments_trade_no` (`merchant_trade_no`),
+  KEY `idx_pending_payments_status_expires` (`status`, `expires_at`),
+  KEY `fk_pending_payments_users_idx` (`buyer_id`),
+  CONSTRAINT `fk_pending_payments_users` FOREIGN KEY (`buyer_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='綠界待付款訂單 (庫存保留)';
+
+CREATE TABLE `pending_payment_items` (
+  `pending_payment_item_id` bigint NOT NULL COMMENT '明細 ID (由 id_generators 配發)',
+  `pending_payment_id` bigint NOT NULL COMMENT '屬於哪一張待付款訂單',
+  `product_id` bigint NOT NULL COMMENT '商品',
+  `seller_id` bigint NOT NULL COMMENT '賣家 (快照，付款後依此拆單)',
+  `quantity` int NOT NULL COMMENT '保留數量',
+  `price_per_unit` decimal(10,2) NOT NULL COMMENT '建立時的單價 (快照)',
+  PRIMARY KEY (`pending_payment_item_id`),
+  KEY `fk_pending_payment_items_pending_idx` (`pending_payment_id`),
+  KEY `fk_pending_payment_items_products_idx` (`product_id`),
+  KEY `fk_pending_payment_items_users_idx` (`seller_id`),
+  CONSTRAINT `fk_pending_payment_items_pending` FOREIGN KEY (`pending_payment_id`) REFERENCES `pending_payments` (`pending_payment_id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  CONSTRAINT `fk_pending_payment_items_products` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  CONSTRAINT `fk_pending_payment_items_users` FOREIGN KEY (`seller_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='綠界待付款訂單明細 (購物車快照)';
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`) VALUES ('pending_payment_items', 1)
+ON DUPLICATE KEY UPDATE `next_val` = `next_val`;
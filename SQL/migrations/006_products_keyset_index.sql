@@ -0,0 +1,14 @@
+-- =====================================================================
+-- 006 公開商品列表改為「游標分頁」(keyset pagination)
+--
+-- 排序鍵：(created_at DESC, product_id DESC)
+-- 下一頁條件：created_at < ? OR (created_at = ? AND product_id < ?)
+-- 有了複合索引，不論商品總數多少，每一頁都只掃描「一頁」的索引範圍 (不會像 OFFSET 越翻越慢)
+-- (原本只有 category_id 的外鍵索引可由 category_id 開頭的複合索引取代，一併移除)
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `products`
+  ADD KEY `idx_products_created_id` (`created_at`, `product_id`),
+  ADD KEY `idx_products_category_created_id` (`category_id`, `created_at`, `product_id`),
+  DROP KEY `fk_products_categories_idx`;
@@ -0,0 +1,24 @@
+-- =====================================================================
+-- 007 商品評價「彙總表」(product_rating_stats)
+--
+-- 每個商品一列：評價數、星數總和、1~5 星各幾筆
+-- 由 RatingServiceImpl 在「新增 / 修改 / 刪除評價的同一個交易」中以 UPSERT 增量更新，
+-- 讀取時平均分數 = rating_sum / rating_count，不必再掃描 product_ratings
+--
+-- 既有評價：部署後執行一次回填 (POST /api/admin/ratings/stats/backfill)
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE `product_rating_stats` (
+  `product_id` bigint NOT NULL COMMENT '商品 (FK to products)',
+  `rating_count` int NOT NULL DEFAULT '0' COMMENT '評價數',
+  `rating_sum` bigint NOT NULL DEFAULT '0' COMMENT '星數總和',
+  `star1_count` int NOT NULL DEFAULT '0' COMMENT '1 星筆數',
+  `star2_count` int NOT NULL DEFAULT '0' COMMENT '2 星筆數',
+  `star3_count` int NOT NULL DEFAULT '0' COMMENT '3 星筆數',
+  `star4_count` int NOT NULL DEFAULT '0' COMMENT '4 星筆數',
+  `star5_count` int NOT NULL DEFAULT '0' COMMENT '5 星筆數',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最後更新時間',
+  PRIMARY KEY (`product_id`),
+  CONSTRAINT `fk_rating_stats_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='商品評價彙總 (增量維護)';
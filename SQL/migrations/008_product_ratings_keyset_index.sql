@@ -0,0 +1,14 @@
+-- =====================================================================
+-- 008 商品評價列表改為「游標分頁」(keyset pagination)
+--
+-- 最新優先：ORDER BY created_at DESC, rating_id DESC
+-- 星等優先：ORDER BY rating_stars DESC, created_at DESC, rating_id DESC
+-- 兩個複合索引都以 product_id 開頭：熱門商品有十萬筆評價時，每一頁也只掃描一頁的索引範圍
+-- (原本只有 product_id 的外鍵索引可由新的複合索引取代，一併移除)
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `product_ratings`
+  ADD KEY `idx_ratings_product_created_id` (`product_id`, `created_at`, `rating_id`),
+  ADD KEY `idx_ratings_product_stars_created_id` (`product_id`, `rating_stars`, `created_at`, `rating_id`),
+  DROP KEY `fk_ratings_product_idx`;
@@ -0,0 +1,14 @@
+-- =====================================================================
+-- 009 買家 / 賣家的訂單歷史改為「游標分頁」(keyset pagination)
+--
+-- ORDER BY created_at DESC, order_id DESC，條件為 buyer_id = ? 或 seller_id = ?
+-- 兩個複合索引分別以 buyer_id / seller_id 開頭：訂單再多，每一頁也只掃描一頁的索引範圍
+-- (原本只有 buyer_id / seller_id 的外鍵索引可由新的複合索引取代，一併移除)
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `orders`
+  ADD KEY `idx_orders_buyer_created_id` (`buyer_id`, `created_at`, `order_id`),
+  ADD KEY `idx_orders_seller_created_id` (`seller_id`, `created_at`, `order_id`),
+  DROP KEY `fk_orders_buyer_idx`,
+  DROP KEY `fk_orders_seller_idx`;
@@ -0,0 +1,33 @@
+-- =====================================================================
+-- 010 訂單列表的「讀取模型」(order_summaries)
+--
+-- 每筆訂單一列：買家 / 賣家名稱、金額、狀態、明細筆數、已評價筆數、第一項商品的名稱與圖片
+-- 買家 / 賣家 / 管理員的訂單列表只掃描這張表的一段索引，不再 JOIN 使用者、明細、商品、評價
+-- (完整的 OrderResponseVO 只在訂單詳情頁才組裝)
+--
+-- 維護方式：
+--   - 結帳 / 綠界付款成功建立訂單時，同一個交易以 INSERT ... SELECT 寫入
+--   - 新增 / 刪除評價時，同一個交易調整 rated_item_count
+--   - 使用者修改名稱時，同一個交易更新 buyer_name / seller_name
+-- 既有訂單：部署後執行一次回填 (POST /api/admin/orders/summaries/backfill)
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE `order_summaries` (
+  `order_id` bigint NOT NULL COMMENT '訂單 (FK to orders)',
+  `buyer_id` bigint NOT NULL,
+  `seller_id` bigint NOT NULL,
+  `buyer_name` varchar(100) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `seller_name` varchar(100) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `total_price` decimal(10,2) NOT NULL,
+  `status` varchar(20) COLLATE utf8mb4_unicode_ci NOT NULL,
+  `item_count` int NOT NULL DEFAULT '0' COMMENT '明細筆數',
+  `rated_item_count` int NOT NULL DEFAULT '0' COMMENT '已評價的明細筆數',
+  `first_item_name` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '第一項商品名稱 (建立訂單時的快照)',
+  `first_item_image_url` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '第一項商品圖片 (建立訂單時的快照)',
+  `created_at` timestamp NOT NULL COMMENT '與 orders.created_at 相同',
+  PRIMARY KEY (`order_id`),
+  KEY `idx_order_summaries_buyer_created_id` (`buyer_id`, `created_at`, `order_id`),
+  KEY `idx_order_summaries_seller_created_id` (`seller_id`, `created_at`, `order_id`),
+  CONSTRAINT `fk_order_summaries_order` FOREIGN KEY (`order_id`) REFERENCES `orders` (`order_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='訂單列表讀取模型 (與訂單同交易維護)';
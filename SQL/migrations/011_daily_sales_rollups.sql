@@ -0,0 +1,39 @@
+-- =====================================================================
+-- 011 營運報表改讀「每日彙總」(daily_sales_rollup / daily_category_rollup)
+--
+-- 每天 (× 訂單狀態) 一列：訂單數、總金額、小 / 中 / 大額訂單數
+-- 每天 (× 訂單狀態 × 分類) 一列：銷售數量
+-- 週報 / 季報 / 財務比較只加總區間內的彙總列 (一季最多 92 天)，不再掃描整季的 orders / order_items
+-- (最近兩天仍直接查 orders (status = ? AND created_at 範圍)，由新的 (status, created_at) 索引只掃描這兩天)
+-- 重算彙總、明細匯出、回填起始日只以 created_at 篩選 / 排序，另加 (created_at) 索引做範圍掃描
+--
+-- 維護方式：
+--   - 排程每小時以「覆蓋」方式重算昨天與今天 (冪等，重複執行結果相同)
+--   - 既有訂單 / 修正資料：POST /api/admin/reports/rollups/backfill?from=&to= (依日期區間平行重算)
+-- 日期由應用程式逐日計算起訖時間後寫入 (與報表的起訖日期同一個時區，不依賴連線時區的 DATE())
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `orders`
+  ADD KEY `idx_orders_status_created` (`status`, `created_at`),
+  ADD KEY `idx_orders_created_at` (`created_at`);
+
+CREATE TABLE `daily_sales_rollup` (
+  `sales_date` date NOT NULL,
+  `status` varchar(20) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '訂單狀態 (與 orders.status 相同)',
+  `order_count` bigint NOT NULL DEFAULT '0',
+  `total_amount` decimal(14,2) NOT NULL DEFAULT '0.00',
+  `small_order_count` bigint NOT NULL DEFAULT '0' COMMENT '小額訂單數 (<=500)',
+  `medium_order_count` bigint NOT NULL DEFAULT '0' COMMENT '中額訂單數 (500~2000)',
+  `large_order_count` bigint NOT NULL DEFAULT '0' COMMENT '大額訂單數 (>2000)',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`sales_date`, `status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日訂單彙總 (營運報表用)';
+
+CREATE TABLE `daily_category_rollup` (
+  `sales_date` date NOT NULL,
+  `status` varchar(20) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '訂單狀態 (與 orders.status 相同)',
+  `category_id` int NOT NULL COMMENT '售出當時商品所屬的分類 (不設外鍵，不妨礙刪除分類)',
+  `total_quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`sales_date`, `status`, `category_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日分類銷量彙總 (營運報表用)';
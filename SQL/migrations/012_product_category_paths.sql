@@ -0,0 +1,33 @@
+-- =====================================================================
+-- 012 分類商品列表 (含子孫分類) 改為依「祖先分類」反正規化的游標分頁
+--
+-- 每個商品對「自己的分類及其每一個祖先分類」各一列：(ancestor_category_id, created_at, product_id)
+-- 瀏覽任一分類 (含所有子孫) = ancestor_category_id = ? 的一段主鍵範圍，
+-- 主鍵順序即為 (created_at, product_id) 順序：頂層分類也只掃描一頁，不需 filesort
+-- (原本的 category_id IN (...子孫...) 在超過一個分類時無法由索引排序，每頁都要讀出並排序整棵子樹的商品)
+--
+-- 維護方式：
+--   - 新增 / 修改商品：ProductServiceImpl 在同一個交易中重寫該商品的列 (刪除商品由外鍵 CASCADE 清除)
+--   - 分類樹異動 (JPA 或 POST /api/admin/categories/cache/invalidate)：整張表重建
+-- =====================================================================
+USE `bigwork`;
+
+CREATE TABLE `product_category_paths` (
+  `ancestor_category_id` int NOT NULL COMMENT '商品所屬分類本身或其任一祖先分類',
+  `created_at` timestamp NOT NULL COMMENT '與 products.created_at 相同 (排序鍵)',
+  `product_id` bigint NOT NULL COMMENT '商品 (FK to products)',
+  PRIMARY KEY (`ancestor_category_id`, `created_at`, `product_id`),
+  KEY `idx_product_category_paths_product` (`product_id`),
+  CONSTRAINT `fk_product_category_paths_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='商品 x 祖先分類 (分類列表游標分頁用)';
+
+-- 既有商品：回填
+INSERT INTO `product_category_paths` (`ancestor_category_id`, `created_at`, `product_id`)
+WITH RECURSIVE `tree` (`ancestor_id`, `category_id`) AS (
+  SELECT `category_id`, `category_id` FROM `categories`
+  UNION ALL
+  SELECT t.`ancestor_id`, c.`category_id`
+  FROM `tree` t JOIN `categories` c ON c.`parent_category_id` = t.`category_id`
+)
+SELECT t.`ancestor_id`, p.`created_at`, p.`product_id`
+FROM `tree` t JOIN `products` p ON p.`category_id` = t.`category_id`;
@@ -0,0 +1,12 @@
+-- =====================================================================
+-- 013 付款通知失敗重試改為「指數退避」(payment_notifications.next_attempt_at)
+--
+-- 建單失敗時，下次可重試時間 = 現在 + 基本間隔 × 2^(失敗次數 - 1) (有上限)
+-- 排程只撿 next_attempt_at 已到的 PENDING 通知：下游中斷時不會每一輪都立刻重試、形成忙碌迴圈
+-- 既有通知：欄位預設為執行 ALTER 的時間 (立即可處理)
+-- =====================================================================
+USE `bigwork`;
+
+ALTER TABLE `payment_notifications`
+  ADD COLUMN `next_attempt_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次可重試的時間 (失敗後依次數指數退避)' AFTER `last_error`,
+  ADD KEY `idx_payment_notifications_due` (`status`, `next_attempt_at`);
@@ -0,0 +1,19 @@
+package demo.bigwork.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * (關鍵) 標記「遇到樂觀鎖衝突時，整個方法 (整筆交易) 重新執行」
+ *
+ * 搭配 @Transactional 使用：OptimisticRetryAspect 包在交易「外層」，
+ * 每一次重試都是全新的交易 (重新讀取最新的 version)
+ *
+ * (注意) 只適合「重跑也安全」的方法 (交易回滾後沒有留下任何副作用)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
@@ -0,0 +1,105 @@
+package demo.bigwork.aop;
+
+import demo.bigwork.model.vo.OptimisticRetryMetricsVO;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (關鍵) @OptimisticRetry 的實作：樂觀鎖衝突時「有限次數 + 隨機退避」重試
+ *
+ * @Order(HIGHEST_PRECEDENCE)：比 @Transactional 的攔截器更外層，
+ * 所以衝突發生時交易已經完整回滾，下一次 proceed() 會開啟全新的交易
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+
+    // (監控) 累計的衝突次數 / 重試次數 / 重試用盡仍失敗的次數
+    private final AtomicLong conflictCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong exhaustedCount = new AtomicLong();
+
+    public OptimisticRetryAspect(@Value("${optimistic-retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${optimistic-retry.backoff-ms:20}") long baseBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = Math.max(0, baseBackoffMs);
+    }
+
+    @Around("@annotation(demo.bigwork.aop.OptimisticRetry)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        // (關鍵) 已經在外層交易中：衝突只能交給外層處理，在這裡重跑會沿用被污染的 persistence context
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().toShortString();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                if (!isOptimisticLockConflict(e)) {
+                    throw e;
+                }
+                conflictCount.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    exhaustedCount.incrementAndGet();
+                    logger.warn("{} 樂觀鎖衝突，已重試 {} 次仍失敗", method, attempt - 1);
+                    throw e;
+                }
+                retryCount.incrementAndGet();
+                long sleepMs = backoffMillis(attempt);
+                logger.debug("{} 樂觀鎖衝突 (第 {} 次)，{} ms 後重試", method, attempt, sleepMs);
+                Thread.sleep(sleepMs);
+            }
+        }
+    }
+
+    /**
+     * (退避) 指數成長 + 「完整隨機」(full jitter)：
+     * 同時衝突的請求各自睡不同的時間，避免下一輪又撞在一起
+     */
+    private long backoffMillis(int attempt) {
+        long cap = baseBackoffMs << Math.min(attempt - 1, 10);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Spring 會把 Hibernate 的 StaleObjectStateException 轉成 OptimisticLockingFailureException，
+     * 但 JPA 原生的 OptimisticLockException 也可能直接拋出 (或被包在 cause 裡)
+     */
+    private static boolean isOptimisticLockConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException || t instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public OptimisticRetryMetricsVO getMetrics() {
+        OptimisticRetryMetricsVO vo = new OptimisticRetryMetricsVO();
+        vo.setConflictCount(conflictCount.get());
+        vo.setRetryCount(retryCount.get());
+        vo.setExhaustedCount(exhaustedCount.get());
+        return vo;
+    }
+}
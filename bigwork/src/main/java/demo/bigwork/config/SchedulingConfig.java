@@ -0,0 +1,13 @@
+package demo.bigwork.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * (關鍵) @EnableScheduling
+ * 啟用 @Scheduled 排程 (e.g., demo.bigwork.job 底下的背景工作)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
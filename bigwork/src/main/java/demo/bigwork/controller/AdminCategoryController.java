@@ -0,0 +1,31 @@
+package demo.bigwork.controller;
+
+import demo.bigwork.service.AuthHelperService;
+import demo.bigwork.service.CategoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/categories")
+public class AdminCategoryController {
+
+    private final CategoryService categoryService;
+    private final AuthHelperService authHelperService;
+
+    public AdminCategoryController(CategoryService categoryService,
+                                   AuthHelperService authHelperService) {
+        this.categoryService = categoryService;
+        this.authHelperService = authHelperService;
+    }
+
+    // ===== 分類樹快取失效 + 重建商品的祖先分類列 (直接用 SQL 修改 categories 表之後呼叫) =====
+    @PostMapping("/cache/invalidate")
+    public ResponseEntity<Void> invalidateCategoryTree() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        categoryService.invalidateCategoryTree();
+        categoryService.rebuildProductCategoryPaths();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.*;
 
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.AdminMemberService;
 
 /**
@@ -53,7 +53,7 @@ public class AdminMemberController {
      * GET /api/admin/members/{userId}/orders/buyer
      */
     @GetMapping("/{userId}/orders/buyer")
-    public ResponseEntity<List<OrderResponseVO>> listOrdersByBuyer(
+    public ResponseEntity<List<OrderSummaryVO>> listOrdersByBuyer(
             @PathVariable("userId") Long userId) {
         return ResponseEntity.ok(
                 adminMemberService.listOrdersByBuyer(userId)
@@ -65,10 +65,51 @@ public class AdminMemberController {
      * GET /api/admin/members/{userId}/orders/seller
      */
     @GetMapping("/{userId}/orders/seller")
-    public ResponseEntity<List<OrderResponseVO>> listOrdersBySeller(
+    public ResponseEntity<List<OrderSummaryVO>> listOrdersBySeller(
             @PathVariable("userId") Long userId) {
         return ResponseEntity.ok(
                 adminMemberService.listOrdersBySeller(userId)
         );
     }
+
+    /**
+     * 某位買家的訂單歷史（游標分頁）
+     * GET /api/admin/members/{userId}/orders/buyer/history?cursor=&size=20
+     */
+    @GetMapping("/{userId}/orders/buyer/history")
+    public ResponseEntity<?> listOrderHistoryByBuyer(
+            @PathVariable("userId") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(
+                    adminMemberService.listOrderHistoryByBuyer(userId, cursor, clampPageSize(size))
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage()); // 400 (游標錯誤)
+        }
+    }
+
+    /**
+     * 某位賣家的訂單歷史（游標分頁）
+     * GET /api/admin/members/{userId}/orders/seller/history?cursor=&size=20
+     */
+    @GetMapping("/{userId}/orders/seller/history")
+    public ResponseEntity<?> listOrderHistoryBySeller(
+            @PathVariable("userId") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(
+                    adminMemberService.listOrderHistoryBySeller(userId, cursor, clampPageSize(size))
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage()); // 400 (游標錯誤)
+        }
+    }
+
+    // 每頁筆數：預設 20、最多 100
+    private static int clampPageSize(int size) {
+        return size < 1 ? 20 : Math.min(size, 100);
+    }
 }
\ No newline at end of file
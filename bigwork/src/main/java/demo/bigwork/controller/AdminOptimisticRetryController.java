@@ -0,0 +1,29 @@
+package demo.bigwork.controller;
+
+import demo.bigwork.aop.OptimisticRetryAspect;
+import demo.bigwork.model.vo.OptimisticRetryMetricsVO;
+import demo.bigwork.service.AuthHelperService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/optimistic-retry")
+public class AdminOptimisticRetryController {
+
+    private final OptimisticRetryAspect optimisticRetryAspect;
+    private final AuthHelperService authHelperService;
+
+    public AdminOptimisticRetryController(OptimisticRetryAspect optimisticRetryAspect,
+                                          AuthHelperService authHelperService) {
+        this.optimisticRetryAspect = optimisticRetryAspect;
+        this.authHelperService = authHelperService;
+    }
+
+    // ===== 樂觀鎖衝突監控 (衝突、重試、重試用盡的次數) =====
+    @GetMapping("/metrics")
+    public OptimisticRetryMetricsVO getMetrics() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        return optimisticRetryAspect.getMetrics();
+    }
+}
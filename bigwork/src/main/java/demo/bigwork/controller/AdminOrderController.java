@@ -0,0 +1,33 @@
+package demo.bigwork.controller;
+
+import demo.bigwork.job.OrderSummaryBackfillJob;
+import demo.bigwork.service.AuthHelperService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+public class AdminOrderController {
+
+    private final OrderSummaryBackfillJob orderSummaryBackfillJob;
+    private final AuthHelperService authHelperService;
+
+    public AdminOrderController(OrderSummaryBackfillJob orderSummaryBackfillJob,
+                                AuthHelperService authHelperService) {
+        this.orderSummaryBackfillJob = orderSummaryBackfillJob;
+        this.authHelperService = authHelperService;
+    }
+
+    // ===== 訂單摘要回填 (背景執行；202 = 已開始，409 = 已有一個在執行) =====
+    @PostMapping("/summaries/backfill")
+    public ResponseEntity<String> backfillOrderSummaries() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        if (!orderSummaryBackfillJob.startAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("訂單摘要回填已在執行中");
+        }
+        return ResponseEntity.accepted().body("訂單摘要回填已開始");
+    }
+}
@@ -0,0 +1,29 @@
+package demo.bigwork.controller;
+
+import demo.bigwork.job.PaymentNotificationWorker;
+import demo.bigwork.model.vo.PaymentNotificationMetricsVO;
+import demo.bigwork.service.AuthHelperService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/payment-notifications")
+public class AdminPaymentNotificationController {
+
+    private final PaymentNotificationWorker paymentNotificationWorker;
+    private final AuthHelperService authHelperService;
+
+    public AdminPaymentNotificationController(PaymentNotificationWorker paymentNotificationWorker,
+                                              AuthHelperService authHelperService) {
+        this.paymentNotificationWorker = paymentNotificationWorker;
+        this.authHelperService = authHelperService;
+    }
+
+    // ===== 收件匣監控 (積壓數量、等待時間、處理延遲) =====
+    @GetMapping("/metrics")
+    public PaymentNotificationMetricsVO getMetrics() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        return paymentNotificationWorker.getMetrics();
+    }
+}
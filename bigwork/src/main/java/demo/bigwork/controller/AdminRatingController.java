@@ -0,0 +1,33 @@
+package demo.bigwork.controller;
+
+import demo.bigwork.job.ProductRatingStatsBackfillJob;
+import demo.bigwork.service.AuthHelperService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/ratings")
+public class AdminRatingController {
+
+    private final ProductRatingStatsBackfillJob productRatingStatsBackfillJob;
+    private final AuthHelperService authHelperService;
+
+    public AdminRatingController(ProductRatingStatsBackfillJob productRatingStatsBackfillJob,
+                                 AuthHelperService authHelperService) {
+        this.productRatingStatsBackfillJob = productRatingStatsBackfillJob;
+        this.authHelperService = authHelperService;
+    }
+
+    // ===== 評價彙總回填 (背景執行；202 = 已開始，409 = 已有一個在執行) =====
+    @PostMapping("/stats/backfill")
+    public ResponseEntity<String> backfillRatingStats() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        if (!productRatingStatsBackfillJob.startAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("評價彙總回填已在執行中");
+        }
+        return ResponseEntity.accepted().body("評價彙總回填已開始");
+    }
+}
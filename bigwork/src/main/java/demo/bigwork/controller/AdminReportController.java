@@ -1,16 +1,21 @@
 package demo.bigwork.controller;
 
+import demo.bigwork.job.DailySalesRollupJob;
 import demo.bigwork.model.vo.AdminReportVO;
 import demo.bigwork.model.vo.FinancialReportVO;
+import demo.bigwork.model.vo.ReportCacheMetricsVO;
 import demo.bigwork.service.AdminReportService;
 import demo.bigwork.service.AuthHelperService;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.time.LocalDate;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,11 +27,14 @@ public class AdminReportController {
 
     private final AdminReportService adminReportService;
     private final AuthHelperService authHelperService;
+    private final DailySalesRollupJob dailySalesRollupJob;
 
     public AdminReportController(AdminReportService adminReportService,
-                                 AuthHelperService authHelperService) {
+                                 AuthHelperService authHelperService,
+                                 DailySalesRollupJob dailySalesRollupJob) {
         this.adminReportService = adminReportService;
         this.authHelperService = authHelperService;
+        this.dailySalesRollupJob = dailySalesRollupJob;
     }
 
     // ===== 本週營運報表 =====
@@ -81,4 +89,48 @@ public class AdminReportController {
             );
         }
     }
-}
\ No newline at end of file
+
+    // ===== 匯出訂單明細 Excel (財務用；任意期間，串流寫出) =====
+    @GetMapping("/export/details")
+    public void exportDetailedReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) {
+        authHelperService.getCurrentAuthenticatedAdmin();
+
+        try {
+            adminReportService.exportDetailedReport(from, to, response);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "匯出訂單明細失敗",
+                    e
+            );
+        }
+    }
+
+    // ===== 報表快取監控 (命中 / 未命中次數) =====
+    @GetMapping("/cache/metrics")
+    public ReportCacheMetricsVO getReportCacheMetrics() {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        return adminReportService.getReportCacheMetrics();
+    }
+
+    // ===== 每日彙總回填 (依日期區間平行重算；202 = 已開始，409 = 已有一個在執行) =====
+    // from / to 省略時 = 從第一筆訂單 / 到今天
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<String> backfillDailyRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        authHelperService.getCurrentAuthenticatedAdmin();
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from 不可晚於 to");
+        }
+        if (!dailySalesRollupJob.startAsync(from, to)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("每日彙總回填已在執行中");
+        }
+        return ResponseEntity.accepted().body("每日彙總回填已開始");
+    }
+}
@@ -3,7 +3,7 @@ package demo.bigwork.controller;
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.vo.AdminProductSummaryVO;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.AdminUserManageService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -45,13 +45,13 @@ public class AdminUserController {
 
     // GET /api/admin/users/buyers/{id}/orders
     @GetMapping("/buyers/{userId}/orders")
-    public List<OrderResponseVO> listBuyerOrders(@PathVariable Long userId) {
+    public List<OrderSummaryVO> listBuyerOrders(@PathVariable Long userId) {
         return adminUserManageService.listOrdersByBuyer(userId);
     }
 
     // GET /api/admin/users/sellers/{id}/orders
     @GetMapping("/sellers/{userId}/orders")
-    public List<OrderResponseVO> listSellerOrders(@PathVariable Long userId) {
+    public List<OrderSummaryVO> listSellerOrders(@PathVariable Long userId) {
         return adminUserManageService.listOrdersBySeller(userId);
     }
 
@@ -1,17 +1,15 @@
 package demo.bigwork.controller;
 
-import demo.bigwork.model.vo.CategoryNodeVO; 
 import demo.bigwork.service.CategoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/public/categories")
 public class CategoryController {
@@ -28,12 +26,16 @@ public class CategoryController {
     /**
      * API 端點：(公開) 獲取「樹狀」商品分類
      * GET http://localhost:8080/api/public/categories
+     *
+     * (效能) 直接回傳快取中「已序列化好」的 JSON 位元組，不經過 Jackson
      */
     @GetMapping
     public ResponseEntity<?> getCategoryTree() { // (修改) 呼叫新的服務方法
         try {
-            List<CategoryNodeVO> categoryTree = categoryService.getCategoryTree();
-            return ResponseEntity.ok(categoryTree);
+            byte[] categoryTreeJson = categoryService.getCategoryTreeJson();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(categoryTreeJson);
 
         } catch (Exception e) {
             logger.error("獲取樹狀分類時發生錯誤", e);
@@ -3,17 +3,14 @@ package demo.bigwork.controller;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import demo.bigwork.dao.CartDAO;
-import demo.bigwork.model.po.CartPO;
-import demo.bigwork.model.po.UserPO;
-import demo.bigwork.service.AuthHelperService;
+import demo.bigwork.model.vo.PendingPaymentVO;
+import demo.bigwork.service.OrderService;
 import demo.bigwork.util.ECPayUtil;
 
 @RestController
@@ -26,40 +23,26 @@ public class ECPayController {
     @Value("${ecpay.client.back.url}") private String clientBackUrl; 
     @Value("${ecpay.return.url}") private String returnUrl; 
 
-    private final AuthHelperService authHelperService;
-    private final CartDAO cartDAO;
+    private final OrderService orderService;
 
     @Autowired
-    public ECPayController(AuthHelperService authHelperService, CartDAO cartDAO) {
-        this.authHelperService = authHelperService;
-        this.cartDAO = cartDAO;
+    public ECPayController(OrderService orderService) {
+        this.orderService = orderService;
     }
 
     @GetMapping("/createOrder")
     public String createOrder() throws Exception {
-        // 1. 取得買家 (需登入)
-        UserPO buyer = authHelperService.getCurrentAuthenticatedBuyer();
+        // 1. 取得買家 (需登入)：由 Service 的 getCurrentAuthenticatedBuyer() 驗證
+        // 2. (關鍵) 建立待付款訂單：快照購物車並保留庫存
+        // (付款完成前商品不會被別人買走；逾期未付款由 PendingPaymentSweeper 歸還庫存)
+        PendingPaymentVO pending = orderService.createEcpayPendingPayment();
 
-        // 2. 取得購物車並計算金額
-        CartPO cart = cartDAO.findByUser_UserId(buyer.getUserId())
-                .orElseThrow(() -> new Exception("您的購物車是空的"));
-        
-        if (cart.getItems() == null || cart.getItems().isEmpty()) {
-            throw new Exception("購物車內無商品，無法結帳");
-        }
-
-        BigDecimal totalAmount = cart.getItems().stream()
-            .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        String itemNames = cart.getItems().stream()
-            .map(item -> item.getProduct().getName() + " x " + item.getQuantity())
-            .collect(Collectors.joining("#"));
-        
+        BigDecimal totalAmount = pending.getTotalAmount();
+        String itemNames = pending.getItemNames();
         if (itemNames.length() > 200) itemNames = "E-Shop 線上購物結帳";
 
         // --- 3. 準備參數 ---
-        String tradeNo = "TOSN" + System.currentTimeMillis(); 
+        String tradeNo = pending.getMerchantTradeNo();
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
         String tradeDate = sdf.format(new Date());
 
@@ -77,7 +60,7 @@ public class ECPayController {
         params.put("EncryptType", "1");
 
         // (關鍵) 放入 UserID 以便回傳時識別
-        params.put("CustomField1", String.valueOf(buyer.getUserId()));
+        params.put("CustomField1", String.valueOf(pending.getBuyerId()));
 
         params.put("ClientBackURL", clientBackUrl); 
         params.put("ReturnURL", returnUrl); 
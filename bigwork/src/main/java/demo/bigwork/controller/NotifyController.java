@@ -1,6 +1,7 @@
 package demo.bigwork.controller;
 
-import demo.bigwork.service.OrderService;
+import demo.bigwork.job.PaymentNotificationWorker;
+import demo.bigwork.service.PaymentNotificationService;
 import demo.bigwork.util.ECPayUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -23,11 +24,14 @@ public class NotifyController {
     @Value("${ecpay.hashKey}") private String hashKey;
     @Value("${ecpay.hashIV}") private String hashIV;
 
-    private final OrderService orderService;
+    private final PaymentNotificationService paymentNotificationService;
+    private final PaymentNotificationWorker paymentNotificationWorker;
 
     @Autowired
-    public NotifyController(OrderService orderService) {
-        this.orderService = orderService;
+    public NotifyController(PaymentNotificationService paymentNotificationService,
+                            PaymentNotificationWorker paymentNotificationWorker) {
+        this.paymentNotificationService = paymentNotificationService;
+        this.paymentNotificationWorker = paymentNotificationWorker;
     }
 
     @PostMapping("/notify")
@@ -68,6 +72,8 @@ public class NotifyController {
     }
 
     // 抽取出建單邏輯
+    // (關鍵) 這裡只把通知寫入收件匣就回覆 1|OK，不在綠界的 HTTP 回呼中建單
+    // 建單較慢時綠界不會逾時重送；就算重送，同一個 MerchantTradeNo 也只會被收下一次
     private String processOrder(Map<String, String> params) {
         try {
             String userIdStr = params.get("CustomField1");
@@ -76,13 +82,15 @@ public class NotifyController {
             Long userId = Long.parseLong(userIdStr);
             BigDecimal amount = new BigDecimal(params.get("TradeAmt"));
             String tradeNo = params.get("MerchantTradeNo");
+            if (tradeNo == null) return "0|Trade Not Found";
 
-            orderService.processEcpayCheckout(userId, amount, tradeNo);
+            paymentNotificationService.receive(tradeNo, userId, amount, params.toString())
+                    .ifPresent(paymentNotificationWorker::dispatch);
             
             return "1|OK"; 
 
         } catch (Exception e) {
-            logger.error("建單失敗", e);
+            logger.error("收下付款通知失敗", e);
             return "0|Exception";
         }
     }
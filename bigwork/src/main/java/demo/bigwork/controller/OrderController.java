@@ -1,6 +1,8 @@
 package demo.bigwork.controller;
 
+import demo.bigwork.model.vo.OrderPageVO;
 import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.OrderService;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -65,7 +67,7 @@ public class OrderController {
     @GetMapping("/me")
     public ResponseEntity<?> getMyOrdersAsBuyer() {
         try {
-            List<OrderResponseVO> myOrders = orderService.getMyOrdersAsBuyer();
+            List<OrderSummaryVO> myOrders = orderService.getMyOrdersAsBuyer();
             return ResponseEntity.ok(myOrders);
 
         } catch (AccessDeniedException e) {
@@ -74,6 +76,33 @@ public class OrderController {
         }
     }
 
+    /**
+     * API 端點：「我 (買家)」的訂單歷史 (游標分頁，最新優先)
+     * GET http://localhost:8080/api/orders/history?cursor=&size=20
+     *
+     * 回傳 { items: [...], nextCursor: "..." }；nextCursor 為 null 代表沒有下一頁
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getMyOrderHistoryAsBuyer(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        try {
+            OrderPageVO page = orderService.getMyOrderHistoryAsBuyer(cursor, clampPageSize(size));
+            return ResponseEntity.ok(page);
+
+        } catch (AccessDeniedException e) {
+            // (如果 Token 是 SELLER)
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage()); // 403
+        } catch (IllegalArgumentException e) {
+            // (安全) 被竄改的游標
+            return ResponseEntity.badRequest().body(e.getMessage()); // 400
+        }
+    }
+
+    // (安全) 每頁筆數：預設 20、最多 100
+    private static int clampPageSize(int size) {
+        return size < 1 ? 20 : Math.min(size, 100);
+    }
+
     /**
      * API 端點：查詢「我 (買家)」的「單筆」訂單詳情
      * GET http://localhost:8080/api/orders/me/{orderId}
@@ -8,7 +8,6 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,7 +48,7 @@ public class ProductController {
             ProductPO newProduct = productService.addProduct(requestVO);
             
             // 2. (關鍵) 轉換為「乾淨」的 VO 才回傳
-            ProductResponseVO responseVO = new ProductResponseVO(newProduct);
+            ProductResponseVO responseVO = productService.toResponseVO(newProduct);
             
             // 3. 回傳 201 Created
             return ResponseEntity.status(HttpStatus.CREATED).body(responseVO);
@@ -81,9 +80,8 @@ public class ProductController {
             // 2. (關鍵) 
             // 將 List<ProductPO> 轉換為 List<ProductResponseVO>
             // 以避免回傳敏感資料或 JAP Lazy Loading 錯誤
-            List<ProductResponseVO> responseList = myProducts.stream()
-                    .map(ProductResponseVO::new) // 呼叫 VO 的 (PO) 建構子
-                    .collect(Collectors.toList());
+            // (評價) 一併帶入評價彙總 (一次查詢)
+            List<ProductResponseVO> responseList = productService.toResponseVOs(myProducts);
             
             // 3. 回傳 200 OK
             return ResponseEntity.ok(responseList);
@@ -117,7 +115,7 @@ public class ProductController {
             ProductPO updatedProduct = productService.updateProduct(productId, requestVO);
             
             // 2. 轉換為 VO 回傳
-            ProductResponseVO responseVO = new ProductResponseVO(updatedProduct);
+            ProductResponseVO responseVO = productService.toResponseVO(updatedProduct);
             
             // 3. 回傳 200 OK
             return ResponseEntity.ok(responseVO);
@@ -199,7 +197,7 @@ public class ProductController {
             ProductPO updatedProduct = productService.updateProductImage(productId, file);
             
             // 2. 轉換為 VO 回傳
-            ProductResponseVO responseVO = new ProductResponseVO(updatedProduct);
+            ProductResponseVO responseVO = productService.toResponseVO(updatedProduct);
             
             // 3. 回傳 200 OK (更新成功)
             return ResponseEntity.ok(responseVO);
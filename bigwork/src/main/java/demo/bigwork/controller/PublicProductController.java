@@ -1,8 +1,11 @@
 package demo.bigwork.controller;
 
-import demo.bigwork.model.po.ProductPO;
+import demo.bigwork.model.vo.ProductPageVO;
 import demo.bigwork.model.vo.ProductResponseVO; // (關鍵) 重用 VO
-import demo.bigwork.model.vo.RatingResponseVO;
+import demo.bigwork.model.vo.ProductSearchResultVO;
+import demo.bigwork.model.vo.ProductSuggestionVO;
+import demo.bigwork.model.enums.RatingSort;
+import demo.bigwork.model.vo.RatingPageVO;
 import demo.bigwork.service.ProductService;
 import demo.bigwork.service.RatingService;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,10 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * (新) 公開的商品控制器
@@ -35,40 +38,91 @@ public class PublicProductController {
 		this.ratingService = ratingService; // (關鍵) 5. 賦值
 	}
 
+	// (分頁) 每頁預設 / 最多幾筆
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE = 100;
+
 	/**
-	 * API 端點：(公開) 查詢所有商品列表 GET http://localhost:8080/api/public/products
+	 * API 端點：(公開) 查詢商品列表 (游標分頁) GET http://localhost:8080/api/public/products?cursor=&size=20
+	 *
+	 * 回傳 { items: [...], nextCursor: "..." }；要下一頁時把 nextCursor 原封不動帶回 cursor，
+	 * nextCursor 為 null 代表沒有下一頁
 	 */
 	@GetMapping
-	public ResponseEntity<List<ProductResponseVO>> getAllPublicProducts() {
-
-		// 1. 呼叫 Service (公開方法)
-		List<ProductPO> products = productService.getAllPublicProducts();
+	public ResponseEntity<?> getAllPublicProducts(@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		try {
+			// 1. 呼叫 Service (公開方法，Service 內已轉換為 VO)
+			ProductPageVO page = productService.getAllPublicProducts(cursor, clampPageSize(size));
 
-		// 2. (關鍵)
-		// 將 List<ProductPO> 轉換為 List<ProductResponseVO>
-		// (我們在賣家的 Controller 也做過一樣的事)
-		List<ProductResponseVO> responseList = products.stream().map(ProductResponseVO::new) // 呼叫 VO 的 (PO) 建構子
-				.collect(Collectors.toList());
+			// 2. 回傳 200 OK
+			return ResponseEntity.ok(page);
 
-		// 3. 回傳 200 OK
-		return ResponseEntity.ok(responseList);
+		} catch (IllegalArgumentException e) {
+			// (安全) 被竄改的游標
+			return ResponseEntity.badRequest().body(e.getMessage()); // 400
+		}
 	}
 
 	/**
-	 * (關鍵新增！) API 端點：(公開)查詢「某個分類下」的所有商品 GET
-	 * http://localhost:8080/api/public/products/category/{categoryId}
+	 * (關鍵新增！) API 端點：(公開)查詢「某個分類下」的商品 (游標分頁) GET
+	 * http://localhost:8080/api/public/products/category/{categoryId}?cursor=&size=20
 	 */
 	@GetMapping("/category/{categoryId}")
-	public ResponseEntity<List<ProductResponseVO>> getPublicProductsByCategory(@PathVariable Integer categoryId) {
+	public ResponseEntity<?> getPublicProductsByCategory(@PathVariable Integer categoryId,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size) {
+		try {
+			ProductPageVO page = productService.getPublicProductsByCategory(categoryId, cursor, clampPageSize(size));
+			return ResponseEntity.ok(page);
 
-		// 1. 呼叫我們「新增」的 Service 方法
-		List<ProductPO> products = productService.getPublicProductsByCategory(categoryId);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage()); // 400
+		}
+	}
 
-		// 2. 轉換為 VO
-		List<ProductResponseVO> responseList = products.stream().map(ProductResponseVO::new)
-				.collect(Collectors.toList());
+	// (搜尋) 關鍵字長度上限、最多可翻到第幾頁
+	private static final int MAX_QUERY_LENGTH = 100;
+	private static final int MAX_SEARCH_PAGE = 50;
 
-		return ResponseEntity.ok(responseList);
+	/**
+	 * API 端點：(公開) 商品全文搜尋 GET
+	 * http://localhost:8080/api/public/products/search?q=藍牙耳機&page=0&size=20
+	 *
+	 * 回傳 { items: [...], total: 123, page: 0, size: 20 }，items 依相關度排序
+	 */
+	@GetMapping("/search")
+	public ResponseEntity<?> searchPublicProducts(@RequestParam("q") String query,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+		if (query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+			return ResponseEntity.badRequest().body("關鍵字長度必須介於 1 ~ " + MAX_QUERY_LENGTH + " 個字"); // 400
+		}
+		if (page < 0 || page > MAX_SEARCH_PAGE) {
+			return ResponseEntity.badRequest().body("頁數必須介於 0 ~ " + MAX_SEARCH_PAGE); // 400
+		}
+		ProductSearchResultVO result = productService.searchPublicProducts(query, page, clampPageSize(size));
+		return ResponseEntity.ok(result);
+	}
+
+	// (自動完成) 最多回傳幾筆建議
+	private static final int MAX_SUGGESTIONS = 10;
+
+	/**
+	 * API 端點：(公開) 搜尋框自動完成 GET
+	 * http://localhost:8080/api/public/products/suggest?q=藍牙&limit=10
+	 *
+	 * 回傳 [{ text: "藍牙耳機", type: "PRODUCT", id: 12 }, ...]，依銷量排序
+	 * (每打一個字就會呼叫一次：只查記憶體中的前綴樹)
+	 */
+	@GetMapping("/suggest")
+	public ResponseEntity<List<ProductSuggestionVO>> suggestPublicProducts(@RequestParam("q") String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+		int clampedLimit = limit < 1 ? MAX_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+		return ResponseEntity.ok(productService.suggestPublicProducts(prefix, clampedLimit));
+	}
+
+	// (安全) 避免一次要求過多筆數
+	private static int clampPageSize(int size) {
+		return size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
 	}
 
 	/**
@@ -78,13 +132,10 @@ public class PublicProductController {
 	@GetMapping("/{productId}")
 	public ResponseEntity<?> getPublicProductById(@PathVariable Long productId) {
 		try {
-			// 1. 呼叫 Service (公開方法)
-			ProductPO product = productService.getPublicProductById(productId);
-
-			// 2. 轉換為 VO 回傳
-			ProductResponseVO responseVO = new ProductResponseVO(product);
+			// 1. 呼叫 Service (公開方法，直接回傳 VO 投影)
+			ProductResponseVO responseVO = productService.getPublicProductById(productId);
 
-			// 3. 回傳 200 OK
+			// 2. 回傳 200 OK
 			return ResponseEntity.ok(responseVO);
 
 		} catch (EntityNotFoundException e) {
@@ -99,16 +150,27 @@ public class PublicProductController {
 	}
 
 	/**
-	 * (新) API 端點：(公開) 查詢「某商品」的所有評價 GET
-	 * http://localhost:8080/api/public/products/{productId}/ratings
+	 * (新) API 端點：(公開) 查詢「某商品」的評價 (游標分頁) GET
+	 * http://localhost:8080/api/public/products/{productId}/ratings?sort=NEWEST&cursor=&size=20
+	 *
+	 * sort：NEWEST (最新優先，預設) / STARS (星等高者優先)
+	 * 回傳 { items: [...], nextCursor: "..." }；nextCursor 為 null 代表沒有下一頁
 	 */
 	@GetMapping("/{productId}/ratings")
-	public ResponseEntity<List<RatingResponseVO>> getRatingsForProduct(@PathVariable Long productId) {
+	public ResponseEntity<?> getRatingsForProduct(@PathVariable Long productId,
+			@RequestParam(defaultValue = "NEWEST") String sort, @RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		try {
+			// (我們不需要驗證商品是否存在，如果不存在，Service 會回傳空的一頁)
+			RatingSort ratingSort = RatingSort.valueOf(sort.toUpperCase());
+			RatingPageVO page = ratingService.getRatingsForProduct(productId, cursor, clampPageSize(size), ratingSort);
 
-		// (我們不需要驗證商品是否存在，如果不存在，Service 會回傳空列表)
-		List<RatingResponseVO> ratings = ratingService.getRatingsForProduct(productId);
+			// 回傳 200 OK (items 可能是空列表 [])
+			return ResponseEntity.ok(page);
 
-		// 回傳 200 OK (可能是空列表 [])
-		return ResponseEntity.ok(ratings);
+		} catch (IllegalArgumentException e) {
+			// (安全) 不支援的排序或被竄改的游標
+			return ResponseEntity.badRequest().body(e.getMessage()); // 400
+		}
 	}
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package demo.bigwork.controller;
 
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderPageVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.OrderService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -33,7 +35,7 @@ public class SellerOrderController {
     @GetMapping("/me")
     public ResponseEntity<?> getMyOrdersAsSeller() {
         try {
-            List<OrderResponseVO> myOrders = orderService.getMyOrdersAsSeller();
+            List<OrderSummaryVO> myOrders = orderService.getMyOrdersAsSeller();
             return ResponseEntity.ok(myOrders);
 
         } catch (AccessDeniedException e) {
@@ -41,4 +43,30 @@ public class SellerOrderController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage()); // 403
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * API 端點：「我 (賣家)」收到的訂單歷史 (游標分頁，最新優先)
+     * GET http://localhost:8080/api/seller/orders/history?cursor=&size=20
+     *
+     * 回傳 { items: [...], nextCursor: "..." }；nextCursor 為 null 代表沒有下一頁
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getMyOrderHistoryAsSeller(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        try {
+            OrderPageVO page = orderService.getMyOrderHistoryAsSeller(cursor, clampPageSize(size));
+            return ResponseEntity.ok(page);
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage()); // 403
+        } catch (IllegalArgumentException e) {
+            // (安全) 被竄改的游標
+            return ResponseEntity.badRequest().body(e.getMessage()); // 400
+        }
+    }
+
+    // (安全) 每頁筆數：預設 20、最多 100
+    private static int clampPageSize(int size) {
+        return size < 1 ? 20 : Math.min(size, 100);
+    }
+}
@@ -1,6 +1,8 @@
 package demo.bigwork.controller;
 
-import demo.bigwork.model.vo.RatingResponseVO;
+import demo.bigwork.model.enums.RatingSort;
+import demo.bigwork.model.vo.RatingPageVO;
+import demo.bigwork.model.vo.SellerRatingSummaryVO;
 import demo.bigwork.service.RatingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,11 +11,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 /**
  * (新) 賣家評價控制器 (賣家專用)
  * (安全) 此 Controller 的路徑已被 SecurityConfig
@@ -31,19 +33,58 @@ public class SellerRatingController {
         this.ratingService = ratingService;
     }
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     /**
-     * API 端點：查詢「我 (賣家)」收到的所有評價
-     * GET http://localhost:8080/api/seller/ratings/me
+     * API 端點：「我 (賣家)」的評價總覽 (全店合計 + 各商品的平均 / 評價數 / 星等分布)
+     * GET http://localhost:8080/api/seller/ratings/summary?afterProductId=&size=20
+     *
+     * 回傳 { totalRatingCount, averageRating, ratingHistogram, products: [...], nextAfterProductId }
+     * nextAfterProductId 為 null 代表商品已經列完
      */
-    @GetMapping("/me")
-    public ResponseEntity<?> getMyProductsRatings() {
+    @GetMapping("/summary")
+    public ResponseEntity<?> getMyRatingSummary(@RequestParam(required = false) Long afterProductId,
+                                                @RequestParam(defaultValue = "20") int size) {
         try {
-            List<RatingResponseVO> myRatings = ratingService.getRatingsForMyProducts();
-            return ResponseEntity.ok(myRatings);
+            SellerRatingSummaryVO summary =
+                    ratingService.getRatingSummaryForMyProducts(afterProductId, clampPageSize(size));
+            return ResponseEntity.ok(summary);
 
         } catch (AccessDeniedException e) {
             // (這不應發生，因為 SecurityConfig 已攔截)
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage()); // 403
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * API 端點：展開「我 (賣家)」某個商品的評價內容 (游標分頁)
+     * GET http://localhost:8080/api/seller/ratings/products/{productId}?sort=NEWEST&cursor=&size=20
+     *
+     * sort：NEWEST (最新優先，預設) / STARS (星等高者優先)
+     * 回傳 { items: [...], nextCursor: "..." }；nextCursor 為 null 代表沒有下一頁
+     */
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<?> getMyProductRatings(@PathVariable Long productId,
+                                                 @RequestParam(defaultValue = "NEWEST") String sort,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        try {
+            RatingSort ratingSort = RatingSort.valueOf(sort.toUpperCase());
+            RatingPageVO page = ratingService.getRatingsForMyProduct(productId, cursor, clampPageSize(size), ratingSort);
+            return ResponseEntity.ok(page);
+
+        } catch (AccessDeniedException e) {
+            // (商品不屬於我)
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage()); // 403
+        } catch (IllegalArgumentException e) {
+            // (安全) 不支援的排序或被竄改的游標
+            return ResponseEntity.badRequest().body(e.getMessage()); // 400
+        }
+    }
+
+    // (安全) 限制每頁筆數，避免一次要求過多資料
+    private static int clampPageSize(int size) {
+        return size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+}
@@ -2,6 +2,8 @@ package demo.bigwork.dao;
 
 import demo.bigwork.model.po.CartPO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -14,4 +16,19 @@ public interface CartDAO extends JpaRepository<CartPO, Long> {
      * "SELECT * FROM carts WHERE user_id = ?"
      */
     Optional<CartPO> findByUser_UserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * (結帳專用) 一次載入「購物車 + 所有項目 + 商品 + 賣家」
+     * (JOIN FETCH，一句 SQL 取代 Hibernate.initialize + 每個項目的懶載入)
+     *
+     * "SELECT ... FROM carts c
+     *    LEFT JOIN cart_items i ON ... LEFT JOIN products p ON ... LEFT JOIN users s ON ...
+     *  WHERE c.user_id = ?"
+     */
+    @Query("SELECT DISTINCT c FROM CartPO c " +
+           "LEFT JOIN FETCH c.items i " +
+           "LEFT JOIN FETCH i.product p " +
+           "LEFT JOIN FETCH p.seller " +
+           "WHERE c.user.userId = :userId")
+    Optional<CartPO> findForCheckoutByUserId(@Param("userId") Long userId);
+}
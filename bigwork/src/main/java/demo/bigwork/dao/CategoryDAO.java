@@ -2,6 +2,8 @@ package demo.bigwork.dao;
 
 import demo.bigwork.model.po.CategoryPO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -42,4 +44,35 @@ public interface CategoryDAO extends JpaRepository<CategoryPO, Integer> {
      * "SELECT * FROM categories WHERE name = ?"
      */
     Optional<CategoryPO> findByName(String name);
-}
\ No newline at end of file
+
+    /**
+     * (效能) 一次讀出「整張」分類表，在記憶體中組成樹 (取代每個節點一次的遞迴查詢)
+     * 每列 Object[]: [0]=Integer categoryId, [1]=String name, [2]=Integer parentCategoryId (根分類為 null)
+     *
+     * "SELECT c.category_id, c.name, c.parent_category_id FROM categories c ORDER BY c.category_id"
+     */
+    @Query("SELECT c.categoryId, c.name, p.categoryId FROM CategoryPO c LEFT JOIN c.parentCategory p " +
+           "ORDER BY c.categoryId")
+    List<Object[]> findAllForTree();
+
+    /**
+     * (分類列表) 分類樹異動後，整張 product_category_paths 依新的樹重建 (先刪再寫，同一個交易)
+     * 每個商品對「自己的分類及其每一個祖先分類」各一列
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_category_paths", nativeQuery = true)
+    int deleteAllProductCategoryPaths();
+
+    @Modifying
+    @Query(value =
+            "INSERT INTO product_category_paths (ancestor_category_id, created_at, product_id) " +
+            "WITH RECURSIVE tree (ancestor_id, category_id) AS ( " +
+            "  SELECT category_id, category_id FROM categories " +
+            "  UNION ALL " +
+            "  SELECT t.ancestor_id, c.category_id FROM tree t JOIN categories c ON c.parent_category_id = t.category_id " +
+            ") " +
+            "SELECT t.ancestor_id, p.created_at, p.product_id " +
+            "FROM tree t JOIN products p ON p.category_id = t.category_id",
+            nativeQuery = true)
+    int insertAllProductCategoryPaths();
+}
@@ -1,22 +1,34 @@
 package demo.bigwork.dao;
 
 import demo.bigwork.model.po.OrderPO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface OrderDAO extends JpaRepository<OrderPO, Long> {
 
     // 給前台 / 買家 / 賣家用的原本查詢
+    // (效能) 買家與賣家一併 JOIN 查出，轉 VO 時不再逐筆懶載入
+    @EntityGraph(attributePaths = {"buyer", "seller"})
     List<OrderPO> findByBuyer_UserId(Long buyerId);
 
+    @EntityGraph(attributePaths = {"buyer", "seller"})
     List<OrderPO> findBySeller_UserId(Long sellerId);
 
+    /**
+     * (回填) 目前最大的 orderId (切分平行回填的區間用；沒有訂單時為 null)
+     */
+    @Query("SELECT MAX(o.orderId) FROM OrderPO o")
+    Long findMaxOrderId();
+
     /**
      * 訂單整體統計 Summary：
      *  [0]=Long total_count        訂單總數
@@ -43,11 +55,11 @@ public interface OrderDAO extends JpaRepository<OrderPO, Long> {
             @Param("status") String status);
 
     /**
-     * 熱銷商品類別 Top5（依銷售數量）
-     * 每列 Object[]: [0]=String category_name, [1]=Long total_qty
+     * 各商品類別的銷售數量 (不限筆數；與每日彙總合併後才取 Top5)
+     *  [0]=Integer category_id, [1]=String category_name, [2]=Long total_qty
      */
     @Query(value =
-            "SELECT c.name AS category_name, SUM(oi.quantity) AS total_qty " +
+            "SELECT c.category_id, c.name AS category_name, SUM(oi.quantity) AS total_qty " +
             "FROM orders o " +
             "JOIN order_items oi ON o.order_id = oi.order_id " +
             "JOIN products p ON oi.product_id = p.product_id " +
@@ -55,12 +67,109 @@ public interface OrderDAO extends JpaRepository<OrderPO, Long> {
             "WHERE o.created_at >= :start " +
             "  AND o.created_at < :end " +
             "  AND o.status = :status " +
-            "GROUP BY c.category_id, c.name " +
-            "ORDER BY total_qty DESC " +
-            "LIMIT 5",
+            "GROUP BY c.category_id, c.name",
             nativeQuery = true)
-    List<Object[]> findTopCategoriesByQuantity(
+    List<Object[]> findCategoryQuantities(
             @Param("start") Timestamp start,
             @Param("end") Timestamp end,
             @Param("status") String status);
+
+    // ===== 每日彙總 (daily_sales_rollup / daily_category_rollup) =====
+
+    /**
+     * (回填) 最早一筆訂單的建立時間 (決定回填的起始日；沒有訂單時為 null)
+     * (效能) 由 idx_orders_created_at 直接取最小值，不掃描 orders
+     */
+    @Query("SELECT MIN(o.createdAt) FROM OrderPO o")
+    Timestamp findMinCreatedAt();
+
+    /**
+     * (重算) 先刪除 [fromDate, toDate) 的每日訂單彙總，再由 orders 重新寫入
+     * (已經沒有訂單的日子也會一併清掉，所以重算是「覆蓋」)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales_rollup WHERE sales_date >= :fromDate AND sales_date < :toDate",
+           nativeQuery = true)
+    int deleteSalesRollups(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_category_rollup WHERE sales_date >= :fromDate AND sales_date < :toDate",
+           nativeQuery = true)
+    int deleteCategoryRollups(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * (重算) 把 [start, end) (= salesDate 這一天) 的訂單寫入當天 (× 狀態) 彙總
+     * (一致性) 日期與起訖時間都由呼叫端以同一個時區算好傳入，不依賴資料庫連線時區的 DATE()
+     * (效能) 只以 created_at 篩選，走 idx_orders_created_at 範圍掃描這一天
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO daily_sales_rollup " +
+            "  (sales_date, status, order_count, total_amount, small_order_count, medium_order_count, large_order_count) " +
+            "SELECT :salesDate, o.status, COUNT(*), SUM(o.total_price), " +
+            "  SUM(CASE WHEN o.total_price <= 500 THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN o.total_price > 500 AND o.total_price <= 2000 THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN o.total_price > 2000 THEN 1 ELSE 0 END) " +
+            "FROM orders o " +
+            "WHERE o.created_at >= :start AND o.created_at < :end " +
+            "GROUP BY o.status",
+            nativeQuery = true)
+    int insertSalesRollups(@Param("salesDate") LocalDate salesDate,
+                           @Param("start") Timestamp start,
+                           @Param("end") Timestamp end);
+
+    /**
+     * (重算) 把 [start, end) (= salesDate 這一天) 的訂單明細寫入當天 (× 狀態 × 分類) 銷量
+     * (商品已被刪除的明細沒有分類，與原本的 Top5 統計一樣不計入)
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO daily_category_rollup (sales_date, status, category_id, total_quantity) " +
+            "SELECT :salesDate, o.status, p.category_id, SUM(oi.quantity) " +
+            "FROM orders o " +
+            "JOIN order_items oi ON o.order_id = oi.order_id " +
+            "JOIN products p ON oi.product_id = p.product_id " +
+            "WHERE o.created_at >= :start AND o.created_at < :end " +
+            "GROUP BY o.status, p.category_id",
+            nativeQuery = true)
+    int insertCategoryRollups(@Param("salesDate") LocalDate salesDate,
+                              @Param("start") Timestamp start,
+                              @Param("end") Timestamp end);
+
+    /**
+     * 加總 [fromDate, toDate) 的每日彙總 (欄位與 findOrderSummary 相同；一季最多 92 列)
+     */
+    @Query(value =
+            "SELECT " +
+            "  COALESCE(SUM(r.order_count),0), " +
+            "  COALESCE(SUM(r.total_amount),0), " +
+            "  COALESCE(SUM(r.small_order_count),0), " +
+            "  COALESCE(SUM(r.medium_order_count),0), " +
+            "  COALESCE(SUM(r.large_order_count),0) " +
+            "FROM daily_sales_rollup r " +
+            "WHERE r.sales_date >= :fromDate " +
+            "  AND r.sales_date < :toDate " +
+            "  AND r.status = :status",
+            nativeQuery = true)
+    List<Object[]> sumSalesRollups(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("status") String status);
+
+    /**
+     * 加總 [fromDate, toDate) 各分類的銷量 (欄位與 findCategoryQuantities 相同)
+     */
+    @Query(value =
+            "SELECT c.category_id, c.name AS category_name, SUM(r.total_quantity) AS total_qty " +
+            "FROM daily_category_rollup r " +
+            "JOIN categories c ON r.category_id = c.category_id " +
+            "WHERE r.sales_date >= :fromDate " +
+            "  AND r.sales_date < :toDate " +
+            "  AND r.status = :status " +
+            "GROUP BY c.category_id, c.name",
+            nativeQuery = true)
+    List<Object[]> sumCategoryRollups(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("status") String status);
 }
\ No newline at end of file
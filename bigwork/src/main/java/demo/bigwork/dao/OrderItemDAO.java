@@ -1,11 +1,80 @@
 package demo.bigwork.dao;
 
 import demo.bigwork.model.po.OrderItemPO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderItemDAO extends JpaRepository<OrderItemPO, Long> {
-    // (目前不需要客製化查詢)
     // (我們將透過 OrderPO 來存取 OrderItemPO)
-}
\ No newline at end of file
+
+    /**
+     * (訂單歷史) 一次查出「一頁訂單」的所有明細，連同商品名稱 / 圖片與評價
+     * (效能) 不論一頁有幾筆明細都是一句 SQL：LEFT JOIN 商品 (可能已被刪除) 與評價 (可能尚未評價)，
+     *        不再逐筆訂單初始化 items、也不再逐筆明細懶載入 product / productRating
+     * 每列 Object[]: [0]=Long orderId, [1]=Long orderItemId, [2]=Long productId, [3]=Integer quantity,
+     *               [4]=BigDecimal pricePerUnit, [5]=String productName, [6]=String productImageUrl,
+     *               [7]=Long ratingId, [8]=Integer ratingStars, [9]=String ratingComment
+     */
+    @Query("SELECT oi.order.orderId, oi.orderItemId, p.productId, oi.quantity, oi.pricePerUnit, " +
+           "p.name, p.imageUrl, r.ratingId, r.ratingStars, r.comment " +
+           "FROM OrderItemPO oi LEFT JOIN oi.product p LEFT JOIN ProductRatingPO r ON r.orderItem = oi " +
+           "WHERE oi.order.orderId IN :orderIds " +
+           "ORDER BY oi.orderItemId")
+    List<Object[]> findResponseRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * (自動完成) 每個商品「已完成訂單」的總銷量
+     * 每列 Object[]: [0]=Long productId, [1]=Long totalQuantity
+     */
+    @Query("SELECT p.productId, SUM(oi.quantity) FROM OrderItemPO oi JOIN oi.product p JOIN oi.order o " +
+           "WHERE o.status = demo.bigwork.model.enums.OrderStatus.COMPLETED " +
+           "GROUP BY p.productId")
+    List<Object[]> sumCompletedQuantitiesByProduct();
+
+    /**
+     * (自動完成) 每個分類「已完成訂單」的總銷量
+     * 每列 Object[]: [0]=Integer categoryId, [1]=Long totalQuantity
+     */
+    @Query("SELECT c.categoryId, SUM(oi.quantity) FROM OrderItemPO oi JOIN oi.product p JOIN p.category c " +
+           "JOIN oi.order o " +
+           "WHERE o.status = demo.bigwork.model.enums.OrderStatus.COMPLETED " +
+           "GROUP BY c.categoryId")
+    List<Object[]> sumCompletedQuantitiesByCategory();
+
+    /**
+     * (明細匯出) [start, end) 期間所有訂單明細，依建立時間 / 訂單排序
+     * (效能) 以 orders 的 idx_orders_created_at (created_at，內含主鍵 order_id) 範圍掃描驅動，
+     *        排序鍵只用 orders 的欄位，順著索引讀出即為 (created_at, order_id) 順序，不需 filesort；
+     *        同一筆訂單的明細由 fk_order_items_order_idx (order_id) 逐筆取出
+     *        (排序若加上 order_items 的欄位，MySQL 就必須把整段結果 filesort 完才送出第一列)
+     * (效能) 只查純量欄位 (不建立實體、不進持久化內容)，並以 MySQL 的串流模式 (fetch size = Integer.MIN_VALUE)
+     *        逐列讀取：筆數再多，JVM 中同時只有一列；必須在交易內使用並在用完後關閉 Stream
+     * (注意) 串流期間同一條連線不能再執行其他查詢
+     * 每列 Object[]: [0]=Long orderId, [1]=Timestamp createdAt, [2]=OrderStatus status,
+     *               [3]=String buyerName, [4]=String sellerName, [5]=BigDecimal orderTotal,
+     *               [6]=Long orderItemId, [7]=Long productId, [8]=String productName, [9]=String categoryName,
+     *               [10]=Integer quantity, [11]=BigDecimal pricePerUnit
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.orderId, o.createdAt, o.status, b.name, s.name, o.totalPrice, " +
+           "oi.orderItemId, p.productId, p.name, c.name, oi.quantity, oi.pricePerUnit " +
+           "FROM OrderItemPO oi JOIN oi.order o JOIN o.buyer b JOIN o.seller s " +
+           "LEFT JOIN oi.product p LEFT JOIN p.category c " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end " +
+           "ORDER BY o.createdAt, o.orderId")
+    Stream<Object[]> streamExportRows(@Param("start") Timestamp start, @Param("end") Timestamp end);
+}
@@ -0,0 +1,129 @@
+package demo.bigwork.dao;
+
+import demo.bigwork.model.po.OrderSummaryPO;
+import demo.bigwork.model.vo.OrderSummaryVO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryDAO extends JpaRepository<OrderSummaryPO, Long> {
+
+    /**
+     * (寫入) 由 orders / order_items / users / products / product_ratings 組出摘要列 (存在就覆蓋)
+     * 後面接 WHERE 條件 (o.order_id ...)
+     */
+    String UPSERT_FROM_ORDERS =
+            "INSERT INTO order_summaries " +
+            "(order_id, buyer_id, seller_id, buyer_name, seller_name, total_price, status, " +
+            " item_count, rated_item_count, first_item_name, first_item_image_url, created_at) " +
+            "SELECT * FROM (" +
+            "  SELECT o.order_id, o.buyer_id, o.seller_id, b.name AS buyer_name, s.name AS seller_name, " +
+            "    o.total_price, o.status, " +
+            "    (SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = o.order_id) AS item_count, " +
+            "    (SELECT COUNT(*) FROM order_items oi JOIN product_ratings r ON r.order_item_id = oi.order_item_id " +
+            "      WHERE oi.order_id = o.order_id) AS rated_item_count, " +
+            "    (SELECT p.name FROM order_items oi LEFT JOIN products p ON p.product_id = oi.product_id " +
+            "      WHERE oi.order_id = o.order_id ORDER BY oi.order_item_id LIMIT 1) AS first_item_name, " +
+            "    (SELECT p.image_url FROM order_items oi LEFT JOIN products p ON p.product_id = oi.product_id " +
+            "      WHERE oi.order_id = o.order_id ORDER BY oi.order_item_id LIMIT 1) AS first_item_image_url, " +
+            "    o.created_at " +
+            "  FROM orders o JOIN users b ON b.user_id = o.buyer_id JOIN users s ON s.user_id = o.seller_id ";
+
+    String UPSERT_ON_DUPLICATE =
+            ") AS src " +
+            "ON DUPLICATE KEY UPDATE buyer_name = src.buyer_name, seller_name = src.seller_name, " +
+            "total_price = src.total_price, status = src.status, item_count = src.item_count, " +
+            "rated_item_count = src.rated_item_count, first_item_name = src.first_item_name, " +
+            "first_item_image_url = src.first_item_image_url, created_at = src.created_at";
+
+    /**
+     * (結帳) 為剛建立的訂單寫入摘要 (一次結帳的所有訂單一句 SQL)
+     * (注意) 必須在建立訂單的交易中、訂單已 flush 之後呼叫
+     */
+    @Modifying
+    @Query(value = UPSERT_FROM_ORDERS + "WHERE o.order_id IN (:orderIds)" + UPSERT_ON_DUPLICATE,
+           nativeQuery = true)
+    int refreshOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * (回填) 重新產生 (afterId, upToId] 區間內所有訂單的摘要 (覆蓋而非累加)
+     */
+    @Modifying
+    @Query(value = UPSERT_FROM_ORDERS + "WHERE o.order_id > :afterId AND o.order_id <= :upToId" + UPSERT_ON_DUPLICATE,
+           nativeQuery = true)
+    int refreshRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * (評價) 某訂單明細被評價 (+1) 或評價被刪除 (-1) 時，調整所屬訂單的已評價筆數
+     * (注意) 必須在評價的交易中呼叫
+     */
+    @Modifying
+    @Query(value = "UPDATE order_summaries s JOIN order_items oi ON oi.order_id = s.order_id " +
+                   "SET s.rated_item_count = s.rated_item_count + :delta " +
+                   "WHERE oi.order_item_id = :orderItemId",
+           nativeQuery = true)
+    int adjustRatedItemCount(@Param("orderItemId") Long orderItemId, @Param("delta") int delta);
+
+    /**
+     * (使用者改名) 同步摘要中的買家 / 賣家名稱 (各走 buyer_id / seller_id 開頭的索引)
+     */
+    @Modifying
+    @Query("UPDATE OrderSummaryPO s SET s.buyerName = :name WHERE s.buyerId = :userId")
+    int renameBuyer(@Param("userId") Long userId, @Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE OrderSummaryPO s SET s.sellerName = :name WHERE s.sellerId = :userId")
+    int renameSeller(@Param("userId") Long userId, @Param("name") String name);
+
+    /**
+     * (訂單列表) 直接查出 OrderSummaryVO (JPQL 建構子投影)
+     * 單表查詢：搭配 (buyer_id | seller_id, created_at, order_id) 索引，一頁只掃描一段索引範圍
+     */
+    String SUMMARY_SELECT =
+            "SELECT new demo.bigwork.model.vo.OrderSummaryVO(" +
+            "s.orderId, s.buyerId, s.buyerName, s.sellerId, s.sellerName, s.totalPrice, s.status, s.createdAt, " +
+            "s.itemCount, s.ratedItemCount, s.firstItemName, s.firstItemImageUrl) " +
+            "FROM OrderSummaryPO s ";
+
+    String NEWEST_FIRST = "ORDER BY s.createdAt DESC, s.orderId DESC";
+
+    String AFTER_CURSOR = "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.orderId < :orderId)) ";
+
+    @Query(SUMMARY_SELECT + "WHERE s.buyerId = :buyerId " + NEWEST_FIRST)
+    List<OrderSummaryVO> findByBuyer(@Param("buyerId") Long buyerId);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sellerId = :sellerId " + NEWEST_FIRST)
+    List<OrderSummaryVO> findBySeller(@Param("sellerId") Long sellerId);
+
+    /**
+     * (訂單歷史 - 買家) 第一頁 / 下一頁 (從上一頁最後一筆 (createdAt, orderId) 之後接著讀)
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.buyerId = :buyerId " + NEWEST_FIRST)
+    List<OrderSummaryVO> findBuyerFirstPage(@Param("buyerId") Long buyerId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.buyerId = :buyerId " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryVO> findBuyerPageAfter(@Param("buyerId") Long buyerId,
+                                            @Param("createdAt") Timestamp createdAt,
+                                            @Param("orderId") Long orderId,
+                                            Pageable pageable);
+
+    /**
+     * (訂單歷史 - 賣家) 第一頁 / 下一頁
+     */
+    @Query(SUMMARY_SELECT + "WHERE s.sellerId = :sellerId " + NEWEST_FIRST)
+    List<OrderSummaryVO> findSellerFirstPage(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.sellerId = :sellerId " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryVO> findSellerPageAfter(@Param("sellerId") Long sellerId,
+                                             @Param("createdAt") Timestamp createdAt,
+                                             @Param("orderId") Long orderId,
+                                             Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package demo.bigwork.dao;
+
+import demo.bigwork.model.enums.NotificationStatus;
+import demo.bigwork.model.po.PaymentNotificationPO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface PaymentNotificationDAO extends JpaRepository<PaymentNotificationPO, Long> {
+
+    // "SELECT COUNT(*) > 0 FROM payment_notifications WHERE merchant_trade_no = ?"
+    boolean existsByMerchantTradeNo(String merchantTradeNo);
+
+    /**
+     * (背景工作) 取出已到重試時間的待處理通知 ID (依可處理時間先後)
+     * "SELECT notification_id FROM payment_notifications WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?"
+     * (效能) 走 (status, next_attempt_at) 索引
+     */
+    @Query("SELECT n.notificationId FROM PaymentNotificationPO n " +
+           "WHERE n.status = demo.bigwork.model.enums.NotificationStatus.PENDING AND n.nextAttemptAt <= :now " +
+           "ORDER BY n.nextAttemptAt, n.notificationId")
+    List<Long> findDueIds(@Param("now") Timestamp now, Pageable pageable);
+
+    /**
+     * (關鍵) 搶下一筆通知：只有狀態仍是 PENDING 時才會更新成功
+     * 兩個執行緒 (或兩台主機) 同時處理同一筆時，只有一個會得到 1，另一個得到 0
+     * (重試) 還沒到 next_attempt_at 的通知也得到 0，等排程在時間到之後再撿
+     * (呼叫端必須和建單在同一個交易，建單失敗時狀態會一起回滾成 PENDING)
+     */
+    @Modifying
+    @Query("UPDATE PaymentNotificationPO n SET n.status = demo.bigwork.model.enums.NotificationStatus.PROCESSED, " +
+           "n.processedAt = :processedAt " +
+           "WHERE n.notificationId = :id AND n.status = demo.bigwork.model.enums.NotificationStatus.PENDING " +
+           "AND n.nextAttemptAt <= :processedAt")
+    int markProcessed(@Param("id") Long notificationId, @Param("processedAt") Timestamp processedAt);
+
+    // (監控) "SELECT COUNT(*) FROM payment_notifications WHERE status = ?"
+    long countByStatus(NotificationStatus status);
+
+    // (監控) 最早一筆「某狀態」通知的收件時間 (用來計算積壓多久)
+    @Query("SELECT MIN(n.receivedAt) FROM PaymentNotificationPO n WHERE n.status = :status")
+    Timestamp findOldestReceivedAtByStatus(@Param("status") NotificationStatus status);
+}
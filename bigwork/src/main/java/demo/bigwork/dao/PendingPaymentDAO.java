@@ -0,0 +1,78 @@
+package demo.bigwork.dao;
+
+import demo.bigwork.model.enums.PendingPaymentStatus;
+import demo.bigwork.model.po.PendingPaymentPO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PendingPaymentDAO extends JpaRepository<PendingPaymentPO, Long> {
+
+    // "SELECT COUNT(*) > 0 FROM pending_payments WHERE merchant_trade_no = ?"
+    boolean existsByMerchantTradeNo(String merchantTradeNo);
+
+    /**
+     * (付款通知) 依綠界單號載入待付款訂單，連同「明細 + 商品 + 賣家」一次載入
+     */
+    @Query("SELECT DISTINCT p FROM PendingPaymentPO p " +
+           "LEFT JOIN FETCH p.items i LEFT JOIN FETCH i.product LEFT JOIN FETCH i.seller " +
+           "WHERE p.merchantTradeNo = :tradeNo")
+    Optional<PendingPaymentPO> findWithItemsByMerchantTradeNo(@Param("tradeNo") String merchantTradeNo);
+
+    /**
+     * (關鍵) 狀態轉換：只有目前狀態符合 from 時才會更新成功
+     * e.g., PENDING -> PAID 與排程的 PENDING -> EXPIRED 同時發生，只有一個會得到 1
+     */
+    @Modifying
+    @Query("UPDATE PendingPaymentPO p SET p.status = :to " +
+           "WHERE p.merchantTradeNo = :tradeNo AND p.status = :from")
+    int transition(@Param("tradeNo") String merchantTradeNo,
+                   @Param("from") PendingPaymentStatus from,
+                   @Param("to") PendingPaymentStatus to);
+
+    /**
+     * (排程) 鎖定「已過期但仍是 PENDING」的待付款訂單 ID
+     * "SELECT ... WHERE status = 'PENDING' AND expires_at < ? ORDER BY expires_at LIMIT ? FOR UPDATE"
+     * (鎖定後，同時到達的付款通知會等這個交易結束，再看到 EXPIRED)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PendingPaymentPO p " +
+           "WHERE p.status = demo.bigwork.model.enums.PendingPaymentStatus.PENDING AND p.expiresAt < :now " +
+           "ORDER BY p.expiresAt")
+    List<PendingPaymentPO> lockExpired(@Param("now") Timestamp now, Pageable pageable);
+
+    /**
+     * (重新付款) 鎖定某買家「仍是 PENDING」的待付款訂單 (再次 /createOrder 時先釋放舊的保留)
+     * (鎖定後，同時到達的付款通知會等這個交易結束，再看到 EXPIRED -> 走過期後付款的流程)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PendingPaymentPO p " +
+           "WHERE p.buyer.userId = :buyerId " +
+           "AND p.status = demo.bigwork.model.enums.PendingPaymentStatus.PENDING")
+    List<PendingPaymentPO> lockPendingByBuyerId(@Param("buyerId") Long buyerId);
+
+    // (排程 / 重新付款) 一句 UPDATE 把整批改為 EXPIRED
+    @Modifying
+    @Query("UPDATE PendingPaymentPO p SET p.status = demo.bigwork.model.enums.PendingPaymentStatus.EXPIRED " +
+           "WHERE p.pendingPaymentId IN :ids")
+    int markExpired(@Param("ids") Collection<Long> pendingPaymentIds);
+
+    /**
+     * (排程 / 重新付款) 彙總這批待付款訂單「每個商品」保留了多少數量 (用來一次歸還庫存)
+     * @return 每列為 [productId (Long), 數量總和 (Long)]
+     */
+    @Query("SELECT i.product.productId, SUM(i.quantity) FROM PendingPaymentItemPO i " +
+           "WHERE i.pendingPayment.pendingPaymentId IN :ids GROUP BY i.product.productId")
+    List<Object[]> sumQuantitiesByProduct(@Param("ids") Collection<Long> pendingPaymentIds);
+}
@@ -3,10 +3,21 @@ package demo.bigwork.dao;
 import demo.bigwork.model.po.CategoryPO;
 import demo.bigwork.model.po.ProductPO;
 import demo.bigwork.model.po.UserPO;
+import demo.bigwork.model.vo.ProductResponseVO;
+import demo.bigwork.model.vo.ProductSearchDocVO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Repository (DAO) for ProductPO
@@ -35,6 +46,12 @@ public interface ProductDAO extends JpaRepository<ProductPO, Long> {
      */
     List<ProductPO> findBySeller_UserId(Long sellerId);
 
+    /**
+     * (安全) 檢查某商品是否屬於某賣家
+     * "SELECT 1 FROM products WHERE product_id = ? AND seller_id = ? LIMIT 1"
+     */
+    boolean existsByProductIdAndSeller_UserId(Long productId, Long sellerId);
+
     /**
      * 查詢某個「分類」下的「所有商品」
      *
@@ -57,6 +74,122 @@ public interface ProductDAO extends JpaRepository<ProductPO, Long> {
      */
     List<ProductPO> findByCategory_CategoryIdIn(List<Integer> categoryIds);
 
+    /**
+     * (公開列表) 直接查出 ProductResponseVO (JPQL 建構子投影)
+     * 只 SELECT VO 需要的欄位，JOIN 分類與賣家：一頁商品 = 一句 SQL，且不會建立受管理的 PO
+     * (評價) LEFT JOIN 評價彙總表 (以主鍵對應，沒有評價的商品為 null)，平均分數不必掃描 product_ratings
+     */
+    String PRODUCT_RESPONSE_SELECT =
+            "SELECT new demo.bigwork.model.vo.ProductResponseVO(" +
+            "p.productId, p.name, p.description, p.price, p.stock, p.imageUrl, p.createdAt, " +
+            "c.categoryId, c.name, s.userId, s.name, " +
+            "rs.ratingCount, rs.ratingSum, rs.star1Count, rs.star2Count, rs.star3Count, rs.star4Count, rs.star5Count) " +
+            "FROM ProductPO p JOIN p.category c JOIN p.seller s " +
+            "LEFT JOIN ProductRatingStatsPO rs ON rs.productId = p.productId ";
+
+    /**
+     * (公開列表 - 游標分頁) 第一頁：最新的商品排在最前面
+     * "SELECT ... ORDER BY created_at DESC, product_id DESC LIMIT ?"
+     */
+    @Query(PRODUCT_RESPONSE_SELECT +
+           "ORDER BY p.createdAt DESC, p.productId DESC")
+    List<ProductResponseVO> findFirstPage(Pageable pageable);
+
+    /**
+     * (公開列表 - 游標分頁) 下一頁：從上一頁最後一筆 (createdAt, productId) 之後接著讀
+     * (走 idx_products_created_id 索引，不論翻到第幾頁都只掃描一頁的資料)
+     */
+    @Query(PRODUCT_RESPONSE_SELECT +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.productId < :productId) " +
+           "ORDER BY p.createdAt DESC, p.productId DESC")
+    List<ProductResponseVO> findPageAfter(@Param("createdAt") Timestamp createdAt,
+                                          @Param("productId") Long productId,
+                                          Pageable pageable);
+
+    /**
+     * (分類列表 - 游標分頁) 第一頁：分類「及其所有子孫」中最新商品的 ID
+     * (效能) product_category_paths 的主鍵 (ancestor_category_id, created_at, product_id)：
+     *        等值 + 依主鍵順序讀出，不論子樹多大都只讀一頁 (只讀索引、不需 filesort)
+     */
+    @Query(value = "SELECT pcp.product_id FROM product_category_paths pcp " +
+                   "WHERE pcp.ancestor_category_id = :categoryId " +
+                   "ORDER BY pcp.created_at DESC, pcp.product_id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findFirstPageIdsByAncestor(@Param("categoryId") Integer categoryId, @Param("limit") int limit);
+
+    /**
+     * (分類列表 - 游標分頁) 下一頁：從上一頁最後一筆 (createdAt, productId) 之後接著讀
+     */
+    @Query(value = "SELECT pcp.product_id FROM product_category_paths pcp " +
+                   "WHERE pcp.ancestor_category_id = :categoryId " +
+                   "AND (pcp.created_at < :createdAt OR (pcp.created_at = :createdAt AND pcp.product_id < :productId)) " +
+                   "ORDER BY pcp.created_at DESC, pcp.product_id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findPageIdsAfterByAncestor(@Param("categoryId") Integer categoryId,
+                                          @Param("createdAt") Timestamp createdAt,
+                                          @Param("productId") Long productId,
+                                          @Param("limit") int limit);
+
+    /**
+     * (分類列表) 寫入商品對「自己的分類及其每一個祖先分類」的列 (在新增 / 修改商品的同一個交易中)
+     * (注意) 讀的是資料庫中的商品列，呼叫前必須先 flush
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO product_category_paths (ancestor_category_id, created_at, product_id) " +
+            "WITH RECURSIVE ancestors (category_id) AS ( " +
+            "  SELECT p.category_id FROM products p WHERE p.product_id = :productId " +
+            "  UNION ALL " +
+            "  SELECT c.parent_category_id FROM categories c JOIN ancestors a ON c.category_id = a.category_id " +
+            "  WHERE c.parent_category_id IS NOT NULL " +
+            ") " +
+            "SELECT a.category_id, p.created_at, p.product_id " +
+            "FROM ancestors a JOIN products p ON p.product_id = :productId",
+            nativeQuery = true)
+    int insertCategoryPaths(@Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = "DELETE FROM product_category_paths WHERE product_id = :productId", nativeQuery = true)
+    int deleteCategoryPaths(@Param("productId") Long productId);
+
+    /**
+     * (公開商品詳情) 單一商品的 VO 投影
+     */
+    @Query(PRODUCT_RESPONSE_SELECT + "WHERE p.productId = :productId")
+    Optional<ProductResponseVO> findResponseById(@Param("productId") Long productId);
+
+    /**
+     * (搜尋) 依 ID 批次取出 VO 投影 (全文搜尋排序完後，一次取回整頁商品)
+     * (回傳順序不保證，呼叫端需依搜尋分數重新排序)
+     */
+    @Query(PRODUCT_RESPONSE_SELECT + "WHERE p.productId IN :productIds")
+    List<ProductResponseVO> findResponsesByIds(@Param("productIds") List<Long> productIds);
+
+    /**
+     * (搜尋) 建立全文索引用：依 productId 區間分批讀取 (走主鍵，每批只掃描一批的資料)
+     * "SELECT product_id, name, description FROM products
+     *  WHERE product_id > ? AND product_id <= ? ORDER BY product_id LIMIT ?"
+     */
+    @Query("SELECT new demo.bigwork.model.vo.ProductSearchDocVO(p.productId, p.name, p.description) " +
+           "FROM ProductPO p WHERE p.productId > :afterId AND p.productId <= :upToId " +
+           "ORDER BY p.productId")
+    List<ProductSearchDocVO> findSearchDocs(@Param("afterId") Long afterId,
+                                            @Param("upToId") Long upToId,
+                                            Pageable pageable);
+
+    /**
+     * (自動完成) 依 productId 分批讀取商品名稱
+     * 每列 Object[]: [0]=Long productId, [1]=String name
+     */
+    @Query("SELECT p.productId, p.name FROM ProductPO p WHERE p.productId > :afterId ORDER BY p.productId")
+    List<Object[]> findIdAndNameAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * (搜尋) 目前最大的 productId (切分平行載入的區間用；沒有商品時為 null)
+     */
+    @Query("SELECT MAX(p.productId) FROM ProductPO p")
+    Long findMaxProductId();
+
     /**
      * (範例) 
      * 透過「商品名稱」進行模糊查詢 (e.g., 搜尋功能)
@@ -64,4 +197,59 @@ public interface ProductDAO extends JpaRepository<ProductPO, Long> {
      * (e.g., findByNameContaining("iPhone"))
      */
     List<ProductPO> findByNameContaining(String name);
+
+    /**
+     * (庫存) 條件式扣庫存：只有在「庫存足夠」時才扣除
+     * "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock >= ?"
+     *
+     * (關鍵) 判斷與扣除在「同一句 SQL」完成，不需要先 SELECT 再 save，
+     * 兩個買家同時搶最後一件時，只會有一個 UPDATE 成功 (不會超賣)
+     *
+     * (注意) 批次 UPDATE 不會經過 @Version，所以要自己把 version + 1，
+     * 讓同時在編輯這個商品的交易能偵測到衝突
+     *
+     * @return 受影響的筆數 (1 = 成功, 0 = 庫存不足或商品不存在)
+     */
+    @Modifying
+    @Query("UPDATE ProductPO p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+           "WHERE p.productId = :productId AND p.stock >= :quantity")
+    int decrementStockIfAvailable(@Param("productId") Long productId,
+                                  @Param("quantity") Integer quantity);
+
+    /**
+     * (庫存) 一次為多個商品保留庫存 (結帳用)
+     * (依 productId 排序後逐筆執行，讓並發的結帳以相同順序鎖定資料列，避免死結)
+     *
+     * (注意) 必須在交易中呼叫，且呼叫端在有失敗時要讓「整筆交易回滾」，
+     * 否則已成功扣除的商品不會被還原
+     *
+     * @param quantitiesByProductId key = productId, value = 欲扣除的數量
+     * @return 扣除失敗 (庫存不足) 的 productId 列表；全部成功時為空列表
+     */
+    default List<Long> reserveStock(Map<Long, Integer> quantitiesByProductId) {
+        List<Long> failedProductIds = new ArrayList<>();
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) -> {
+            if (decrementStockIfAvailable(productId, quantity) == 0) {
+                failedProductIds.add(productId);
+            }
+        });
+        return failedProductIds;
+    }
+
+    /**
+     * (庫存) 歸還庫存 (e.g., 待付款訂單過期)
+     * "UPDATE products SET stock = stock + ?, version = version + 1 WHERE product_id = ?"
+     */
+    @Modifying
+    @Query("UPDATE ProductPO p SET p.stock = p.stock + :quantity, p.version = p.version + 1 " +
+           "WHERE p.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * (庫存) 一次歸還多個商品的庫存
+     * (與 reserveStock 相同，依 productId 排序後逐筆執行，避免與結帳互相死結)
+     */
+    default void releaseStock(Map<Long, Integer> quantitiesByProductId) {
+        new TreeMap<>(quantitiesByProductId).forEach(this::incrementStock);
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package demo.bigwork.dao;
 
 import demo.bigwork.model.po.ProductRatingPO;
+import demo.bigwork.model.vo.RatingResponseVO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +35,58 @@ public interface ProductRatingDAO extends JpaRepository<ProductRatingPO, Long> {
      * "SELECT * FROM product_ratings WHERE buyer_id = ?"
      */
     List<ProductRatingPO> findByBuyer_UserId(Long buyerId);
-    
-    List<ProductRatingPO> findByProduct_Seller_UserId(Long sellerId);
+
+    /**
+     * (評價列表) 直接查出 RatingResponseVO (JPQL 建構子投影)
+     * JOIN 買家與商品：一頁評價 = 一句 SQL，不需要再逐筆初始化 buyer (沒有 N+1)
+     */
+    String RATING_RESPONSE_SELECT =
+            "SELECT new demo.bigwork.model.vo.RatingResponseVO(" +
+            "r.ratingId, p.productId, b.userId, b.name, r.ratingStars, r.comment, r.createdAt, " +
+            "p.name, p.imageUrl) " +
+            "FROM ProductRatingPO r JOIN r.product p JOIN r.buyer b ";
+
+    /**
+     * (商品評價 - 最新優先) 第一頁
+     * (走 idx_ratings_product_created_id 索引)
+     */
+    @Query(RATING_RESPONSE_SELECT +
+           "WHERE p.productId = :productId " +
+           "ORDER BY r.createdAt DESC, r.ratingId DESC")
+    List<RatingResponseVO> findNewestFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    /**
+     * (商品評價 - 最新優先) 下一頁：從上一頁最後一筆 (createdAt, ratingId) 之後接著讀
+     */
+    @Query(RATING_RESPONSE_SELECT +
+           "WHERE p.productId = :productId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.ratingId < :ratingId)) " +
+           "ORDER BY r.createdAt DESC, r.ratingId DESC")
+    List<RatingResponseVO> findNewestPageAfter(@Param("productId") Long productId,
+                                               @Param("createdAt") Timestamp createdAt,
+                                               @Param("ratingId") Long ratingId,
+                                               Pageable pageable);
+
+    /**
+     * (商品評價 - 星等優先) 第一頁
+     * (走 idx_ratings_product_stars_created_id 索引)
+     */
+    @Query(RATING_RESPONSE_SELECT +
+           "WHERE p.productId = :productId " +
+           "ORDER BY r.ratingStars DESC, r.createdAt DESC, r.ratingId DESC")
+    List<RatingResponseVO> findStarsFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    /**
+     * (商品評價 - 星等優先) 下一頁：從上一頁最後一筆 (ratingStars, createdAt, ratingId) 之後接著讀
+     */
+    @Query(RATING_RESPONSE_SELECT +
+           "WHERE p.productId = :productId " +
+           "AND (r.ratingStars < :ratingStars OR (r.ratingStars = :ratingStars AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.ratingId < :ratingId)))) " +
+           "ORDER BY r.ratingStars DESC, r.createdAt DESC, r.ratingId DESC")
+    List<RatingResponseVO> findStarsPageAfter(@Param("productId") Long productId,
+                                              @Param("ratingStars") Integer ratingStars,
+                                              @Param("createdAt") Timestamp createdAt,
+                                              @Param("ratingId") Long ratingId,
+                                              Pageable pageable);
 }
\ No newline at end of file
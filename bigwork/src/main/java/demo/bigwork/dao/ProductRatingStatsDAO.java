@@ -0,0 +1,148 @@
+package demo.bigwork.dao;
+
+import demo.bigwork.model.po.ProductRatingStatsPO;
+import demo.bigwork.model.vo.ProductRatingSummaryVO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductRatingStatsDAO extends JpaRepository<ProductRatingStatsPO, Long> {
+
+    /**
+     * (增量) 把差異量加到某商品的彙總列 (不存在就建立)
+     * "INSERT ... ON DUPLICATE KEY UPDATE col = col + ?"
+     *
+     * (關鍵) 一句 SQL 完成「讀 + 加 + 寫」，同時評價同一商品的交易不會互相覆蓋
+     * (注意) 必須在評價的交易中呼叫，評價回滾時彙總也一起回滾
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_stats " +
+                   "(product_id, rating_count, rating_sum, star1_count, star2_count, star3_count, star4_count, star5_count) " +
+                   "VALUES (:productId, :countDelta, :sumDelta, :star1, :star2, :star3, :star4, :star5) AS delta " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "rating_count = product_rating_stats.rating_count + delta.rating_count, " +
+                   "rating_sum = product_rating_stats.rating_sum + delta.rating_sum, " +
+                   "star1_count = product_rating_stats.star1_count + delta.star1_count, " +
+                   "star2_count = product_rating_stats.star2_count + delta.star2_count, " +
+                   "star3_count = product_rating_stats.star3_count + delta.star3_count, " +
+                   "star4_count = product_rating_stats.star4_count + delta.star4_count, " +
+                   "star5_count = product_rating_stats.star5_count + delta.star5_count",
+           nativeQuery = true)
+    int applyDelta(@Param("productId") Long productId,
+                   @Param("countDelta") int countDelta,
+                   @Param("sumDelta") int sumDelta,
+                   @Param("star1") int star1,
+                   @Param("star2") int star2,
+                   @Param("star3") int star3,
+                   @Param("star4") int star4,
+                   @Param("star5") int star5);
+
+    /**
+     * (新增評價) 評價數 + 1、該星等 + 1
+     */
+    default void addRating(Long productId, int stars) {
+        int[] histogram = starDelta(stars, 1);
+        applyDelta(productId, 1, stars,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+    }
+
+    /**
+     * (刪除評價) 評價數 - 1、該星等 - 1
+     */
+    default void removeRating(Long productId, int stars) {
+        int[] histogram = starDelta(stars, -1);
+        applyDelta(productId, -1, -stars,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+    }
+
+    /**
+     * (修改評價) 評價數不變，舊星等 - 1、新星等 + 1
+     */
+    default void changeRating(Long productId, int oldStars, int newStars) {
+        if (oldStars == newStars) {
+            return;
+        }
+        int[] histogram = starDelta(oldStars, -1);
+        histogram[newStars - 1] += 1;
+        applyDelta(productId, 0, newStars - oldStars,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+    }
+
+    private static int[] starDelta(int stars, int delta) {
+        if (stars < 1 || stars > 5) {
+            throw new IllegalArgumentException("評分必須介於 1 ~ 5 顆星: " + stars);
+        }
+        int[] histogram = new int[5];
+        histogram[stars - 1] = delta;
+        return histogram;
+    }
+
+    /**
+     * (回填) 依 product_ratings 重新計算 (afterId, upToId] 區間內商品的彙總 (覆蓋而非累加)
+     * (由 RatingService.recomputeRatingStats 在交易中呼叫)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_stats " +
+                   "(product_id, rating_count, rating_sum, star1_count, star2_count, star3_count, star4_count, star5_count) " +
+                   "SELECT * FROM (" +
+                   "  SELECT r.product_id, COUNT(*) AS c, SUM(r.rating_stars) AS s, " +
+                   "    SUM(r.rating_stars = 1) AS s1, SUM(r.rating_stars = 2) AS s2, SUM(r.rating_stars = 3) AS s3, " +
+                   "    SUM(r.rating_stars = 4) AS s4, SUM(r.rating_stars = 5) AS s5 " +
+                   "  FROM product_ratings r WHERE r.product_id > :afterId AND r.product_id <= :upToId " +
+                   "  GROUP BY r.product_id" +
+                   ") AS agg " +
+                   "ON DUPLICATE KEY UPDATE rating_count = agg.c, rating_sum = agg.s, " +
+                   "star1_count = agg.s1, star2_count = agg.s2, star3_count = agg.s3, " +
+                   "star4_count = agg.s4, star5_count = agg.s5",
+           nativeQuery = true)
+    int recomputeRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * (回填) 區間內「已經沒有任何評價」但仍有彙總列的商品 -> 歸零
+     */
+    @Modifying
+    @Query(value = "UPDATE product_rating_stats s SET s.rating_count = 0, s.rating_sum = 0, " +
+                   "s.star1_count = 0, s.star2_count = 0, s.star3_count = 0, s.star4_count = 0, s.star5_count = 0 " +
+                   "WHERE s.product_id > :afterId AND s.product_id <= :upToId AND s.rating_count <> 0 " +
+                   "AND NOT EXISTS (SELECT 1 FROM product_ratings r WHERE r.product_id = s.product_id)",
+           nativeQuery = true)
+    int resetRangeWithoutRatings(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * (賣家總覽) 某賣家「一頁」商品的評價彙總 (依 productId 由新到舊，游標分頁)
+     * 每個商品一列，不論該商品有幾筆評價 -> 總覽的成本只與商品數有關
+     */
+    String PRODUCT_RATING_SUMMARY_SELECT =
+            "SELECT new demo.bigwork.model.vo.ProductRatingSummaryVO(" +
+            "p.productId, p.name, p.imageUrl, " +
+            "rs.ratingCount, rs.ratingSum, rs.star1Count, rs.star2Count, rs.star3Count, rs.star4Count, rs.star5Count) " +
+            "FROM ProductPO p LEFT JOIN ProductRatingStatsPO rs ON rs.productId = p.productId ";
+
+    @Query(PRODUCT_RATING_SUMMARY_SELECT +
+           "WHERE p.seller.userId = :sellerId " +
+           "ORDER BY p.productId DESC")
+    List<ProductRatingSummaryVO> findSellerSummaryFirstPage(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query(PRODUCT_RATING_SUMMARY_SELECT +
+           "WHERE p.seller.userId = :sellerId AND p.productId < :afterProductId " +
+           "ORDER BY p.productId DESC")
+    List<ProductRatingSummaryVO> findSellerSummaryPageAfter(@Param("sellerId") Long sellerId,
+                                                            @Param("afterProductId") Long afterProductId,
+                                                            Pageable pageable);
+
+    /**
+     * (賣家總覽) 全店合計：把該賣家所有商品的彙總列加總 (每個商品一列，不掃描評價明細)
+     * 一列 Object[]: [0]=評價數, [1]=星數總和, [2..6]=1~5 星筆數 (沒有任何評價時為 null)
+     */
+    @Query("SELECT SUM(rs.ratingCount), SUM(rs.ratingSum), " +
+           "SUM(rs.star1Count), SUM(rs.star2Count), SUM(rs.star3Count), SUM(rs.star4Count), SUM(rs.star5Count) " +
+           "FROM ProductRatingStatsPO rs, ProductPO p " +
+           "WHERE rs.productId = p.productId AND p.seller.userId = :sellerId")
+    List<Object[]> sumBySeller(@Param("sellerId") Long sellerId);
+}
@@ -2,8 +2,14 @@ package demo.bigwork.dao;
 
 import demo.bigwork.model.po.WalletPO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,40 @@ public interface WalletDAO extends JpaRepository<WalletPO, Long> {
     
     // "SELECT * FROM wallets WHERE user_id = ?"
 	Optional<WalletPO> findByUser_UserId(Long userId);
-}
\ No newline at end of file
+
+    // (結帳用) 一次查詢多位使用者的錢包
+    // "SELECT * FROM wallets WHERE user_id IN (?, ?, ...)"
+    List<WalletPO> findByUser_UserIdIn(Collection<Long> userIds);
+
+    // (入帳) 直接在資料庫加餘額，不需要先讀出錢包
+    // "UPDATE wallets SET balance = balance + ?, version = version + 1 WHERE user_id = ?"
+    // (注意) 批次 UPDATE 不會經過 @Version，要自己 version + 1，已讀出錢包的交易才會偵測到衝突
+    @Modifying
+    @Query("UPDATE WalletPO w SET w.balance = w.balance + :amount, w.version = w.version + 1 " +
+           "WHERE w.user.userId = :userId")
+    int addToBalanceByUserId(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // (只查主鍵) "SELECT wallet_id FROM wallets WHERE user_id = ?"
+    @Query("SELECT w.walletId FROM WalletPO w WHERE w.user.userId = :userId")
+    Optional<Long> findWalletIdByUserId(@Param("userId") Long userId);
+
+    // (儲值) 一句 SQL 完成加值，沒有「讀出 -> 修改 -> 寫回」的空窗
+    // "UPDATE wallets SET balance = balance + ?, version = version + 1 WHERE wallet_id = ?"
+    @Modifying
+    @Query("UPDATE WalletPO w SET w.balance = w.balance + :amount, w.version = w.version + 1 " +
+           "WHERE w.walletId = :walletId")
+    int addToBalance(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    // (扣款) 只有在「餘額足夠」時才扣除，判斷與扣除在同一句 SQL 完成 (不會扣成負數)
+    // "UPDATE wallets SET balance = balance - ?, version = version + 1 WHERE wallet_id = ? AND balance >= ?"
+    // @return 1 = 成功, 0 = 餘額不足
+    @Modifying
+    @Query("UPDATE WalletPO w SET w.balance = w.balance - :amount, w.version = w.version + 1 " +
+           "WHERE w.walletId = :walletId AND w.balance >= :amount")
+    int deductFromBalanceIfSufficient(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    // (MySQL 沒有 UPDATE ... RETURNING) 在同一個交易中讀回剛更新的餘額
+    // "SELECT balance FROM wallets WHERE wallet_id = ?"
+    @Query("SELECT w.balance FROM WalletPO w WHERE w.walletId = :walletId")
+    BigDecimal findBalanceByWalletId(@Param("walletId") Long walletId);
+}
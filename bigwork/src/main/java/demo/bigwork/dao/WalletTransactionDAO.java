@@ -2,7 +2,12 @@ package demo.bigwork.dao;
 
 import demo.bigwork.model.po.WalletTransactionPO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -10,4 +15,30 @@ public interface WalletTransactionDAO extends JpaRepository<WalletTransactionPO,
 
     // 查詢某個錢包的「所有」交易紀錄 (e.g., "SELECT * FROM ... WHERE wallet_id = ?")
     List<WalletTransactionPO> findByWallet_WalletId(Long walletId);
-}
\ No newline at end of file
+
+    /**
+     * (入帳) 查詢並「鎖定」某使用者「尚未併入餘額」的交易紀錄
+     * (關鍵) FOR UPDATE SKIP LOCKED：被另一個入帳程序 (排程 / 同一賣家的其他請求) 鎖住的紀錄直接略過，
+     *        不等待也不報錯 —— 那些紀錄由持有鎖的一方入帳；本交易只入帳自己鎖到的紀錄
+     */
+    @Query(value = "SELECT t.* FROM wallet_transactions t JOIN wallets w ON w.wallet_id = t.wallet_id " +
+                   "WHERE w.user_id = :userId AND t.settled = 0 " +
+                   "FOR UPDATE OF t SKIP LOCKED",
+           nativeQuery = true)
+    List<WalletTransactionPO> findPendingByUserId(@Param("userId") Long userId);
+
+    /**
+     * (入帳排程) 查詢「有待入帳紀錄」的使用者 ID
+     */
+    @Query("SELECT DISTINCT t.wallet.user.userId FROM WalletTransactionPO t WHERE t.settled = false")
+    List<Long> findUserIdsWithPending();
+
+    /**
+     * (入帳) 將交易紀錄標記為「已入帳」
+     * (加上 settled = false 條件：只會標記尚未入帳的紀錄，重複入帳不會發生)
+     */
+    @Modifying
+    @Query("UPDATE WalletTransactionPO t SET t.settled = true " +
+           "WHERE t.txId IN :txIds AND t.settled = false")
+    int markSettled(@Param("txIds") Collection<Long> txIds);
+}
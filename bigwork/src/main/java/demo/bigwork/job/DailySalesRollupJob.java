@@ -0,0 +1,81 @@
+package demo.bigwork.job;
+
+import demo.bigwork.dao.OrderDAO;
+import demo.bigwork.service.AdminReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * (營運報表) 維護 daily_sales_rollup / daily_category_rollup
+ *
+ * - 排程：每小時以「覆蓋」方式重算最近 RECENT_DAYS 天 (冪等；漏跑一輪下一輪會補上)，
+ *   結帳不需要另外更新彙總，也不會讓所有結帳搶同一列「今天」的鎖
+ * - 回填：以「日期」(epoch day) 當作區間 ID 平行重算 (見 RangeBackfillJob)，每段 chunk-size 天一個交易
+ *   觸發方式：POST /api/admin/reports/rollups/backfill?from=&to=
+ */
+@Component
+public class DailySalesRollupJob extends RangeBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailySalesRollupJob.class);
+
+    // 報表最近 2 天直接查 orders；排程多重算 1 天，確保讀彙總的日子在跨日後至少被重算過一次
+    private static final int RECENT_DAYS = 3;
+
+    private final OrderDAO orderDAO;
+    private final AdminReportService adminReportService;
+
+    @Autowired
+    public DailySalesRollupJob(OrderDAO orderDAO,
+                               AdminReportService adminReportService,
+                               @Value("${report.rollup.backfill.threads:4}") int threads,
+                               @Value("${report.rollup.backfill.chunk-days:7}") int chunkDays) {
+        super("daily-rollup-backfill", threads, chunkDays);
+        this.orderDAO = orderDAO;
+        this.adminReportService = adminReportService;
+    }
+
+    @Scheduled(fixedDelayString = "${report.rollup.refresh-interval-ms:3600000}")
+    public void refreshRecentDays() {
+        LocalDate today = LocalDate.now();
+        try {
+            adminReportService.rebuildDailyRollups(today.minusDays(RECENT_DAYS - 1), today.plusDays(1));
+        } catch (RuntimeException e) {
+            logger.warn("每日彙總重算失敗，下一輪再試：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在背景重算 [from, to] (含頭尾) 的每日彙總；null = 從第一筆訂單 / 到今天
+     *
+     * @return false = 已經有一個回填在執行
+     */
+    public boolean startAsync(LocalDate from, LocalDate to) {
+        return startAsync(from == null ? null : from.toEpochDay() - 1,
+                to == null ? null : to.toEpochDay());
+    }
+
+    @Override
+    protected Long findMaxId() {
+        return orderDAO.findMinCreatedAt() == null ? null : LocalDate.now().toEpochDay();
+    }
+
+    @Override
+    protected long findFirstAfterId() {
+        Timestamp first = orderDAO.findMinCreatedAt();
+        return first == null ? 0L : first.toLocalDateTime().toLocalDate().toEpochDay() - 1;
+    }
+
+    @Override
+    protected int processRange(long afterId, long upToId) {
+        // (afterId, upToId] 天 -> [afterId + 1, upToId + 1)
+        return adminReportService.rebuildDailyRollups(
+                LocalDate.ofEpochDay(afterId + 1), LocalDate.ofEpochDay(upToId + 1));
+    }
+}
@@ -0,0 +1,53 @@
+package demo.bigwork.job;
+
+import demo.bigwork.dao.OrderDAO;
+import demo.bigwork.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * (回填) 依既有的 orders / order_items / product_ratings 重新產生 order_summaries
+ *
+ * - 依 orderId 區間平行處理 (見 RangeBackfillJob)，每個區間一句 INSERT ... SELECT (一個交易)
+ * - 結果是「覆蓋」，重複執行是安全的 (也可用來修正摘要與明細不一致)
+ * - 觸發方式：POST /api/admin/orders/summaries/backfill，或設定 order-summaries.backfill-on-startup=true
+ */
+@Component
+public class OrderSummaryBackfillJob extends RangeBackfillJob {
+
+    private final OrderDAO orderDAO;
+    private final OrderService orderService;
+    private final boolean backfillOnStartup;
+
+    @Autowired
+    public OrderSummaryBackfillJob(OrderDAO orderDAO,
+                                   OrderService orderService,
+                                   @Value("${order-summaries.backfill.threads:4}") int threads,
+                                   @Value("${order-summaries.backfill.chunk-size:1000}") int chunkSize,
+                                   @Value("${order-summaries.backfill-on-startup:false}") boolean backfillOnStartup) {
+        super("order-summaries-backfill", threads, chunkSize);
+        this.orderDAO = orderDAO;
+        this.orderService = orderService;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            startAsync();
+        }
+    }
+
+    @Override
+    protected Long findMaxId() {
+        return orderDAO.findMaxOrderId();
+    }
+
+    @Override
+    protected int processRange(long afterId, long upToId) {
+        return orderService.rebuildOrderSummaries(afterId, upToId);
+    }
+}
@@ -0,0 +1,140 @@
+package demo.bigwork.job;
+
+import demo.bigwork.dao.PaymentNotificationDAO;
+import demo.bigwork.model.enums.NotificationStatus;
+import demo.bigwork.model.vo.PaymentNotificationMetricsVO;
+import demo.bigwork.service.PaymentNotificationService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (背景工作) 消化 payment_notifications 收件匣
+ *
+ * - /notify 收下通知後會立刻 dispatch()，通常幾毫秒內就開始建單
+ * - 排程會定期掃描已到重試時間的 PENDING 通知 (重啟前沒處理完、佇列滿被拒絕、處理失敗待重試)
+ *   處理失敗的通知依失敗次數指數退避 (見 PaymentNotificationService.recordFailure)，下游中斷時不會忙碌重試
+ * - 執行緒數量與佇列長度都有上限：綠界大量重送時不會把資料庫連線池吃光
+ */
+@Component
+public class PaymentNotificationWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentNotificationWorker.class);
+
+    private final PaymentNotificationService paymentNotificationService;
+    private final PaymentNotificationDAO paymentNotificationDAO;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+
+    // (關鍵) 同一台主機上，同一筆通知同時只會有一個任務 (跨主機由 markProcessed 保證)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // (監控)
+    private final AtomicLong processedTotal = new AtomicLong();
+    private final AtomicLong failureTotal = new AtomicLong();
+    private final AtomicLong lastProcessingLagMs = new AtomicLong();
+
+    @Autowired
+    public PaymentNotificationWorker(PaymentNotificationService paymentNotificationService,
+                                     PaymentNotificationDAO paymentNotificationDAO,
+                                     @Value("${payment.notify.worker-threads:4}") int workerThreads,
+                                     @Value("${payment.notify.queue-capacity:200}") int queueCapacity,
+                                     @Value("${payment.notify.batch-size:100}") int batchSize) {
+        this.paymentNotificationService = paymentNotificationService;
+        this.paymentNotificationDAO = paymentNotificationDAO;
+        this.batchSize = batchSize;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread t = new Thread(runnable, "payment-notify-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * 把一筆通知交給工作執行緒處理
+     * (佇列滿時直接放棄，通知仍是 PENDING，下一輪排程會再撿回來)
+     */
+    public void dispatch(Long notificationId) {
+        if (!inFlight.add(notificationId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> handle(notificationId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(notificationId);
+            logger.warn("付款通知佇列已滿，通知 {} 留待下一輪處理", notificationId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.notify.poll-interval-ms:2000}")
+    public void drainInbox() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        paymentNotificationDAO.findDueIds(new Timestamp(System.currentTimeMillis()),
+                        PageRequest.of(0, Math.min(room, batchSize)))
+                .forEach(this::dispatch);
+    }
+
+    private void handle(Long notificationId) {
+        try {
+            if (paymentNotificationService.process(notificationId)) {
+                processedTotal.incrementAndGet();
+                paymentNotificationDAO.findById(notificationId).ifPresent(n -> lastProcessingLagMs.set(
+                        n.getProcessedAt().getTime() - n.getReceivedAt().getTime()));
+            }
+        } catch (Exception e) {
+            failureTotal.incrementAndGet();
+            logger.error("付款通知 {} 建單失敗，退避後重試", notificationId, e);
+            try {
+                paymentNotificationService.recordFailure(notificationId, e.getMessage());
+            } catch (RuntimeException recordError) {
+                logger.error("無法記錄付款通知 {} 的失敗原因", notificationId, recordError);
+            }
+        } finally {
+            inFlight.remove(notificationId);
+        }
+    }
+
+    public PaymentNotificationMetricsVO getMetrics() {
+        PaymentNotificationMetricsVO vo = new PaymentNotificationMetricsVO();
+        vo.setPendingCount(paymentNotificationDAO.countByStatus(NotificationStatus.PENDING));
+        vo.setFailedCount(paymentNotificationDAO.countByStatus(NotificationStatus.FAILED));
+        vo.setInFlightCount(inFlight.size());
+        vo.setExecutorQueueSize(executor.getQueue().size());
+
+        Timestamp oldestPending = paymentNotificationDAO.findOldestReceivedAtByStatus(NotificationStatus.PENDING);
+        vo.setOldestPendingAgeMs(oldestPending == null ? 0 : System.currentTimeMillis() - oldestPending.getTime());
+        vo.setLastProcessingLagMs(lastProcessingLagMs.get());
+        vo.setProcessedTotal(processedTotal.get());
+        vo.setFailureTotal(failureTotal.get());
+        return vo;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 還沒處理完的通知仍是 PENDING，下次啟動時會被排程撿回來
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,32 @@
+package demo.bigwork.job;
+
+import demo.bigwork.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * (排程) 定期釋放「已過期仍未付款」的綠界待付款訂單，歸還保留的庫存
+ * (每批一個交易；一批滿了代表可能還有，繼續處理下一批)
+ */
+@Component
+public class PendingPaymentSweeper {
+
+    private final OrderService orderService;
+    private final int batchSize;
+
+    @Autowired
+    public PendingPaymentSweeper(OrderService orderService,
+                                 @Value("${payment.reservation.sweep-batch-size:200}") int batchSize) {
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reservation.sweep-interval-ms:60000}")
+    public void releaseExpired() {
+        while (orderService.releaseExpiredPendingPayments(batchSize) == batchSize) {
+            // 繼續處理下一批
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package demo.bigwork.job;
+
+import demo.bigwork.dao.ProductDAO;
+import demo.bigwork.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * (回填) 依既有的 product_ratings 重新計算 product_rating_stats
+ *
+ * - 依 productId 區間平行處理 (見 RangeBackfillJob)，
+ *   每個區間一句 INSERT ... SELECT ... GROUP BY (一個交易)
+ * - 結果是「覆蓋」而非累加，重複執行是安全的 (也可用來修正彙總與明細不一致)
+ * - 觸發方式：POST /api/admin/ratings/stats/backfill，或設定 rating-stats.backfill-on-startup=true
+ */
+@Component
+public class ProductRatingStatsBackfillJob extends RangeBackfillJob {
+
+    private final ProductDAO productDAO;
+    private final RatingService ratingService;
+    private final boolean backfillOnStartup;
+
+    @Autowired
+    public ProductRatingStatsBackfillJob(ProductDAO productDAO,
+                                         RatingService ratingService,
+                                         @Value("${rating-stats.backfill.threads:4}") int threads,
+                                         @Value("${rating-stats.backfill.chunk-size:1000}") int chunkSize,
+                                         @Value("${rating-stats.backfill-on-startup:false}") boolean backfillOnStartup) {
+        super("rating-stats-backfill", threads, chunkSize);
+        this.productDAO = productDAO;
+        this.ratingService = ratingService;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            startAsync();
+        }
+    }
+
+    @Override
+    protected Long findMaxId() {
+        return productDAO.findMaxProductId();
+    }
+
+    @Override
+    protected int processRange(long afterId, long upToId) {
+        return ratingService.recomputeRatingStats(afterId, upToId);
+    }
+}
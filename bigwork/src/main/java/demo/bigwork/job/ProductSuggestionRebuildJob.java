@@ -0,0 +1,34 @@
+package demo.bigwork.job;
+
+import demo.bigwork.search.ProductSuggestionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * (排程) 定期重建「自動完成」前綴樹 (啟動後立即建第一次)
+ * (重建失敗時保留舊樹繼續服務，下一輪再試)
+ */
+@Component
+public class ProductSuggestionRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionRebuildJob.class);
+
+    private final ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    public ProductSuggestionRebuildJob(ProductSuggestionIndex productSuggestionIndex) {
+        this.productSuggestionIndex = productSuggestionIndex;
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        try {
+            productSuggestionIndex.rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("自動完成前綴樹重建失敗，繼續使用舊的：{}", e.getMessage());
+        }
+    }
+}
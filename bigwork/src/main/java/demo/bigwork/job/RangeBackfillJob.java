@@ -0,0 +1,126 @@
+package demo.bigwork.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (回填) 依主鍵區間「平行」重新計算彙總表 / 讀取模型的共用骨架
+ *
+ * - 把 [0, 最大 ID] (或呼叫端指定的區間) 切成每段 chunkSize 個 ID 的區間，由 threads 條執行緒平行處理，
+ *   每個區間一個交易 (由子類別呼叫的 Service / DAO 負責)，不會有一個超大交易鎖住整張表
+ * - 子類別的 processRange 必須是「覆蓋」而非累加，重複執行才安全
+ * - 同一時間只跑一個回填
+ */
+abstract class RangeBackfillJob {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String name;
+    private final int threads;
+    private final int chunkSize;
+
+    // (防呆) 同一時間只跑一個回填
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    RangeBackfillJob(String name, int threads, int chunkSize) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 目前最大的主鍵 (沒有資料時為 null)
+     */
+    protected abstract Long findMaxId();
+
+    /**
+     * 整體回填的起點 (不含)；預設 0 = 從第一筆開始
+     */
+    protected long findFirstAfterId() {
+        return 0L;
+    }
+
+    /**
+     * 重新計算 (afterId, upToId] 區間 (一個交易)
+     *
+     * @return 受影響列數 (只用於記錄)
+     */
+    protected abstract int processRange(long afterId, long upToId);
+
+    /**
+     * 在背景開始回填
+     *
+     * @return false = 已經有一個回填在執行
+     */
+    public boolean startAsync() {
+        return startAsync(null, null);
+    }
+
+    /**
+     * 在背景只回填 (afterId, upToId] 區間
+     *
+     * @param afterId 起點 (不含)；null = findFirstAfterId()
+     * @param upToId  終點 (含)；null = findMaxId()
+     * @return false = 已經有一個回填在執行
+     */
+    public boolean startAsync(Long afterId, Long upToId) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread coordinator = new Thread(() -> {
+            try {
+                backfill(afterId, upToId);
+            } finally {
+                running.set(false);
+            }
+        }, name);
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void backfill(Long firstAfterId, Long upToId) {
+        long startedAt = System.currentTimeMillis();
+        Long maxId = upToId != null ? upToId : findMaxId();
+        if (maxId == null) {
+            logger.info("{}：沒有資料，略過回填", name);
+            return;
+        }
+        long startAfterId = firstAfterId != null ? firstAfterId : findFirstAfterId();
+
+        AtomicLong affected = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (long afterId = startAfterId; afterId < maxId; afterId += chunkSize) {
+                long from = afterId;
+                long upTo = Math.min(maxId, afterId + chunkSize);
+                futures.add(CompletableFuture.runAsync(
+                        () -> affected.addAndGet(processRange(from, upTo)), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            logger.info("{} 完成：{} 個區間、受影響 {} 列，耗時 {} ms",
+                    name, futures.size(), affected.get(), System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.error("{} 失敗 (可重新執行，結果會覆蓋)", name, e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
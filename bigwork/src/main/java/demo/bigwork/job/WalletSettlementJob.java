@@ -0,0 +1,43 @@
+package demo.bigwork.job;
+
+import demo.bigwork.dao.WalletTransactionDAO;
+import demo.bigwork.service.WalletLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * (排程) 定期把賣家「尚未入帳」的收款併入錢包餘額
+ * (每位使用者各自一個交易，單一錢包失敗不影響其他人，下一輪會再試)
+ */
+@Component
+public class WalletSettlementJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletSettlementJob.class);
+
+    private final WalletTransactionDAO walletTransactionDAO;
+    private final WalletLedgerService walletLedgerService;
+
+    @Autowired
+    public WalletSettlementJob(WalletTransactionDAO walletTransactionDAO,
+                               WalletLedgerService walletLedgerService) {
+        this.walletTransactionDAO = walletTransactionDAO;
+        this.walletLedgerService = walletLedgerService;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.settlement.interval-ms:5000}")
+    public void settleAllPendingCredits() {
+        List<Long> userIds = walletTransactionDAO.findUserIdsWithPending();
+        for (Long userId : userIds) {
+            try {
+                walletLedgerService.settlePendingCredits(userId);
+            } catch (RuntimeException e) {
+                logger.warn("使用者 {} 收款入帳失敗，下一輪再試：{}", userId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package demo.bigwork.model.enums;
+
+public enum NotificationStatus {
+    PENDING,    // (待處理) - 已收下，等待背景建單
+    PROCESSED,  // (已處理) - 建單完成 (每個 MerchantTradeNo 只會處理一次)
+    FAILED      // (失敗)   - 重試次數用盡，需要人工介入
+}
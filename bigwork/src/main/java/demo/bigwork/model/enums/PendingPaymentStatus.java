@@ -0,0 +1,7 @@
+package demo.bigwork.model.enums;
+
+public enum PendingPaymentStatus {
+    PENDING,  // (待付款) - 已保留庫存，等待綠界通知
+    PAID,     // (已付款) - 已依快照建立訂單
+    EXPIRED   // (已過期) - 保留期限已過，庫存已歸還
+}
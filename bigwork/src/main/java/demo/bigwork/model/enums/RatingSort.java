@@ -0,0 +1,6 @@
+package demo.bigwork.model.enums;
+
+public enum RatingSort {
+    NEWEST,     // (最新優先) - created_at DESC
+    STARS       // (星等優先) - rating_stars DESC，同星等再依最新
+}
@@ -0,0 +1,6 @@
+package demo.bigwork.model.enums;
+
+public enum SuggestionType {
+    PRODUCT,    // (商品名稱)
+    CATEGORY    // (分類名稱)
+}
@@ -1,14 +1,17 @@
 package demo.bigwork.model.po;
 
+import demo.bigwork.service.Impl.CategoryChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * PO (Entity) - 對應 `categories` 商品分類資料表
+ * (快取) 任何異動都會讓分類樹快取失效 (見 CategoryChangeListener)
  */
 @Entity
 @Table(name = "categories")
+@EntityListeners(CategoryChangeListener.class)
 @Data
 @NoArgsConstructor
 public class CategoryPO {
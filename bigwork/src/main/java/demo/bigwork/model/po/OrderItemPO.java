@@ -15,8 +15,12 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(exclude = {"order", "product", "productRating"})
 public class OrderItemPO {
 
+    // (效能) 與 OrderPO 相同，使用號段主鍵以便批次 INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_gen")
+    @TableGenerator(name = "order_items_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "order_items", allocationSize = 50)
     @Column(name = "order_item_id")
     private Long orderItemId;
 
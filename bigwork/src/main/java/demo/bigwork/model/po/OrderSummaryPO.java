@@ -0,0 +1,62 @@
+package demo.bigwork.model.po;
+
+import demo.bigwork.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * PO (Entity) - 對應 `order_summaries` 訂單列表讀取模型
+ *
+ * (關鍵) 只由 OrderSummaryDAO 的原生 SQL 寫入 (與訂單 / 評價在同一個交易)，
+ * 程式中不會 new 這個物件再 save；這裡的對應只用於查詢 (JPQL 投影)
+ */
+@Entity
+@Table(name = "order_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderSummaryPO {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "buyer_id", nullable = false)
+    private Long buyerId;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "buyer_name", nullable = false, length = 100)
+    private String buyerName;
+
+    @Column(name = "seller_name", nullable = false, length = 100)
+    private String sellerName;
+
+    @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "rated_item_count", nullable = false)
+    private Integer ratedItemCount;
+
+    @Column(name = "first_item_name")
+    private String firstItemName;
+
+    @Column(name = "first_item_image_url")
+    private String firstItemImageUrl;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,71 @@
+package demo.bigwork.model.po;
+
+import demo.bigwork.model.enums.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * PO (Entity) - 對應 `payment_notifications` 綠界付款通知收件匣
+ *
+ * (關鍵) merchant_trade_no 有唯一索引：綠界重送同一筆通知時，第二次 INSERT 會失敗，
+ * 保證每一筆交易只會被收下 (處理) 一次
+ */
+@Entity
+@Table(name = "payment_notifications")
+@Data
+@NoArgsConstructor
+public class PaymentNotificationPO {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Column(name = "merchant_trade_no", nullable = false, unique = true, length = 20)
+    private String merchantTradeNo;
+
+    // (注意) 只存 ID，不做 @ManyToOne：收件時不需要查詢 users
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "trade_amt", nullable = false, precision = 10, scale = 2)
+    private BigDecimal tradeAmt;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // (重試) 建單失敗後依失敗次數指數退避；時間未到之前排程不會撿回來
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private Timestamp receivedAt;
+
+    @Column(name = "processed_at")
+    private Timestamp processedAt;
+
+    // (方便 Service 使用的建構子)
+    public PaymentNotificationPO(String merchantTradeNo, Long userId, BigDecimal tradeAmt, String payload) {
+        this.merchantTradeNo = merchantTradeNo;
+        this.userId = userId;
+        this.tradeAmt = tradeAmt;
+        this.payload = payload;
+        this.nextAttemptAt = new Timestamp(System.currentTimeMillis()); // (立即可處理)
+    }
+}
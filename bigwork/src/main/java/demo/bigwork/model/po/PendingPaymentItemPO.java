@@ -0,0 +1,48 @@
+package demo.bigwork.model.po;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * PO (Entity) - 對應 `pending_payment_items` 待付款訂單明細 (購物車快照)
+ */
+@Entity
+@Table(name = "pending_payment_items")
+// (關鍵) 絕對不要用 @Data
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = {"pendingPayment", "product", "seller"})
+@EqualsAndHashCode(exclude = {"pendingPayment", "product", "seller"})
+public class PendingPaymentItemPO {
+
+    // (效能) 與 OrderItemPO 相同，使用號段主鍵以便批次 INSERT
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pending_payment_items_gen")
+    @TableGenerator(name = "pending_payment_items_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "pending_payment_items", allocationSize = 50)
+    @Column(name = "pending_payment_item_id")
+    private Long pendingPaymentItemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pending_payment_id", nullable = false)
+    private PendingPaymentPO pendingPayment;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private ProductPO product;
+
+    // (快照) 付款後依賣家拆單，不需要再經由 product 查詢
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "seller_id", nullable = false)
+    private UserPO seller;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "price_per_unit", nullable = false, precision = 10, scale = 2)
+    private BigDecimal pricePerUnit; // (價格快照)
+}
@@ -0,0 +1,64 @@
+package demo.bigwork.model.po;
+
+import demo.bigwork.model.enums.PendingPaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PO (Entity) - 對應 `pending_payments` 綠界待付款訂單
+ *
+ * (關鍵) /createOrder 時就先扣庫存 (保留) 並快照購物車，
+ * 綠界通知到達時只需要把狀態改成 PAID、依快照建立訂單
+ */
+@Entity
+@Table(name = "pending_payments")
+// (關鍵) 絕對不要用 @Data
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = {"buyer", "items"})
+@EqualsAndHashCode(exclude = {"buyer", "items"})
+public class PendingPaymentPO {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "pending_payment_id")
+    private Long pendingPaymentId;
+
+    @Column(name = "merchant_trade_no", nullable = false, unique = true, length = 20)
+    private String merchantTradeNo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "buyer_id", nullable = false)
+    private UserPO buyer;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PendingPaymentStatus status = PendingPaymentStatus.PENDING;
+
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Timestamp createdAt;
+
+    @OneToMany(mappedBy = "pendingPayment", cascade = CascadeType.ALL,
+            fetch = FetchType.LAZY, orphanRemoval = true)
+    private List<PendingPaymentItemPO> items = new ArrayList<>();
+
+    // (輔助方法) 自動設定雙向關聯 (與 OrderPO.addOrderItem 相同)
+    public void addItem(PendingPaymentItemPO item) {
+        items.add(item);
+        item.setPendingPayment(this);
+    }
+}
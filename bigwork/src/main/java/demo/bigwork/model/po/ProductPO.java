@@ -59,6 +59,14 @@ public class ProductPO {
 
     @Column(name = "stock", nullable = false)
     private Integer stock;
+
+    /**
+     * (關鍵) 樂觀鎖版本號 (與 WalletPO 相同)
+     * 賣家編輯商品與結帳扣庫存同時發生時，後提交的一方會失敗並重試，而不是覆蓋掉對方的庫存
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     
     @Column(name = "image_url", length = 255)
     private String imageUrl; // Lombok @Data 會自動生成 get/set
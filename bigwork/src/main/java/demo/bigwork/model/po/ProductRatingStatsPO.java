@@ -0,0 +1,45 @@
+package demo.bigwork.model.po;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * PO (Entity) - 對應 `product_rating_stats` 商品評價彙總表
+ *
+ * (關鍵) 只由 ProductRatingStatsDAO 的 UPSERT 增量更新 (與評價在同一個交易)，
+ * 程式中不會 new 這個物件再 save；這裡的對應只用於查詢 (e.g., JPQL JOIN)
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductRatingStatsPO {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "rating_count", nullable = false)
+    private Integer ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "star1_count", nullable = false)
+    private Integer star1Count;
+
+    @Column(name = "star2_count", nullable = false)
+    private Integer star2Count;
+
+    @Column(name = "star3_count", nullable = false)
+    private Integer star3Count;
+
+    @Column(name = "star4_count", nullable = false)
+    private Integer star4Count;
+
+    @Column(name = "star5_count", nullable = false)
+    private Integer star5Count;
+}
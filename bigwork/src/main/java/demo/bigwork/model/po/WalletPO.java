@@ -29,6 +29,15 @@ public class WalletPO {
     @Column(name = "balance", nullable = false, precision = 10, scale = 2)
     private BigDecimal balance;
 
+    /**
+     * (關鍵) 樂觀鎖版本號
+     * UPDATE 時 Hibernate 會加上 "WHERE version = ?"，
+     * 兩個交易同時修改同一個錢包時，後提交的會失敗 (由 @OptimisticRetry 重試)，不會互相覆蓋餘額
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // (方便 Service 使用的建構子)
     public WalletPO(UserPO user, BigDecimal initialBalance) {
         this.user = user;
@@ -14,8 +14,12 @@ import java.sql.Timestamp;
 @NoArgsConstructor
 public class WalletTransactionPO {
 
+    // (效能) 與 OrderPO 相同，使用號段主鍵以便批次 INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "wallet_transactions_gen")
+    @TableGenerator(name = "wallet_transactions_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "wallet_transactions", allocationSize = 50)
     @Column(name = "tx_id")
     private Long txId;
 
@@ -45,6 +49,14 @@ public class WalletTransactionPO {
     @Column(name = "timestamp", nullable = false, updatable = false)
     private Timestamp timestamp;
 
+    /**
+     * 是否已併入錢包餘額
+     * - true : 建立時就已經更新過 wallets.balance (儲值、提款、購買...)
+     * - false: 只寫入流水帳，等待 WalletLedgerService 彙總入帳 (賣家收款)
+     */
+    @Column(name = "settled", nullable = false)
+    private boolean settled = true;
+
     // (方便 Service 使用的建構子)
     public WalletTransactionPO(WalletPO wallet, TransactionType type, BigDecimal amount) {
         this.wallet = wallet;
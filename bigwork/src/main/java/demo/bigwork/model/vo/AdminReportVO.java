@@ -35,4 +35,10 @@ public class AdminReportVO {
     private List<CategorySalesVO> topCategories;
 
     private int totalOrderCount;
+
+    /** 是否有查詢逾時 / 失敗 (true 時缺漏區塊以 0 或空清單呈現) */
+    private boolean partial;
+
+    /** 缺漏的區塊：orderSummary / newBuyerCount / newSellerCount / topCategories */
+    private List<String> missingSections;
 }
\ No newline at end of file
@@ -60,4 +60,7 @@ public class FinancialReportVO {
     private int currentOrders;
     private int previousOrders;
 
+    /** 本期或上期有查詢逾時 / 失敗 (數字可能不完整) */
+    private boolean partial;
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package demo.bigwork.model.vo;
+
+import lombok.Data;
+
+/**
+ * (監控) @OptimisticRetry 樂觀鎖衝突 / 重試的累計次數 (本次啟動以來)
+ */
+@Data
+public class OptimisticRetryMetricsVO {
+
+    private long conflictCount;   // 發生樂觀鎖衝突的次數 (含最後重試用盡的那次)
+    private long retryCount;      // 衝突後重新執行的次數
+    private long exhaustedCount;  // 重試用盡仍失敗、把錯誤丟回呼叫端的次數
+}
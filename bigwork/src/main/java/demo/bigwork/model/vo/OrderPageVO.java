@@ -0,0 +1,18 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * (VO) 訂單歷史的「一頁」(每筆是 order_summaries 的摘要；明細請呼叫訂單詳情 API)
+ * nextCursor 為 null 代表已經是最後一頁
+ */
+@Data
+@AllArgsConstructor
+public class OrderPageVO {
+
+    private List<OrderSummaryVO> items;
+    private String nextCursor;
+}
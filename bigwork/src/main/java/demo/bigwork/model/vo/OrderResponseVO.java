@@ -47,6 +47,22 @@ public class OrderResponseVO {
 		private Integer currentRatingStars; // (如果評價過，這裡有星數)
 		private String currentRatingComment; // (如果評價過，這裡有評論)
 
+		/**
+		 * (效能) 由 OrderItemDAO.findResponseRowsByOrderIds 的一列建立
+		 * (欄位順序見該方法說明；商品已被刪除時 productId 為 null)
+		 */
+		public OrderItemResponseVO(Object[] row) {
+			this.orderItemId = (Long) row[1];
+			this.productId = (Long) row[2];
+			this.quantity = (Integer) row[3];
+			this.pricePerUnit = (BigDecimal) row[4];
+			this.productName = this.productId != null ? (String) row[5] : "【商品已失效】";
+			this.productImageUrl = (String) row[6];
+			this.ratingId = (Long) row[7];
+			this.currentRatingStars = (Integer) row[8];
+			this.currentRatingComment = (String) row[9];
+		}
+
 		// (OrderItemPO -> VO 轉換器)
 		public OrderItemResponseVO(OrderItemPO itemPO) {
 			this.orderItemId = itemPO.getOrderItemId();
@@ -91,6 +107,16 @@ public class OrderResponseVO {
 	 * (OrderPO -> VO 轉換器) (不變 - 這個建構子已是正確的)
 	 */
 	public OrderResponseVO(OrderPO orderPO) {
+		// (關鍵)
+		// 轉換「巢狀」的 items
+		// (這會觸發 OrderItemPO 的懶載入，並呼叫上面「已更新」的建構子)
+		this(orderPO, orderPO.getItems().stream().map(OrderItemResponseVO::new).collect(Collectors.toList()));
+	}
+
+	/**
+	 * (效能) 明細已經另外批次查好時使用 (見 OrderHistoryLoader)：不觸碰 orderPO.getItems()
+	 */
+	public OrderResponseVO(OrderPO orderPO, List<OrderItemResponseVO> items) {
 		this.orderId = orderPO.getOrderId();
 		this.totalPrice = orderPO.getTotalPrice();
 		this.status = orderPO.getStatus();
@@ -106,9 +132,6 @@ public class OrderResponseVO {
 			this.sellerName = orderPO.getSeller().getName();
 		}
 
-		// (關鍵)
-		// 轉換「巢狀」的 items
-		// (這會觸發 OrderItemPO 的懶載入，並呼叫上面「已更新」的建構子)
-		this.items = orderPO.getItems().stream().map(OrderItemResponseVO::new).collect(Collectors.toList());
+		this.items = items;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package demo.bigwork.model.vo;
+
+import demo.bigwork.model.enums.OrderStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * (VO) 訂單列表的「一列」(來自 order_summaries 讀取模型)
+ * 明細內容請呼叫訂單詳情 API
+ */
+@Data
+public class OrderSummaryVO {
+
+    private Long orderId;
+    private Long buyerId;
+    private String buyerName;
+    private Long sellerId;
+    private String sellerName;
+    private BigDecimal totalPrice;
+    private OrderStatus status;
+    private Timestamp createdAt;
+    private Integer itemCount;       // 明細筆數
+    private Integer ratedItemCount;  // 已評價的明細筆數
+    private Boolean rated;           // 所有明細都已評價
+    private String firstItemName;
+    private String firstItemImageUrl;
+
+    /**
+     * (效能) 給 OrderSummaryDAO 的 JPQL 建構子投影使用
+     */
+    public OrderSummaryVO(Long orderId, Long buyerId, String buyerName, Long sellerId, String sellerName,
+                          BigDecimal totalPrice, OrderStatus status, Timestamp createdAt,
+                          Integer itemCount, Integer ratedItemCount,
+                          String firstItemName, String firstItemImageUrl) {
+        this.orderId = orderId;
+        this.buyerId = buyerId;
+        this.buyerName = buyerName;
+        this.sellerId = sellerId;
+        this.sellerName = sellerName;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.itemCount = itemCount;
+        this.ratedItemCount = ratedItemCount;
+        this.rated = itemCount > 0 && ratedItemCount >= itemCount;
+        this.firstItemName = firstItemName;
+        this.firstItemImageUrl = firstItemImageUrl;
+    }
+}
@@ -0,0 +1,19 @@
+package demo.bigwork.model.vo;
+
+import lombok.Data;
+
+/**
+ * (監控) 綠界付款通知收件匣的處理狀況
+ */
+@Data
+public class PaymentNotificationMetricsVO {
+
+    private long pendingCount;        // 資料庫中待處理的通知數 (收件匣深度)
+    private long failedCount;         // 重試用盡、需人工處理的通知數
+    private int inFlightCount;        // 已派給工作執行緒、尚未處理完的通知數
+    private int executorQueueSize;    // 工作執行緒池佇列中等待的任務數
+    private long oldestPendingAgeMs;  // 最早一筆待處理通知已等待多久 (毫秒)
+    private long lastProcessingLagMs; // 最近一筆通知從收件到建單完成花了多久 (毫秒)
+    private long processedTotal;      // 本次啟動以來完成建單的通知數
+    private long failureTotal;        // 本次啟動以來處理失敗的次數
+}
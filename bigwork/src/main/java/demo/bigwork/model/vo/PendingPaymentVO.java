@@ -0,0 +1,19 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * (綠界) 建立待付款訂單後，組出付款表單所需的資料
+ */
+@Data
+@AllArgsConstructor
+public class PendingPaymentVO {
+
+    private String merchantTradeNo; // 綠界特店交易編號
+    private Long buyerId;           // 放入 CustomField1
+    private BigDecimal totalAmount; // 應付總金額
+    private String itemNames;       // "商品 x 數量#商品 x 數量..."
+}
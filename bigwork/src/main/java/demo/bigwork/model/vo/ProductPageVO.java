@@ -0,0 +1,18 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * (VO) 公開商品列表的「一頁」
+ * nextCursor 為 null 代表已經是最後一頁
+ */
+@Data
+@AllArgsConstructor
+public class ProductPageVO {
+
+    private List<ProductResponseVO> items;
+    private String nextCursor;
+}
@@ -0,0 +1,34 @@
+package demo.bigwork.model.vo;
+
+import lombok.Data;
+
+/**
+ * (VO) 賣家評價總覽中的「一個商品」：評價數、平均、星等分布
+ * (資料來自 product_rating_stats 彙總表，與評價筆數無關)
+ */
+@Data
+public class ProductRatingSummaryVO {
+
+    private Long productId;
+    private String productName;
+    private String productImageUrl;
+    private Integer ratingCount;
+    private Double averageRating;    // 四捨五入到小數第 2 位；沒有評價時為 null
+    private int[] ratingHistogram;   // [1 星筆數, 2 星筆數, ..., 5 星筆數]
+
+    /**
+     * (效能) 給 ProductRatingStatsDAO 的 JPQL 建構子投影使用
+     * (LEFT JOIN 彙總表：沒有評價的商品，彙總欄位全部是 null)
+     */
+    public ProductRatingSummaryVO(Long productId, String productName, String productImageUrl,
+                                  Integer ratingCount, Long ratingSum,
+                                  Integer star1Count, Integer star2Count, Integer star3Count,
+                                  Integer star4Count, Integer star5Count) {
+        this.productId = productId;
+        this.productName = productName;
+        this.productImageUrl = productImageUrl;
+        this.ratingCount = RatingStatsSupport.count(ratingCount);
+        this.averageRating = RatingStatsSupport.average(this.ratingCount, ratingSum);
+        this.ratingHistogram = RatingStatsSupport.histogram(star1Count, star2Count, star3Count, star4Count, star5Count);
+    }
+}
@@ -1,6 +1,7 @@
 package demo.bigwork.model.vo;
 
 import demo.bigwork.model.po.ProductPO;
+import demo.bigwork.model.po.ProductRatingStatsPO;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
@@ -25,11 +26,17 @@ public class ProductResponseVO {
     private Long sellerId;
     private String sellerName;
 
+    // (評價彙總) 來自 product_rating_stats；沒有評價時 ratingCount = 0、averageRating = null
+    private Integer ratingCount;
+    private Double averageRating;    // 四捨五入到小數第 2 位
+    private int[] ratingHistogram;   // [1 星筆數, 2 星筆數, ..., 5 星筆數]
+
     /**
      * (輔助) 建立一個「轉換器」建構子
      * 讓我們可以輕鬆地從 PO 轉換到 VO
+     * (評價) 沒有彙總列 (stats = null) 時視為沒有評價：ratingCount = 0、星等分布全為 0
      */
-    public ProductResponseVO(ProductPO po) {
+    public ProductResponseVO(ProductPO po, ProductRatingStatsPO stats) {
         this.productId = po.getProductId();
         this.name = po.getName();
         this.description = po.getDescription();
@@ -47,5 +54,45 @@ public class ProductResponseVO {
             this.sellerId = po.getSeller().getUserId();
             this.sellerName = po.getSeller().getName();
         }
+        if (stats != null) {
+            applyRatingStats(stats.getRatingCount(), stats.getRatingSum(), stats.getStar1Count(),
+                    stats.getStar2Count(), stats.getStar3Count(), stats.getStar4Count(), stats.getStar5Count());
+        } else {
+            applyRatingStats(null, null, null, null, null, null, null);
+        }
+    }
+
+    /**
+     * (效能) 給 ProductDAO 的 JPQL 建構子投影使用 (SELECT new ...ProductResponseVO(...))
+     * 參數順序必須與 ProductDAO.PRODUCT_RESPONSE_SELECT 一致
+     */
+    public ProductResponseVO(Long productId, String name, String description, BigDecimal price,
+                             Integer stock, String imageUrl, Timestamp createdAt,
+                             Integer categoryId, String categoryName, Long sellerId, String sellerName,
+                             Integer ratingCount, Long ratingSum,
+                             Integer star1Count, Integer star2Count, Integer star3Count,
+                             Integer star4Count, Integer star5Count) {
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stock = stock;
+        this.imageUrl = imageUrl;
+        this.createdAt = createdAt;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.sellerId = sellerId;
+        this.sellerName = sellerName;
+
+        // (評價) LEFT JOIN 沒有對應列時全部是 null
+        applyRatingStats(ratingCount, ratingSum, star1Count, star2Count, star3Count, star4Count, star5Count);
+    }
+
+    private void applyRatingStats(Integer ratingCount, Long ratingSum,
+                                  Integer star1Count, Integer star2Count, Integer star3Count,
+                                  Integer star4Count, Integer star5Count) {
+        this.ratingCount = RatingStatsSupport.count(ratingCount);
+        this.averageRating = RatingStatsSupport.average(this.ratingCount, ratingSum);
+        this.ratingHistogram = RatingStatsSupport.histogram(star1Count, star2Count, star3Count, star4Count, star5Count);
     }
-}
\ No newline at end of file
+}
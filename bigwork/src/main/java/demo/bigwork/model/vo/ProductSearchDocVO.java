@@ -0,0 +1,16 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * (搜尋) 建立全文索引時只需要的欄位 (JPQL 建構子投影，不載入整個 ProductPO)
+ */
+@Data
+@AllArgsConstructor
+public class ProductSearchDocVO {
+
+    private Long productId;
+    private String name;
+    private String description;
+}
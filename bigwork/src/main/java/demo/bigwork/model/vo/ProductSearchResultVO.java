@@ -0,0 +1,20 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * (VO) 商品全文搜尋的「一頁」結果 (依相關度排序)
+ * total 為符合關鍵字的商品總數
+ */
+@Data
+@AllArgsConstructor
+public class ProductSearchResultVO {
+
+    private List<ProductResponseVO> items;
+    private int total;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,18 @@
+package demo.bigwork.model.vo;
+
+import demo.bigwork.model.enums.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * (VO) 搜尋框「自動完成」的一筆建議
+ * (關鍵) 不可變：同一個物件會被所有請求共用，所以只有 Getter
+ */
+@Getter
+@AllArgsConstructor
+public class ProductSuggestionVO {
+
+    private final String text;
+    private final SuggestionType type;
+    private final Long id; // 商品 ID 或分類 ID (依 type)
+}
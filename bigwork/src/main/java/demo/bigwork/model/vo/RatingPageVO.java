@@ -0,0 +1,18 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * (VO) 商品評價列表的「一頁」
+ * nextCursor 為 null 代表已經是最後一頁
+ */
+@Data
+@AllArgsConstructor
+public class RatingPageVO {
+
+    private List<RatingResponseVO> items;
+    private String nextCursor;
+}
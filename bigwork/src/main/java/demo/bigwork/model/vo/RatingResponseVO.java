@@ -43,4 +43,22 @@ public class RatingResponseVO {
             this.productImageUrl = null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * (效能) 給 ProductRatingDAO 的 JPQL 建構子投影使用 (SELECT new ...RatingResponseVO(...))
+     * 參數順序必須與 ProductRatingDAO.RATING_RESPONSE_SELECT 一致
+     */
+    public RatingResponseVO(Long ratingId, Long productId, Long buyerId, String buyerName,
+                            Integer ratingStars, String comment, Timestamp createdAt,
+                            String productName, String productImageUrl) {
+        this.ratingId = ratingId;
+        this.productId = productId;
+        this.buyerId = buyerId;
+        this.buyerName = buyerName;
+        this.ratingStars = ratingStars;
+        this.comment = comment;
+        this.createdAt = createdAt;
+        this.productName = productName;
+        this.productImageUrl = productImageUrl;
+    }
+}
@@ -0,0 +1,33 @@
+package demo.bigwork.model.vo;
+
+/**
+ * (評價彙總) product_rating_stats 欄位 -> 平均分數 / 星等分布 的共用計算
+ * (LEFT JOIN 彙總表沒有對應列時，欄位全部是 null，一律視為 0)
+ */
+final class RatingStatsSupport {
+
+    private RatingStatsSupport() {
+    }
+
+    static int count(Integer ratingCount) {
+        return ratingCount == null ? 0 : ratingCount;
+    }
+
+    /**
+     * @return 四捨五入到小數第 2 位；沒有評價時為 null
+     */
+    static Double average(int ratingCount, Long ratingSum) {
+        return ratingCount > 0 && ratingSum != null
+                ? Math.round(ratingSum * 100.0 / ratingCount) / 100.0
+                : null;
+    }
+
+    /**
+     * @return [1 星筆數, 2 星筆數, ..., 5 星筆數]
+     */
+    static int[] histogram(Integer star1Count, Integer star2Count, Integer star3Count,
+                           Integer star4Count, Integer star5Count) {
+        return new int[]{
+                count(star1Count), count(star2Count), count(star3Count), count(star4Count), count(star5Count)};
+    }
+}
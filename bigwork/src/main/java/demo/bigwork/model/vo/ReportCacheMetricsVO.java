@@ -0,0 +1,16 @@
+package demo.bigwork.model.vo;
+
+import lombok.Data;
+
+/**
+ * (監控) 營運報表快取的命中狀況
+ */
+@Data
+public class ReportCacheMetricsVO {
+
+    private long hitCount;          // 本次啟動以來命中次數
+    private long missCount;         // 本次啟動以來未命中 (需重新計算) 次數
+    private double hitRate;         // 命中率 (0 ~ 1)
+    private long closedEntryCount;  // 已結算區間的報表數 (永久保留)
+    private long openEntryCount;    // 未結算區間的報表數 (TTL / 新訂單失效)
+}
@@ -0,0 +1,23 @@
+package demo.bigwork.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * (VO) 賣家評價總覽：全店合計 + 一頁「各商品」的彙總
+ * 要看某商品的評價內容，再呼叫 /api/seller/ratings/products/{productId} (分頁)
+ *
+ * nextAfterProductId 為 null 代表商品已經列完
+ */
+@Data
+@AllArgsConstructor
+public class SellerRatingSummaryVO {
+
+    private Integer totalRatingCount;
+    private Double averageRating;
+    private int[] ratingHistogram;
+    private List<ProductRatingSummaryVO> products;
+    private Long nextAfterProductId;
+}
@@ -0,0 +1,378 @@
+package demo.bigwork.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * (搜尋) 商品名稱 / 描述的記憶體內「倒排索引」，以 BM25 計算相關度
+ *
+ * - 每個商品在索引內有一個遞增的「內部編號 (ordinal)」，倒排表 (postings) 存的是 int 陣列，
+ *   不是 Map<Long, ...>：百萬筆商品時記憶體小、掃描快
+ * - 商品更新 = 舊 ordinal 標記刪除 + 新增一個 ordinal；刪除累積過多時整理 (compact) 一次
+ * - 讀寫鎖：搜尋 (讀) 可以同時進行；新增 / 修改 / 刪除 (寫) 只是在陣列尾端附加，鎖住的時間極短
+ * - 斷詞規則見 {@link ProductTokenizer}
+ */
+@Component
+public class ProductSearchIndex {
+
+    // (BM25) 標準參數
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float MIN_IDF = 1e-3f;
+
+    // (相關度) 商品名稱的詞出現一次，視同描述出現 3 次
+    private static final int NAME_WEIGHT = 3;
+
+    // (整理) 已刪除的 ordinal 超過這個數量、且多於存活的商品時，重建倒排表
+    private static final int COMPACT_THRESHOLD = 10_000;
+
+    /**
+     * 搜尋結果：依分數排序的商品 ID (只含要求的那一頁) 與符合的總數
+     */
+    public record SearchHits(List<Long> productIds, int total) {
+    }
+
+    /**
+     * 已斷詞完成、等待放入索引的商品 (斷詞在鎖外進行，可以平行處理)
+     */
+    public record IndexedDocument(long productId, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, Integer> ordinalByProductId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] productIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int ordinalCount;
+    private int liveCount;
+    private long liveLengthSum;
+
+    // (啟動載入) 載入期間被刪除的商品，載入程式不可再把它們放回索引
+    private boolean bulkLoading;
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+
+    // (效能) 每個執行緒重用的計分陣列，避免每次搜尋都配置「商品總數」大小的陣列
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * 斷詞並統計詞頻 (純計算，不碰索引，不需要鎖)
+     */
+    public static IndexedDocument analyze(long productId, String name, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = 0;
+        for (String token : ProductTokenizer.tokenizeForIndex(name)) {
+            termFrequencies.merge(token, NAME_WEIGHT, Integer::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String token : ProductTokenizer.tokenizeForIndex(description)) {
+            termFrequencies.merge(token, 1, Integer::sum);
+            length += 1;
+        }
+        return new IndexedDocument(productId, termFrequencies, length);
+    }
+
+    /**
+     * (增量) 在「交易成功提交之後」才把商品放入索引 (交易回滾時索引不會被污染)
+     * 沒有交易時直接放入
+     */
+    public void indexAfterCommit(Long productId, String name, String description) {
+        IndexedDocument document = analyze(productId, name, description);
+        runAfterCommit(() -> put(document));
+    }
+
+    /**
+     * (增量) 在「交易成功提交之後」才把商品從索引移除
+     */
+    public void removeAfterCommit(Long productId) {
+        runAfterCommit(() -> remove(productId));
+    }
+
+    public void put(IndexedDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.productId());
+            addLocked(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            if (bulkLoading) {
+                removedWhileLoading.add(productId);
+            }
+            removeLocked(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * (啟動載入) 開始 / 結束全量載入
+     */
+    public void beginBulkLoad() {
+        lock.writeLock().lock();
+        try {
+            bulkLoading = true;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endBulkLoad() {
+        lock.writeLock().lock();
+        try {
+            bulkLoading = false;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * (啟動載入) 一次放入一批商品
+     * (關鍵) 已經由增量更新放入 (資料較新)、或載入期間已被刪除的商品會被略過
+     */
+    public void putAllFromLoad(Collection<IndexedDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedDocument document : documents) {
+                Long productId = document.productId();
+                if (ordinalByProductId.containsKey(productId) || removedWhileLoading.contains(productId)) {
+                    continue;
+                }
+                addLocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 以 BM25 搜尋，回傳第 offset ~ offset + limit 名的商品 ID
+     * (查詢字串中任何一個詞符合即算命中，符合的詞越多、越稀有，分數越高)
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(ProductTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return new SearchHits(List.of(), 0);
+            }
+            Scratch s = scratch.get();
+            s.ensureCapacity(ordinalCount);
+            float[] scores = s.scores;
+            int[] touched = s.touched;
+            int touchedCount = 0;
+
+            float avgLength = Math.max(1f, (float) liveLengthSum / liveCount);
+            for (String term : terms) {
+                Postings postings = postingsByTerm.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                // (BM25) df 含尚未整理掉的已刪除 ordinal，整理後即恢復精確
+                // (下限保持為正數：分數 0 代表「這次搜尋尚未碰過」)
+                int df = postings.size;
+                float idf = Math.max(MIN_IDF, (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5)));
+                for (int i = 0; i < postings.size; i++) {
+                    int ordinal = postings.ordinals[i];
+                    if (deleted.get(ordinal)) {
+                        continue;
+                    }
+                    float tf = postings.frequencies[i];
+                    float norm = K1 * (1 - B + B * docLengths[ordinal] / avgLength);
+                    if (scores[ordinal] == 0f) {
+                        touched[touchedCount++] = ordinal;
+                    }
+                    scores[ordinal] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // (效能) 只保留前 offset + limit 名 (min-heap)，不排序全部命中的商品
+            int k = offset + limit;
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, Math.min(k, touchedCount)),
+                    (a, b) -> compareHits(scores, a, b));
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                if (top.size() < k) {
+                    top.add(ordinal);
+                } else if (k > 0 && compareHits(scores, ordinal, top.peek()) > 0) {
+                    top.poll();
+                    top.add(ordinal);
+                }
+            }
+
+            Integer[] ranked = top.toArray(new Integer[0]);
+            Arrays.sort(ranked, (a, b) -> compareHits(scores, b, a));
+            List<Long> page = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.length; i++) {
+                page.add(productIds[ranked[i]]);
+            }
+
+            // (重置) 只清掉這次用到的格子
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0f;
+            }
+            return new SearchHits(page, touchedCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 分數高者優先；同分時較新的商品 (productId 較大) 優先
+    private int compareHits(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        return byScore != 0 ? byScore : Long.compare(productIds[a], productIds[b]);
+    }
+
+    private void addLocked(IndexedDocument document) {
+        int ordinal = ordinalCount++;
+        if (ordinal == productIds.length) {
+            productIds = Arrays.copyOf(productIds, ordinal * 2);
+            docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+        }
+        productIds[ordinal] = document.productId();
+        docLengths[ordinal] = document.length();
+        ordinalByProductId.put(document.productId(), ordinal);
+        liveCount++;
+        liveLengthSum += document.length();
+
+        // (關鍵) ordinal 只會遞增，所以附加在尾端即可維持倒排表排序
+        document.termFrequencies().forEach((term, frequency) ->
+                postingsByTerm.computeIfAbsent(term, t -> new Postings()).add(ordinal, frequency));
+    }
+
+    private void removeLocked(long productId) {
+        Integer ordinal = ordinalByProductId.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        liveCount--;
+        liveLengthSum -= docLengths[ordinal];
+    }
+
+    /**
+     * (整理) 把已刪除的 ordinal 從倒排表中移除，並重新編號
+     */
+    private void compactIfNeeded() {
+        int deletedCount = ordinalCount - liveCount;
+        if (deletedCount < COMPACT_THRESHOLD || deletedCount < liveCount) {
+            return;
+        }
+        int[] remap = new int[ordinalCount];
+        long[] newProductIds = new long[Math.max(1024, liveCount * 2)];
+        int[] newDocLengths = new int[newProductIds.length];
+        int next = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = next;
+            newProductIds[next] = productIds[ordinal];
+            newDocLengths[next] = docLengths[ordinal];
+            ordinalByProductId.put(productIds[ordinal], next);
+            next++;
+        }
+        postingsByTerm.values().removeIf(postings -> postings.remap(remap) == 0);
+
+        productIds = newProductIds;
+        docLengths = newDocLengths;
+        ordinalCount = next;
+        deleted.clear();
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 一個詞的倒排表：出現在哪些 ordinal、各出現幾次 (依 ordinal 遞增排列)
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[ordinals[i]];
+                if (mapped >= 0) {
+                    ordinals[kept] = mapped;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    private static final class Scratch {
+        private float[] scores = new float[0];
+        private int[] touched = new int[0];
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity + capacity / 2];
+                touched = new int[scores.length];
+            }
+        }
+    }
+}
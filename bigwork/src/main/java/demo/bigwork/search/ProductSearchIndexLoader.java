@@ -0,0 +1,110 @@
+package demo.bigwork.search;
+
+import demo.bigwork.dao.ProductDAO;
+import demo.bigwork.model.vo.ProductSearchDocVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * (搜尋) 應用程式啟動完成後，在背景「平行」把所有商品載入全文索引
+ *
+ * - 依 productId 把 [0, 最大 ID] 切成 load-threads 段，每段一個執行緒，
+ *   各自以主鍵區間分批讀取 + 斷詞，只有「放入索引」那一步需要短暫的寫鎖
+ * - 載入期間搜尋照常服務 (只是結果還不完整)；載入期間的新增 / 修改 / 刪除以增量更新為準
+ */
+@Component
+public class ProductSearchIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexLoader.class);
+
+    private final ProductDAO productDAO;
+    private final ProductSearchIndex productSearchIndex;
+    private final int loadThreads;
+    private final int batchSize;
+
+    @Autowired
+    public ProductSearchIndexLoader(ProductDAO productDAO,
+                                    ProductSearchIndex productSearchIndex,
+                                    @Value("${search.index.load-threads:4}") int loadThreads,
+                                    @Value("${search.index.load-batch-size:5000}") int batchSize) {
+        this.productDAO = productDAO;
+        this.productSearchIndex = productSearchIndex;
+        this.loadThreads = Math.max(1, loadThreads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        // (不阻塞啟動) 另開一條執行緒協調載入
+        Thread coordinator = new Thread(this::loadAll, "search-index-loader");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    private void loadAll() {
+        long startedAt = System.currentTimeMillis();
+        // (先) 最大 ID 之後才新增的商品由增量更新負責
+        Long maxProductId = productDAO.findMaxProductId();
+        if (maxProductId == null) {
+            logger.info("沒有商品，略過全文索引載入");
+            return;
+        }
+
+        productSearchIndex.beginBulkLoad();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(loadThreads, runnable -> {
+            Thread thread = new Thread(runnable, "search-index-loader-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long rangeSize = maxProductId / loadThreads + 1;
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < loadThreads; i++) {
+                long afterId = i * rangeSize;
+                long upToId = Math.min(maxProductId, afterId + rangeSize);
+                futures.add(CompletableFuture.runAsync(() -> loadRange(afterId, upToId, loaded), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            logger.info("全文索引載入完成：{} 筆商品，耗時 {} ms",
+                    loaded.get(), System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.error("全文索引載入失敗 (已載入 {} 筆)", loaded.get(), e);
+        } finally {
+            productSearchIndex.endBulkLoad();
+            executor.shutdown();
+        }
+    }
+
+    // 讀取 (afterId, upToId] 區間內的商品，每批 batchSize 筆
+    private void loadRange(long afterId, long upToId, AtomicInteger loaded) {
+        long cursor = afterId;
+        while (cursor < upToId) {
+            List<ProductSearchDocVO> docs =
+                    productDAO.findSearchDocs(cursor, upToId, PageRequest.of(0, batchSize));
+            if (docs.isEmpty()) {
+                return;
+            }
+            List<ProductSearchIndex.IndexedDocument> batch = new ArrayList<>(docs.size());
+            for (ProductSearchDocVO doc : docs) {
+                batch.add(ProductSearchIndex.analyze(doc.getProductId(), doc.getName(), doc.getDescription()));
+            }
+            productSearchIndex.putAllFromLoad(batch);
+            loaded.addAndGet(batch.size());
+            cursor = docs.get(docs.size() - 1).getProductId();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package demo.bigwork.search;
+
+import demo.bigwork.dao.CategoryDAO;
+import demo.bigwork.dao.OrderItemDAO;
+import demo.bigwork.dao.ProductDAO;
+import demo.bigwork.model.enums.SuggestionType;
+import demo.bigwork.model.po.CategoryPO;
+import demo.bigwork.model.vo.ProductSuggestionVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (自動完成) 持有「目前使用中」的前綴樹
+ *
+ * - 查詢直接讀 volatile 欄位，不碰資料庫、不需要鎖
+ * - 重建 (rebuild) 由背景排程呼叫：讀出商品 / 分類名稱與銷量，建好整棵新樹後一次替換，
+ *   替換前的查詢繼續使用舊樹
+ */
+@Component
+public class ProductSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    private final ProductDAO productDAO;
+    private final CategoryDAO categoryDAO;
+    private final OrderItemDAO orderItemDAO;
+    private final int topK;
+    private final int batchSize;
+
+    private volatile ProductSuggestionTrie current = ProductSuggestionTrie.EMPTY;
+
+    @Autowired
+    public ProductSuggestionIndex(ProductDAO productDAO, CategoryDAO categoryDAO, OrderItemDAO orderItemDAO,
+                                  @Value("${search.suggest.top-k:10}") int topK,
+                                  @Value("${search.suggest.load-batch-size:10000}") int batchSize) {
+        this.productDAO = productDAO;
+        this.categoryDAO = categoryDAO;
+        this.orderItemDAO = orderItemDAO;
+        this.topK = topK;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public List<ProductSuggestionVO> suggest(CharSequence prefix, int limit) {
+        return current.suggest(prefix, limit);
+    }
+
+    /**
+     * 重新建樹並替換 (權重 = 已完成訂單的銷量；分類的權重 = 分類內商品銷量總和)
+     */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        List<ProductSuggestionTrie.Entry> entries = new ArrayList<>();
+
+        // 1. 商品：依 productId 分批讀取名稱
+        Map<Long, Long> productSales = toSalesMap(orderItemDAO.sumCompletedQuantitiesByProduct());
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = productDAO.findIdAndNameAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : rows) {
+                Long productId = (Long) row[0];
+                String name = (String) row[1];
+                entries.add(new ProductSuggestionTrie.Entry(name, productSales.getOrDefault(productId, 0L),
+                        new ProductSuggestionVO(name, SuggestionType.PRODUCT, productId)));
+            }
+            if (rows.size() < batchSize) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        // 2. 分類
+        Map<Long, Long> categorySales = toSalesMap(orderItemDAO.sumCompletedQuantitiesByCategory());
+        for (CategoryPO category : categoryDAO.findAll()) {
+            Integer categoryId = category.getCategoryId();
+            entries.add(new ProductSuggestionTrie.Entry(category.getName(),
+                    categorySales.getOrDefault(categoryId.longValue(), 0L),
+                    new ProductSuggestionVO(category.getName(), SuggestionType.CATEGORY, categoryId.longValue())));
+        }
+
+        // 3. (關鍵) 建好之後才替換，查詢永遠看到一棵完整的樹
+        ProductSuggestionTrie rebuilt = ProductSuggestionTrie.build(entries, topK);
+        current = rebuilt;
+        logger.info("自動完成前綴樹已重建：{} 筆建議，耗時 {} ms",
+                rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    // Object[]: [0]=ID (Long / Integer), [1]=Long 銷量
+    private static Map<Long, Long> toSalesMap(List<Object[]> rows) {
+        Map<Long, Long> sales = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            sales.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return sales;
+    }
+}
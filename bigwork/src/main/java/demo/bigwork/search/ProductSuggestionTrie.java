@@ -0,0 +1,325 @@
+package demo.bigwork.search;
+
+import demo.bigwork.model.vo.ProductSuggestionVO;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * (自動完成) 不可變的「前綴樹」：輸入前綴 -> 依銷量排序的前 K 筆建議
+ *
+ * - 建好之後只讀不寫，多個請求可以同時查詢，不需要任何鎖；要更新時整棵重建再替換
+ * - 節點攤平成幾個基本型別陣列 (不是一個節點一個物件)，同一節點的子節點連續存放、依字元排序，
+ *   查詢時以二分搜尋往下走
+ * - 每個節點預先算好「前 K 名」，查詢只需走完前綴，不需要再走訪子樹、也不需要排序
+ * - 只有一個子節點且本身不是完整名稱的節點 (長尾商品名稱的大部分節點) 直接共用子節點的前 K 名
+ * - 名稱只取前 {@link #MAX_KEY_LENGTH} 個字建樹，更長的前綴以前 MAX_KEY_LENGTH 個字比對
+ */
+public final class ProductSuggestionTrie {
+
+    static final int MAX_KEY_LENGTH = 32;
+
+    public static final ProductSuggestionTrie EMPTY = build(List.of(), 1);
+
+    /**
+     * 建樹的原始資料：顯示文字 / 權重 (銷量) / 回傳給前端的建議
+     */
+    public record Entry(String text, long weight, ProductSuggestionVO suggestion) {
+    }
+
+    private record Keyed(String key, Entry entry) {
+    }
+
+    private final char[] labels;        // 從父節點走到此節點的字元
+    private final int[] firstChild;     // 第一個子節點的編號
+    private final int[] childCount;     // 子節點數量
+    private final int[] topOffset;      // 此節點的前 K 名在 topEntries 中的起點
+    private final byte[] topCount;      // 此節點的前 K 名有幾筆
+    private final int[] topEntries;     // (攤平) 每個節點的前 K 名 -> suggestions 的索引
+    private final ProductSuggestionVO[] suggestions;
+
+    private ProductSuggestionTrie(char[] labels, int[] firstChild, int[] childCount,
+                                  int[] topOffset, byte[] topCount, int[] topEntries,
+                                  ProductSuggestionVO[] suggestions) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topOffset = topOffset;
+        this.topCount = topCount;
+        this.topEntries = topEntries;
+        this.suggestions = suggestions;
+    }
+
+    /**
+     * 取得以 prefix 開頭、權重最高的前 limit 筆建議 (limit 不會超過建樹時的 topK)
+     * (效能) 不建立新字串；回傳的 List 只是陣列上的唯讀視窗 (一個小物件)
+     */
+    public List<ProductSuggestionVO> suggest(CharSequence prefix, int limit) {
+        int node = 0;
+        int depth = 0;
+        for (int i = 0; i < prefix.length() && depth < MAX_KEY_LENGTH; i++) {
+            char c = normalizeChar(prefix.charAt(i));
+            if (depth == 0 && Character.isWhitespace(c)) {
+                continue; // (與建樹時一致) 略過開頭的空白
+            }
+            node = findChild(node, c);
+            if (node < 0) {
+                return List.of();
+            }
+            depth++;
+        }
+        if (depth == 0) {
+            return List.of();
+        }
+        return new Slice(topOffset[node], Math.min(limit, topCount[node]));
+    }
+
+    /**
+     * 建議總筆數 (去除重複後)
+     */
+    public int size() {
+        return suggestions.length;
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 建樹 (在背景執行緒呼叫；輸入量大時會花數秒，但不影響正在服務的舊樹)
+     *
+     * @param input 原始建議；同一類型、正規化後文字相同的只保留權重最高的一筆
+     * @param topK  每個節點保留幾筆建議 (1 ~ 127)
+     */
+    public static ProductSuggestionTrie build(List<Entry> input, int topK) {
+        topK = Math.max(1, Math.min(topK, Byte.MAX_VALUE));
+
+        // 1. 正規化 + 去除重複 (同名商品只留銷量最高的那一個)
+        Map<String, Keyed> deduplicated = new HashMap<>();
+        for (Entry entry : input) {
+            String key = normalizeKey(entry.text());
+            if (key.isEmpty()) {
+                continue;
+            }
+            deduplicated.merge(entry.suggestion().getType().name() + '\u0000' + key, new Keyed(key, entry),
+                    (existing, candidate) -> existing.entry().weight() >= candidate.entry().weight() ? existing : candidate);
+        }
+
+        // 2. 依正規化後的文字排序：同一個前綴的建議會落在連續的區間
+        List<Keyed> sorted = new ArrayList<>(deduplicated.values());
+        sorted.sort(Comparator.comparing(Keyed::key));
+        int n = sorted.size();
+        String[] sortedKeys = new String[n];
+        long[] weights = new long[n];
+        ProductSuggestionVO[] suggestions = new ProductSuggestionVO[n];
+        for (int i = 0; i < n; i++) {
+            sortedKeys[i] = sorted.get(i).key();
+            weights[i] = sorted.get(i).entry().weight();
+            suggestions[i] = sorted.get(i).entry().suggestion();
+        }
+
+        // 3. 名次：權重高者優先，同權重依文字排序 (名次越小越前面)
+        Integer[] byWeight = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byWeight[i] = i;
+        }
+        Arrays.sort(byWeight, (a, b) -> weights[a] != weights[b] ? Long.compare(weights[b], weights[a]) : a - b);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[byWeight[i]] = i;
+        }
+
+        // 4. 廣度優先建立節點：處理到第 i 個節點時才產生它的子節點，所以兄弟節點一定連續
+        IntList nodeLow = new IntList();
+        IntList nodeHigh = new IntList();
+        IntList nodeDepth = new IntList();
+        IntList terminalEnd = new IntList();
+        IntList firstChild = new IntList();
+        IntList childCount = new IntList();
+        StringBuilder labels = new StringBuilder();
+
+        labels.append('\u0000');
+        nodeLow.add(0);
+        nodeHigh.add(n);
+        nodeDepth.add(0);
+        for (int node = 0; node < nodeLow.size(); node++) {
+            int low = nodeLow.get(node);
+            int high = nodeHigh.get(node);
+            int depth = nodeDepth.get(node);
+
+            // 剛好在這個節點結束的名稱 (排序後一定在區間最前面)
+            int j = low;
+            while (j < high && sortedKeys[j].length() == depth) {
+                j++;
+            }
+            terminalEnd.add(j);
+
+            firstChild.add(nodeLow.size());
+            while (j < high) {
+                char c = sortedKeys[j].charAt(depth);
+                int k = j;
+                while (k < high && sortedKeys[k].charAt(depth) == c) {
+                    k++;
+                }
+                labels.append(c);
+                nodeLow.add(j);
+                nodeHigh.add(k);
+                nodeDepth.add(depth + 1);
+                j = k;
+            }
+            childCount.add(nodeLow.size() - firstChild.get(node));
+        }
+
+        // 5. 由下往上計算每個節點的前 K 名 (子節點編號一定比父節點大，倒序處理即可)
+        int nodeCount = nodeLow.size();
+        int[] topOffset = new int[nodeCount];
+        byte[] topCount = new byte[nodeCount];
+        IntList topEntries = new IntList();
+        int[] candidates = new int[0];
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int terminals = terminalEnd.get(node) - nodeLow.get(node);
+            int children = childCount.get(node);
+            int first = firstChild.get(node);
+            if (children == 1 && terminals == 0) {
+                topOffset[node] = topOffset[first];
+                topCount[node] = topCount[first];
+                continue;
+            }
+
+            int candidateCount = terminals;
+            for (int child = first; child < first + children; child++) {
+                candidateCount += topCount[child];
+            }
+            if (candidates.length < candidateCount) {
+                candidates = new int[Math.max(candidateCount, candidates.length * 2)];
+            }
+            int c = 0;
+            for (int entry = nodeLow.get(node); entry < terminalEnd.get(node); entry++) {
+                candidates[c++] = entry;
+            }
+            for (int child = first; child < first + children; child++) {
+                for (int t = 0; t < topCount[child]; t++) {
+                    candidates[c++] = topEntries.get(topOffset[child] + t);
+                }
+            }
+
+            // 選出名次最小的 topK 筆 (候選數最多 = (子節點數 + 1) * topK，直接選擇排序)
+            int keep = Math.min(topK, c);
+            for (int a = 0; a < keep; a++) {
+                int best = a;
+                for (int b = a + 1; b < c; b++) {
+                    if (rank[candidates[b]] < rank[candidates[best]]) {
+                        best = b;
+                    }
+                }
+                int swap = candidates[a];
+                candidates[a] = candidates[best];
+                candidates[best] = swap;
+            }
+            topOffset[node] = topEntries.size();
+            topCount[node] = (byte) keep;
+            for (int a = 0; a < keep; a++) {
+                topEntries.add(candidates[a]);
+            }
+        }
+
+        return new ProductSuggestionTrie(labels.toString().toCharArray(), firstChild.toArray(),
+                childCount.toArray(), topOffset, topCount, topEntries.toArray(), suggestions);
+    }
+
+    /**
+     * 建樹用的正規化：去除頭尾空白、全形英數轉半形、轉小寫，最多取前 MAX_KEY_LENGTH 個字
+     */
+    static String normalizeKey(String text) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.strip();
+        int length = Math.min(trimmed.length(), MAX_KEY_LENGTH);
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append(normalizeChar(trimmed.charAt(i)));
+        }
+        return key.toString();
+    }
+
+    // (查詢與建樹共用) 逐字正規化，查詢時不必先組出新字串
+    private static char normalizeChar(char c) {
+        if (c >= '\uFF01' && c <= '\uFF5E') {
+            c = (char) (c - 0xFEE0); // 全形英數 / 符號 -> 半形
+        } else if (c == '\u3000') {
+            c = ' ';                 // 全形空白
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * 某個節點前 K 名的唯讀視窗
+     */
+    private final class Slice extends AbstractList<ProductSuggestionVO> implements RandomAccess {
+        private final int offset;
+        private final int size;
+
+        private Slice(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public ProductSuggestionVO get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return suggestions[topEntries[offset + index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // (建樹用) 可成長的 int 陣列，避免大量 Integer 物件
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
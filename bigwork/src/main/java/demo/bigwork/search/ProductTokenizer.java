@@ -0,0 +1,102 @@
+package demo.bigwork.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * (搜尋) 商品名稱 / 描述的斷詞器
+ *
+ * - 中日韓文字 (CJK)：切成「相鄰兩字」的 bigram，e.g., "藍牙耳機" -> 藍牙、牙耳、耳機
+ *   (單獨一個中文字時保留單字)
+ *   建索引時另外加入每個單字 (unigram)：只輸入一個字的查詢 (e.g., "鞋") 才找得到 "運動鞋"；
+ *   查詢仍只用 bigram，多字查詢不會因為單字而命中不相關的商品
+ * - 英文 / 數字：以非英數字元切成單字，全部轉小寫，e.g., "USB-C 充電線" -> usb、c、充電、電線
+ * - 先做 NFKC 正規化：全形英數 (ＵＳＢ) 與半形 (USB) 視為相同
+ */
+public final class ProductTokenizer {
+
+    private ProductTokenizer() {
+    }
+
+    /**
+     * 查詢用的斷詞 (CJK 只有 bigram)
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 建索引用的斷詞 (CJK 為 bigram + 每個單字)
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = normalized.codePointAt(i);
+            if (isCjk(codePoint)) {
+                // 1. 連續的中文字 -> bigram
+                int start = i;
+                while (i < length && isCjk(normalized.codePointAt(i))) {
+                    i += Character.charCount(normalized.codePointAt(i));
+                }
+                addCjkBigrams(normalized, start, i, withUnigrams, tokens);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                // 2. 連續的英數字 -> 一個單字
+                int start = i;
+                while (i < length) {
+                    int c = normalized.codePointAt(i);
+                    if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+                        break;
+                    }
+                    i += Character.charCount(c);
+                }
+                tokens.add(normalized.substring(start, i));
+            } else {
+                // 3. 標點、空白 -> 分隔符號
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addCjkBigrams(String text, int start, int end, boolean withUnigrams, List<String> tokens) {
+        int first = start;
+        int second = first + Character.charCount(text.codePointAt(first));
+        if (second >= end) {
+            tokens.add(text.substring(first, end)); // (只有一個字)
+            return;
+        }
+        while (second < end) {
+            int next = second + Character.charCount(text.codePointAt(second));
+            tokens.add(text.substring(first, next));
+            if (withUnigrams) {
+                tokens.add(text.substring(first, second));
+            }
+            first = second;
+            second = next;
+        }
+        if (withUnigrams) {
+            tokens.add(text.substring(first, end)); // (最後一個字)
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -4,7 +4,8 @@ import java.util.List;
 
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderPageVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 
 /**
  * 管理員的「會員管理」服務
@@ -15,8 +16,14 @@ public interface AdminMemberService {
     List<AdminUserSummaryVO> listUsersByRole(UserRole role);
 
     /** 取得某位買家的所有訂單（以 buyer 身份） */
-    List<OrderResponseVO> listOrdersByBuyer(Long buyerId);
+    List<OrderSummaryVO> listOrdersByBuyer(Long buyerId);
 
     /** 取得某位賣家的所有訂單（以 seller 身份） */
-    List<OrderResponseVO> listOrdersBySeller(Long sellerId);
+    List<OrderSummaryVO> listOrdersBySeller(Long sellerId);
+
+    /** 某位買家的訂單歷史（游標分頁，最新優先；游標格式錯誤時丟 IllegalArgumentException） */
+    OrderPageVO listOrderHistoryByBuyer(Long buyerId, String cursor, int size);
+
+    /** 某位賣家的訂單歷史（游標分頁，最新優先；游標格式錯誤時丟 IllegalArgumentException） */
+    OrderPageVO listOrderHistoryBySeller(Long sellerId, String cursor, int size);
 }
\ No newline at end of file
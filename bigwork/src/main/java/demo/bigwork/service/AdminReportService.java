@@ -2,6 +2,7 @@ package demo.bigwork.service;
 
 import demo.bigwork.model.vo.AdminReportVO;
 import demo.bigwork.model.vo.FinancialReportVO;
+import demo.bigwork.model.vo.ReportCacheMetricsVO;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
@@ -19,4 +20,25 @@ public interface AdminReportService {
     FinancialReportVO generateFinancialReport(String period);
     
     void exportReport(String period, HttpServletResponse response) throws IOException;
+
+    /**
+     * (財務) 匯出 [startDate, endDate] 的訂單明細 Excel (摘要 + 熱銷類別 + 每個訂單明細一列)
+     * 以串流方式寫出，期間長短不影響記憶體用量
+     *
+     * @throws IllegalArgumentException (日期缺漏或起日晚於迄日)
+     */
+    void exportDetailedReport(LocalDate startDate, LocalDate endDate, HttpServletResponse response) throws IOException;
+
+    /**
+     * (重算) 以「覆蓋」方式重新產生 [fromDate, toExclusiveDate) 的每日彙總 (一個交易)
+     * (由 DailySalesRollupJob 排程 / 平行回填呼叫)
+     *
+     * @return 寫入的彙總列數
+     */
+    int rebuildDailyRollups(LocalDate fromDate, LocalDate toExclusiveDate);
+
+    /**
+     * (監控) 報表快取的命中 / 未命中次數與目前快取的報表數
+     */
+    ReportCacheMetricsVO getReportCacheMetrics();
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package demo.bigwork.service;
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.vo.AdminProductSummaryVO;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 
 import java.util.List;
 
@@ -11,9 +11,9 @@ public interface AdminUserManageService {
 
     List<AdminUserSummaryVO> listUsersByRole(UserRole role);
 
-    List<OrderResponseVO> listOrdersByBuyer(Long buyerId);
+    List<OrderSummaryVO> listOrdersByBuyer(Long buyerId);
 
-    List<OrderResponseVO> listOrdersBySeller(Long sellerId);
+    List<OrderSummaryVO> listOrdersBySeller(Long sellerId);
 
     List<AdminProductSummaryVO> listProductsBySeller(Long sellerId);
 
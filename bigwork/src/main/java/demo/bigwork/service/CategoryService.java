@@ -12,13 +12,34 @@ public interface CategoryService {
      * @return  根節點 分類的列表 (包含子孫)
      */
     List<CategoryNodeVO> getCategoryTree();
+
+    /**
+     * (效能) 與 getCategoryTree() 相同的內容，但已經序列化成 JSON 位元組 (快取)
+     * (公開 API 直接回傳，不必每次都經過 Jackson)
+     */
+    byte[] getCategoryTreeJson();
+
+    /**
+     * (快取) 分類有異動時呼叫：下一次讀取會重新從資料庫組樹
+     */
+    void invalidateCategoryTree();
+
+    /**
+     * (分類列表) 分類樹異動後呼叫：依新的樹重建每個商品的「祖先分類」列 (product_category_paths)
+     * (獨立的新交易；分類異動很少，整張表重建)
+     *
+     * @return 寫入的列數
+     */
+    int rebuildProductCategoryPaths();
     
     /**
      * (關鍵新增！)
-     * （遞迴） 獲取某個分類 「及其所有子孫」 的 ID 列表
+     * 獲取某個分類 「及其所有子孫」 的 ID 列表
+     * (從快取的分類樹區間索引取得，一次查詢；回傳唯讀列表)
+     * (分類商品列表不需要這份列表：直接以 product_category_paths 依祖先分類分頁)
      *
      * @param categoryId 父 ID
-     * @return 包含 `categoryId` 本身，以及所有子孫 ID 的 List
+     * @return 包含 `categoryId` 本身 (第一個)，以及所有子孫 ID 的 List
      */
     List<Integer> getAllChildCategoryIds(Integer categoryId);
 }
\ No newline at end of file
@@ -3,19 +3,17 @@ package demo.bigwork.service.Impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import demo.bigwork.dao.OrderDAO;
 import demo.bigwork.dao.UserDAO;
 import demo.bigwork.model.enums.UserRole;
-import demo.bigwork.model.po.OrderPO;
 import demo.bigwork.model.po.UserPO;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderPageVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.AdminMemberService;
 
 /**
@@ -28,11 +26,11 @@ public class AdminMemberServiceImpl implements AdminMemberService {
     private static final Logger logger = LoggerFactory.getLogger(AdminMemberServiceImpl.class);
 
     private final UserDAO userDAO;
-    private final OrderDAO orderDAO;
+    private final OrderHistoryLoader orderHistoryLoader;
 
-    public AdminMemberServiceImpl(UserDAO userDAO, OrderDAO orderDAO) {
+    public AdminMemberServiceImpl(UserDAO userDAO, OrderHistoryLoader orderHistoryLoader) {
         this.userDAO = userDAO;
-        this.orderDAO = orderDAO;
+        this.orderHistoryLoader = orderHistoryLoader;
     }
 
     @Override
@@ -48,31 +46,29 @@ public class AdminMemberServiceImpl implements AdminMemberService {
     }
 
     @Override
-    public List<OrderResponseVO> listOrdersByBuyer(Long buyerId) {
-        List<OrderPO> orders = orderDAO.findByBuyer_UserId(buyerId);
-
-        // 初始化 LAZY 的 items，避免離開 transaction 後爆 LazyInitializationException
-        for (OrderPO order : orders) {
-            Hibernate.initialize(order.getItems());
-        }
+    public List<OrderSummaryVO> listOrdersByBuyer(Long buyerId) {
+        // 只讀 order_summaries (單表、走 buyer_id 開頭的索引)
+        List<OrderSummaryVO> orders = orderHistoryLoader.loadAllForBuyer(buyerId);
 
         logger.info("管理員查詢買家 {} 的訂單，共 {} 筆", buyerId, orders.size());
-        return orders.stream()
-                .map(OrderResponseVO::new)
-                .collect(Collectors.toList());
+        return orders;
     }
 
     @Override
-    public List<OrderResponseVO> listOrdersBySeller(Long sellerId) {
-        List<OrderPO> orders = orderDAO.findBySeller_UserId(sellerId);
-
-        for (OrderPO order : orders) {
-            Hibernate.initialize(order.getItems());
-        }
+    public List<OrderSummaryVO> listOrdersBySeller(Long sellerId) {
+        List<OrderSummaryVO> orders = orderHistoryLoader.loadAllForSeller(sellerId);
 
         logger.info("管理員查詢賣家 {} 的訂單，共 {} 筆", sellerId, orders.size());
-        return orders.stream()
-                .map(OrderResponseVO::new)
-                .collect(Collectors.toList());
+        return orders;
+    }
+
+    @Override
+    public OrderPageVO listOrderHistoryByBuyer(Long buyerId, String cursor, int size) {
+        return orderHistoryLoader.loadBuyerPage(buyerId, cursor, size);
+    }
+
+    @Override
+    public OrderPageVO listOrderHistoryBySeller(Long sellerId, String cursor, int size) {
+        return orderHistoryLoader.loadSellerPage(sellerId, cursor, size);
     }
 }
\ No newline at end of file
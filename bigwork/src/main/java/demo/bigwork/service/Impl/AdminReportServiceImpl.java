@@ -10,22 +10,39 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import demo.bigwork.dao.OrderDAO;
+import demo.bigwork.dao.OrderItemDAO;
 import demo.bigwork.dao.UserDAO;
 import demo.bigwork.model.enums.OrderStatus;
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.vo.AdminReportVO;
 import demo.bigwork.model.vo.CategorySalesVO;
 import demo.bigwork.model.vo.FinancialReportVO;
+import demo.bigwork.model.vo.ReportCacheMetricsVO;
 import demo.bigwork.service.AdminReportService;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
@@ -36,45 +53,128 @@ import java.nio.charset.StandardCharsets;
 @Service
 public class AdminReportServiceImpl implements AdminReportService {
 
+    // 最近幾天 (含今天) 直接查 orders；更早的日子讀每日彙總 (排程每小時重算最近幾天，見 DailySalesRollupJob)
+    static final int LIVE_DAYS = 2;
+
+    private static final int TOP_CATEGORY_LIMIT = 5;
+
+    // (明細匯出) SXSSF 在記憶體中保留的列數；單一工作表的列數上限 (Excel 2007+)
+    private static final int SXSSF_ROW_WINDOW = 100;
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
     private final OrderDAO orderDAO;
+    private final OrderItemDAO orderItemDAO;
     private final UserDAO userDAO;
+    private final ReportQueryRunner reportQueryRunner;
+    private final ReportCache reportCache;
+    private final TransactionTemplate readOnlyTransaction; // (明細匯出) 只包住串流讀取的唯讀交易
 
     @Autowired
-    public AdminReportServiceImpl(OrderDAO orderDAO, UserDAO userDAO) {
+    public AdminReportServiceImpl(OrderDAO orderDAO, OrderItemDAO orderItemDAO, UserDAO userDAO,
+                                  ReportQueryRunner reportQueryRunner, ReportCache reportCache,
+                                  PlatformTransactionManager transactionManager) {
         this.orderDAO = orderDAO;
+        this.orderItemDAO = orderItemDAO;
         this.userDAO = userDAO;
+        this.reportQueryRunner = reportQueryRunner;
+        this.reportCache = reportCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
      * 產生一個區間的營運報表（周報 / 季報共用，含 Top 類別）
+     * (效能) 先查快取 (見 ReportCache)；未命中時各項查詢同時送出 (見 ReportQueryRunner)，延遲約等於最慢的一句 SQL
      */
     @Override
     public AdminReportVO generateReport(LocalDate startDate, LocalDate endDate) {
+        AdminReportVO cached = reportCache.get(startDate, endDate);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = reportCache.currentGeneration();
+        long deadline = reportQueryRunner.newDeadline();
+        AdminReportVO report = finishReport(startReport(startDate, endDate, deadline), deadline);
+        reportCache.put(report, generation);
+        return report;
+    }
+
+    // 一份報表已送出、尚未取回結果的查詢
+    private record PendingReport(LocalDate startDate,
+                                 LocalDate endDate,
+                                 List<Future<List<Object[]>>> summaryRows,
+                                 Future<Long> newBuyerCount,
+                                 Future<Long> newSellerCount,
+                                 List<Future<List<Object[]>>> categoryRows) {
+    }
+
+    /**
+     * 送出一份報表的所有查詢 (不等待結果)
+     */
+    private PendingReport startReport(LocalDate startDate, LocalDate endDate, long deadline) {
 
         Timestamp startTs = Timestamp.valueOf(startDate.atStartOfDay());
         Timestamp endExclusiveTs = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay());
 
-        // ===== 1. 訂單 Summary（一次 SQL 取得全部統計） =====
-        List<Object[]> summaryList = orderDAO.findOrderSummary(
-                startTs, endExclusiveTs, OrderStatus.COMPLETED.name());
-
-        // 沒有任何訂單時給一組預設值
-        Object[] row;
-        if (summaryList == null || summaryList.isEmpty()) {
-            row = new Object[]{0L, BigDecimal.ZERO, 0L, 0L, 0L};
-        } else {
-            row = summaryList.get(0);
+        // 較早的日子加總每日彙總，最近幾天直接查 orders
+        // (效能) 一季最多加總 92 列彙總；直接查 orders 的只有最近 LIVE_DAYS 天 (status = ? AND created_at 範圍，走 status, created_at 索引)
+        LocalDate endExclusiveDate = endDate.plusDays(1);
+        LocalDate liveFrom = LocalDate.now().minusDays(LIVE_DAYS - 1);
+        LocalDate splitDate = liveFrom.isBefore(startDate) ? startDate
+                : liveFrom.isAfter(endExclusiveDate) ? endExclusiveDate
+                : liveFrom;
+        Timestamp splitTs = Timestamp.valueOf(splitDate.atStartOfDay());
+        String status = OrderStatus.COMPLETED.name();
+
+        // ===== 1. 訂單 Summary / 3. 熱銷商品類別（彙總與最近幾天各一句） =====
+        List<Future<List<Object[]>>> summaryRows = new ArrayList<>();
+        List<Future<List<Object[]>>> categoryRows = new ArrayList<>();
+        if (startDate.isBefore(splitDate)) {
+            summaryRows.add(reportQueryRunner.submit(deadline,
+                    () -> orderDAO.sumSalesRollups(startDate, splitDate, status)));
+            categoryRows.add(reportQueryRunner.submit(deadline,
+                    () -> orderDAO.sumCategoryRollups(startDate, splitDate, status)));
+        }
+        if (splitDate.isBefore(endExclusiveDate)) {
+            summaryRows.add(reportQueryRunner.submit(deadline,
+                    () -> orderDAO.findOrderSummary(splitTs, endExclusiveTs, status)));
+            categoryRows.add(reportQueryRunner.submit(deadline,
+                    () -> orderDAO.findCategoryQuantities(splitTs, endExclusiveTs, status)));
         }
 
-        long totalOrderCount   = row[0] == null ? 0L : ((Number) row[0]).longValue();
-        BigDecimal totalAmount = (BigDecimal) row[1];
+        // ===== 2. 新增會員數 =====
+        Future<Long> newBuyerCount = reportQueryRunner.submit(deadline,
+                () -> userDAO.countNewUsersByRoleBetween(startTs, endExclusiveTs, UserRole.BUYER));
+        Future<Long> newSellerCount = reportQueryRunner.submit(deadline,
+                () -> userDAO.countNewUsersByRoleBetween(startTs, endExclusiveTs, UserRole.SELLER));
 
-        long smallOrderCount   = row[2] == null ? 0L : ((Number) row[2]).longValue();
-        long mediumOrderCount  = row[3] == null ? 0L : ((Number) row[3]).longValue();
-        long largeOrderCount   = row[4] == null ? 0L : ((Number) row[4]).longValue();
+        return new PendingReport(startDate, endDate, summaryRows, newBuyerCount, newSellerCount, categoryRows);
+    }
 
-        if (totalAmount == null) {
-            totalAmount = BigDecimal.ZERO;
+    /**
+     * 等待查詢結果 (最多到 deadline) 並組成報表
+     * 逾時 / 失敗的區塊以 0 或空清單呈現，並標記 partial 與 missingSections
+     */
+    private AdminReportVO finishReport(PendingReport pending, long deadline) {
+        List<String> missingSections = new ArrayList<>();
+
+        // ===== 1. 訂單 Summary =====
+        long totalOrderCount = 0L;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        long smallOrderCount = 0L;
+        long mediumOrderCount = 0L;
+        long largeOrderCount = 0L;
+        List<Object[]> summaryRows = awaitRows(pending.summaryRows(), deadline, "orderSummary");
+        if (summaryRows == null) {
+            missingSections.add("orderSummary");
+            summaryRows = List.of();
+        }
+        for (Object[] row : summaryRows) {
+            totalOrderCount  += row[0] == null ? 0L : ((Number) row[0]).longValue();
+            totalAmount       = totalAmount.add(row[1] == null ? BigDecimal.ZERO : (BigDecimal) row[1]);
+            smallOrderCount  += row[2] == null ? 0L : ((Number) row[2]).longValue();
+            mediumOrderCount += row[3] == null ? 0L : ((Number) row[3]).longValue();
+            largeOrderCount  += row[4] == null ? 0L : ((Number) row[4]).longValue();
         }
 
         BigDecimal averageOrderAmount = BigDecimal.ZERO;
@@ -84,28 +184,45 @@ public class AdminReportServiceImpl implements AdminReportService {
         }
 
         // ===== 2. 新增會員數 =====
-        long newBuyerCount = userDAO.countNewUsersByRoleBetween(
-                startTs, endExclusiveTs, UserRole.BUYER);
-        long newSellerCount = userDAO.countNewUsersByRoleBetween(
-                startTs, endExclusiveTs, UserRole.SELLER);
+        Long newBuyerCount = reportQueryRunner.await(pending.newBuyerCount(), deadline, "newBuyerCount");
+        if (newBuyerCount == null) {
+            missingSections.add("newBuyerCount");
+            newBuyerCount = 0L;
+        }
+        Long newSellerCount = reportQueryRunner.await(pending.newSellerCount(), deadline, "newSellerCount");
+        if (newSellerCount == null) {
+            missingSections.add("newSellerCount");
+            newSellerCount = 0L;
+        }
         long totalNewUserCount = newBuyerCount + newSellerCount;
 
         // ===== 3. 熱銷商品類別 Top5（哪個商品類別賣得多） =====
-        List<Object[]> catRows = orderDAO.findTopCategoriesByQuantity(
-                startTs, endExclusiveTs, OrderStatus.COMPLETED.name());
-        List<CategorySalesVO> topCategories = new ArrayList<>();
-        if (catRows != null) {
-            for (Object[] r : catRows) {
-                String catName = (String) r[0];
-                long qty = ((Number) r[1]).longValue();
-                topCategories.add(new CategorySalesVO(catName, qty));
-            }
+        // 彙總與最近幾天各自依分類加總，合併後才取前 5 名
+        List<Object[]> catRows = awaitRows(pending.categoryRows(), deadline, "topCategories");
+        if (catRows == null) {
+            missingSections.add("topCategories");
+            catRows = List.of();
         }
+        Map<Integer, CategorySalesVO> byCategory = new HashMap<>();
+        for (Object[] r : catRows) {
+            int categoryId = ((Number) r[0]).intValue();
+            String catName = (String) r[1];
+            long qty = ((Number) r[2]).longValue();
+            CategorySalesVO sales = byCategory.computeIfAbsent(categoryId, id -> new CategorySalesVO(catName, 0L));
+            sales.setTotalQuantity(sales.getTotalQuantity() + qty);
+        }
+        List<CategorySalesVO> topCategories = byCategory.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Integer, CategorySalesVO> e) -> e.getValue().getTotalQuantity())
+                        .reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(TOP_CATEGORY_LIMIT)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
 
         // ===== 4. 組成 VO 回傳 =====
         AdminReportVO vo = new AdminReportVO();
-        vo.setStartDate(startDate);
-        vo.setEndDate(endDate);
+        vo.setStartDate(pending.startDate());
+        vo.setEndDate(pending.endDate());
         vo.setTotalOrderCount((int) totalOrderCount);
         vo.setTotalOrderAmount(totalAmount);
         vo.setAverageOrderAmount(averageOrderAmount);
@@ -116,10 +233,57 @@ public class AdminReportServiceImpl implements AdminReportService {
         vo.setNewSellerCount(newSellerCount);
         vo.setTotalNewUserCount(totalNewUserCount);
         vo.setTopCategories(topCategories);
+        vo.setPartial(!missingSections.isEmpty());
+        vo.setMissingSections(missingSections);
 
         return vo;
     }
 
+    // 合併多句查詢的結果列；任何一句逾時 / 失敗就視為整個區塊缺漏 (回傳 null)
+    private List<Object[]> awaitRows(List<Future<List<Object[]>>> futures, long deadline, String section) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Future<List<Object[]>> future : futures) {
+            List<Object[]> part = reportQueryRunner.await(future, deadline, section);
+            if (part == null) {
+                return null;
+            }
+            rows.addAll(part);
+        }
+        return rows;
+    }
+
+    /**
+     * 實作：(重算) 以「覆蓋」方式重新產生 [fromDate, toExclusiveDate) 的每日彙總
+     * 先刪再寫 (同一個交易)：已經沒有訂單的日子也會被清掉，重複執行結果相同
+     * - 逐日寫入：每一天的起訖時間與寫入的 sales_date 都在這裡以同一個時區計算 (與報表查詢相同)，
+     *   寫入的日期一定落在剛刪除的區間內，不會因連線時區不同而撞到區間外的主鍵
+     * - (關鍵) READ_COMMITTED：INSERT ... SELECT 對 orders 改為一致性讀取，不對訂單加共享鎖，
+     *   重算期間不會擋住結帳新增訂單 / 綠界付款確認更新訂單
+     */
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int rebuildDailyRollups(LocalDate fromDate, LocalDate toExclusiveDate) {
+        reportCache.invalidateRangeAfterCommit(fromDate, toExclusiveDate);
+        orderDAO.deleteSalesRollups(fromDate, toExclusiveDate);
+        orderDAO.deleteCategoryRollups(fromDate, toExclusiveDate);
+        int rows = 0;
+        for (LocalDate day = fromDate; day.isBefore(toExclusiveDate); day = day.plusDays(1)) {
+            Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+            rows += orderDAO.insertSalesRollups(day, start, end);
+            rows += orderDAO.insertCategoryRollups(day, start, end);
+        }
+        return rows;
+    }
+
+    /**
+     * 實作：報表快取的命中狀況
+     */
+    @Override
+    public ReportCacheMetricsVO getReportCacheMetrics() {
+        return reportCache.getMetrics();
+    }
+
     /**
      * 財務對比報表（本期 vs 上期）
      * period = "weekly" 或 "quarterly"
@@ -147,10 +311,7 @@ public class AdminReportServiceImpl implements AdminReportService {
             throw new IllegalArgumentException("period 必須為 weekly 或 quarterly");
         }
 
-        // === 2. 本期報表（使用你原本的 generateReport） ===
-        AdminReportVO current = generateReport(currentStartDate, currentEndDate);
-
-        // === 3. 上期起訖日期 ===
+        // === 2. 上期起訖日期 ===
         LocalDate previousStartDate;
         LocalDate previousEndDate;
 
@@ -164,11 +325,27 @@ public class AdminReportServiceImpl implements AdminReportService {
             previousEndDate   = currentEndDate.minusMonths(3);
         }
 
-        // === 4. 上期報表 ===
-        AdminReportVO previous = generateReport(previousStartDate, previousEndDate);
+        // === 3. 本期 + 上期報表：先查快取 (上期通常已結算)，未命中的一起送出查詢，共用同一個截止時間 ===
+        long generation = reportCache.currentGeneration();
+        long deadline = reportQueryRunner.newDeadline();
+        AdminReportVO current = reportCache.get(currentStartDate, currentEndDate);
+        AdminReportVO previous = reportCache.get(previousStartDate, previousEndDate);
+        PendingReport pendingCurrent = current == null
+                ? startReport(currentStartDate, currentEndDate, deadline) : null;
+        PendingReport pendingPrevious = previous == null
+                ? startReport(previousStartDate, previousEndDate, deadline) : null;
+        if (pendingCurrent != null) {
+            current = finishReport(pendingCurrent, deadline);
+            reportCache.put(current, generation);
+        }
+        if (pendingPrevious != null) {
+            previous = finishReport(pendingPrevious, deadline);
+            reportCache.put(previous, generation);
+        }
 
-        // === 5. 組成 FinancialReportVO（完全照你給的 VO 欄位） ===
+        // === 4. 組成 FinancialReportVO（完全照你給的 VO 欄位） ===
         FinancialReportVO vo = new FinancialReportVO();
+        vo.setPartial(current.isPartial() || previous.isPartial());
 
         // 日期
         vo.setCurrentStartDate(currentStartDate);
@@ -269,63 +446,190 @@ public class AdminReportServiceImpl implements AdminReportService {
             throw new IllegalArgumentException("不支援的 period: " + period);
         }
 
-        // 2. 用 Apache POI 組 Excel
+        // 2. 用 Apache POI 組 Excel（摘要只有十幾列，XSSF 即可）
         try (Workbook wb = new XSSFWorkbook()) {
-            Sheet sheet = wb.createSheet("營運報表");
+            writeSummarySheet(wb, report);
+            writeTopCategoriesSheet(wb, report);
 
-            int r = 0;
-            Row row;
+            // 3. 設定 Response Header
+            setExcelHeaders(response, fileName);
+            ServletOutputStream out = response.getOutputStream();
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("期間");
-            row.createCell(1).setCellValue(report.getStartDate() + " ~ " + report.getEndDate());
+            // 4. 寫出檔案
+            wb.write(out);
+            out.flush();
+        }
+    }
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("訂單總數");
-            row.createCell(1).setCellValue(report.getTotalOrderCount());
+    /**
+     * 實作：(財務) 匯出 [startDate, endDate] 的訂單明細 (每個訂單明細一列)
+     *
+     * (效能) 以 SXSSF 串流寫入：記憶體中只保留最近 SXSSF_ROW_WINDOW 列，其餘寫到壓縮的暫存檔；
+     *        明細以 MySQL 串流模式逐列讀取 (OrderItemDAO.streamExportRows)，
+     *        不論期間多長、幾百萬列，JVM 使用的記憶體都固定
+     * 單一工作表超過 Excel 列數上限時自動接續到下一張工作表
+     */
+    @Override
+    public void exportDetailedReport(LocalDate startDate, LocalDate endDate,
+                                     HttpServletResponse response) throws IOException {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("請提供有效的起訖日期 (from 不可晚於 to)");
+        }
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("訂單總金額");
-            row.createCell(1).setCellValue(report.getTotalOrderAmount().doubleValue());
+        // 1. 摘要 + 熱銷類別 (在開啟明細交易之前查完：不會同時佔住明細的連線與報表查詢的連線)
+        AdminReportVO report = generateReport(startDate, endDate);
+
+        SXSSFWorkbook wb = new SXSSFWorkbook(SXSSF_ROW_WINDOW);
+        wb.setCompressTempFiles(true);
+        try {
+            writeSummarySheet(wb, report);
+            writeTopCategoriesSheet(wb, report);
+
+            // 2. 訂單明細 (逐列串流)
+            CellStyle dateTimeStyle = wb.createCellStyle();
+            dateTimeStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Timestamp startTs = Timestamp.valueOf(startDate.atStartOfDay());
+            Timestamp endExclusiveTs = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay());
+            // (關鍵) 串流需要交易 (唯讀)，只包住讀取明細這一段
+            readOnlyTransaction.executeWithoutResult(status -> {
+                int sheetCount = 1;
+                Sheet sheet = createDetailSheet(wb, "訂單明細");
+                int r = 1;
+                try (Stream<Object[]> rows = orderItemDAO.streamExportRows(startTs, endExclusiveTs)) {
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        Object[] line = iterator.next();
+                        if (r == MAX_SHEET_ROWS) {
+                            sheet = createDetailSheet(wb, "訂單明細 (" + (++sheetCount) + ")");
+                            r = 1;
+                        }
+                        writeDetailRow(sheet.createRow(r++), line, dateTimeStyle);
+                    }
+                }
+            });
+
+            // 3. 設定 Response Header，直接寫到 ServletOutputStream
+            setExcelHeaders(response, "訂單明細_" + startDate + "_" + endDate + ".xlsx");
+            ServletOutputStream out = response.getOutputStream();
+            wb.write(out);
+            out.flush();
+        } finally {
+            wb.dispose(); // 刪除暫存檔
+            wb.close();
+        }
+    }
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("平均訂單金額");
-            row.createCell(1).setCellValue(report.getAverageOrderAmount().doubleValue());
+    private void writeSummarySheet(Workbook wb, AdminReportVO report) {
+        Sheet sheet = wb.createSheet("營運報表");
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("小額訂單數(≤500)");
-            row.createCell(1).setCellValue(report.getSmallOrderCount());
+        int r = 0;
+        Row row;
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("中額訂單數(500-2000)");
-            row.createCell(1).setCellValue(report.getMediumOrderCount());
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("期間");
+        row.createCell(1).setCellValue(report.getStartDate() + " ~ " + report.getEndDate());
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("大額訂單數(≥2000)");
-            row.createCell(1).setCellValue(report.getLargeOrderCount());
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("訂單總數");
+        row.createCell(1).setCellValue(report.getTotalOrderCount());
 
-            row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("新增買家數");
-            row.createCell(1).setCellValue(report.getNewBuyerCount());
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("訂單總金額");
+        row.createCell(1).setCellValue(report.getTotalOrderAmount().doubleValue());
 
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("平均訂單金額");
+        row.createCell(1).setCellValue(report.getAverageOrderAmount().doubleValue());
+
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("小額訂單數(≤500)");
+        row.createCell(1).setCellValue(report.getSmallOrderCount());
+
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("中額訂單數(500-2000)");
+        row.createCell(1).setCellValue(report.getMediumOrderCount());
+
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("大額訂單數(≥2000)");
+        row.createCell(1).setCellValue(report.getLargeOrderCount());
+
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("新增買家數");
+        row.createCell(1).setCellValue(report.getNewBuyerCount());
+
+        row = sheet.createRow(r++);
+        row.createCell(0).setCellValue("新增賣家數");
+        row.createCell(1).setCellValue(report.getNewSellerCount());
+
+        if (report.isPartial()) {
             row = sheet.createRow(r++);
-            row.createCell(0).setCellValue("新增賣家數");
-            row.createCell(1).setCellValue(report.getNewSellerCount());
+            row.createCell(0).setCellValue("注意");
+            row.createCell(1).setCellValue("部分資料查詢逾時，數字可能不完整：" + report.getMissingSections());
+        }
+    }
 
-         // 3. 設定 Response Header
-            response.setContentType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=UTF-8");
+    // 熱銷商品類別 Top5 (報表已算好，之前沒有匯出)
+    private void writeTopCategoriesSheet(Workbook wb, AdminReportVO report) {
+        Sheet sheet = wb.createSheet("熱銷類別");
+
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("排名");
+        header.createCell(1).setCellValue("商品類別");
+        header.createCell(2).setCellValue("銷售數量");
+
+        int r = 1;
+        for (CategorySalesVO category : report.getTopCategories()) {
+            Row row = sheet.createRow(r);
+            row.createCell(0).setCellValue(r);
+            row.createCell(1).setCellValue(category.getCategoryName());
+            row.createCell(2).setCellValue(category.getTotalQuantity());
+            r++;
+        }
+    }
 
-            String encodedName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
+    private Sheet createDetailSheet(Workbook wb, String name) {
+        Sheet sheet = wb.createSheet(name);
+        Row header = sheet.createRow(0);
+        String[] titles = {"訂單編號", "建立時間", "狀態", "買家", "賣家", "訂單總金額",
+                "明細編號", "商品編號", "商品名稱", "商品類別", "數量", "單價", "小計"};
+        for (int i = 0; i < titles.length; i++) {
+            header.createCell(i).setCellValue(titles[i]);
+        }
+        return sheet;
+    }
 
-            response.setHeader("Content-Disposition",
-                    "attachment; filename*=UTF-8''" + encodedName);
-            ServletOutputStream out = response.getOutputStream();
+    // 欄位順序見 OrderItemDAO.streamExportRows (商品已被刪除時，商品 / 類別欄位留白)
+    private void writeDetailRow(Row row, Object[] line, CellStyle dateTimeStyle) {
+        BigDecimal pricePerUnit = (BigDecimal) line[11];
+        int quantity = (Integer) line[10];
+
+        row.createCell(0).setCellValue((Long) line[0]);
+        Cell createdAt = row.createCell(1);
+        createdAt.setCellValue(((Timestamp) line[1]).toLocalDateTime());
+        createdAt.setCellStyle(dateTimeStyle);
+        row.createCell(2).setCellValue(String.valueOf(line[2]));
+        row.createCell(3).setCellValue((String) line[3]);
+        row.createCell(4).setCellValue((String) line[4]);
+        row.createCell(5).setCellValue(((BigDecimal) line[5]).doubleValue());
+        row.createCell(6).setCellValue((Long) line[6]);
+        if (line[7] != null) {
+            row.createCell(7).setCellValue((Long) line[7]);
+            row.createCell(8).setCellValue((String) line[8]);
+            row.createCell(9).setCellValue((String) line[9]);
+        }
+        row.createCell(10).setCellValue(quantity);
+        row.createCell(11).setCellValue(pricePerUnit.doubleValue());
+        row.createCell(12).setCellValue(pricePerUnit.multiply(BigDecimal.valueOf(quantity)).doubleValue());
+    }
 
-            // 4. 寫出檔案
-            wb.write(out);
-            out.flush();
+    private void setExcelHeaders(HttpServletResponse response, String fileName) {
+        response.setContentType(
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=UTF-8");
+
+        String encodedName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
 
-           }
+        response.setHeader("Content-Disposition",
+                "attachment; filename*=UTF-8''" + encodedName);
     }
 }
\ No newline at end of file
@@ -1,17 +1,14 @@
 package demo.bigwork.service.Impl;
 
-import demo.bigwork.dao.OrderDAO;
 import demo.bigwork.dao.ProductDAO;
 import demo.bigwork.dao.UserDAO;
 import demo.bigwork.model.enums.UserRole;
-import demo.bigwork.model.po.OrderPO;
 import demo.bigwork.model.po.ProductPO;
 import demo.bigwork.model.po.UserPO;
 import demo.bigwork.model.vo.AdminProductSummaryVO;
 import demo.bigwork.model.vo.AdminUserSummaryVO;
-import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
 import demo.bigwork.service.AdminUserManageService;
-import org.hibernate.Hibernate;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,15 +22,15 @@ import java.util.stream.Collectors;
 public class AdminUserManageServiceImpl implements AdminUserManageService {
 
     private final UserDAO userDAO;
-    private final OrderDAO orderDAO;
     private final ProductDAO productDAO;
+    private final OrderHistoryLoader orderHistoryLoader;
 
     public AdminUserManageServiceImpl(UserDAO userDAO,
-                                      OrderDAO orderDAO,
-                                      ProductDAO productDAO) {
+                                      ProductDAO productDAO,
+                                      OrderHistoryLoader orderHistoryLoader) {
         this.userDAO = userDAO;
-        this.orderDAO = orderDAO;
         this.productDAO = productDAO;
+        this.orderHistoryLoader = orderHistoryLoader;
     }
 
     @Override
@@ -48,21 +45,13 @@ public class AdminUserManageServiceImpl implements AdminUserManageService {
     }
 
     @Override
-    public List<OrderResponseVO> listOrdersByBuyer(Long buyerId) {
-        List<OrderPO> list = orderDAO.findByBuyer_UserId(buyerId);
-        list.forEach(o -> Hibernate.initialize(o.getItems()));
-        return list.stream()
-                .map(OrderResponseVO::new)
-                .collect(Collectors.toList());
+    public List<OrderSummaryVO> listOrdersByBuyer(Long buyerId) {
+        return orderHistoryLoader.loadAllForBuyer(buyerId); // (只讀 order_summaries)
     }
 
     @Override
-    public List<OrderResponseVO> listOrdersBySeller(Long sellerId) {
-        List<OrderPO> list = orderDAO.findBySeller_UserId(sellerId);
-        list.forEach(o -> Hibernate.initialize(o.getItems()));
-        return list.stream()
-                .map(OrderResponseVO::new)
-                .collect(Collectors.toList());
+    public List<OrderSummaryVO> listOrdersBySeller(Long sellerId) {
+        return orderHistoryLoader.loadAllForSeller(sellerId); // (只讀 order_summaries)
     }
 
     @Override
@@ -0,0 +1,51 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.model.po.CategoryPO;
+import demo.bigwork.service.CategoryService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * (JPA 實體監聽器) 任何經過 JPA 的分類新增 / 修改 / 刪除，都讓分類樹快取失效，
+ * 並依新的樹重建商品的祖先分類列 (product_category_paths)
+ *
+ * - 在「交易提交之後」才失效：避免其他請求在提交前就重建，讀到舊資料又放回快取
+ * - 由 Hibernate 透過 Spring 建立 (可注入)；用 ObjectProvider 延後取得 CategoryService，
+ *   避免 EntityManagerFactory 建立期間的循環依賴
+ */
+public class CategoryChangeListener {
+
+    private final ObjectProvider<CategoryService> categoryService;
+
+    @Autowired
+    public CategoryChangeListener(ObjectProvider<CategoryService> categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCategoryChanged(CategoryPO category) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onTreeCommitted();
+                }
+            });
+        } else {
+            onTreeCommitted();
+        }
+    }
+
+    private void onTreeCommitted() {
+        CategoryService service = categoryService.getObject();
+        service.invalidateCategoryTree();
+        service.rebuildProductCategoryPaths();
+    }
+}
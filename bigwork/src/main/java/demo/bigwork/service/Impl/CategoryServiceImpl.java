@@ -1,17 +1,22 @@
 package demo.bigwork.service.Impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import demo.bigwork.dao.CategoryDAO;
-import demo.bigwork.model.po.CategoryPO;
 import demo.bigwork.model.vo.CategoryNodeVO; // (修改) 匯入新的 VO
 import demo.bigwork.service.CategoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors; // (修改) 匯入
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
@@ -19,72 +24,163 @@ public class CategoryServiceImpl implements CategoryService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImpl.class);
 
     private final CategoryDAO categoryDAO;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * (快取) 組好的整棵分類樹 + 預先序列化好的 JSON + 子孫區間索引
+     * generation：建立時的版本號，與目前版本號不同代表已失效
+     *
+     * (子孫區間索引 - Euler tour) 以前序 (preorder) 走訪整棵樹，依序把分類 ID 放入 preorderIds：
+     * 一個分類「及其所有子孫」必定是 preorderIds 中連續的一段 [entry, exit)
+     * -> 查詢子孫只需一次 Map 查詢 + 取一段子列表，不需要遞迴
+     */
+    private record CategoryTree(long generation, List<CategoryNodeVO> roots, byte[] json,
+                                List<Integer> preorderIds, Map<Integer, int[]> intervals) {
+
+        List<Integer> subtreeIds(Integer categoryId) {
+            int[] interval = intervals.get(categoryId);
+            return interval == null ? null : preorderIds.subList(interval[0], interval[1]);
+        }
+    }
+
+    // (快取) 每次分類異動就 + 1；快取中的樹版本號不同就重建
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CategoryTree cachedTree;
 
     @Autowired
-    public CategoryServiceImpl(CategoryDAO categoryDAO) {
+    public CategoryServiceImpl(CategoryDAO categoryDAO, ObjectMapper objectMapper) {
         this.categoryDAO = categoryDAO;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * 實作：獲取「樹狀」分類
+     * 實作：獲取「樹狀」分類 (快取)
      */
     @Override
-    @Transactional(readOnly = true) 
     public List<CategoryNodeVO> getCategoryTree() {
-        logger.info("正在查詢「樹狀」商品分類...");
-        
-        // 1. (關鍵！) 使用你的 DAO 方法，只抓取「第一層」（父類別為 NULL 的）
-        List<CategoryPO> rootCategoryPOs = categoryDAO.findByParentCategoryIsNull();
-        
-        logger.info("找到{}個根分類。",rootCategoryPOs.size());
-        
-        // 2. (關鍵！) 將這些 PO 轉換為「 VOS 」
-        // 在轉換的過程中， CategoryNodeVO 的「遞迴建構子」會「自動」去 categoryDAO 中 
-        // 抓取所有的子孫
-        return rootCategoryPOs.stream()
-                .map(rootPO -> new CategoryNodeVO(rootPO, categoryDAO)) // 遞迴 在此觸發
-                .collect(Collectors.toList());
+        return currentTree().roots();
     }
-    
+
     /**
-     * (關鍵新增！) 
-     * 實作：獲取 ID 列表（公開方法）
+     * 實作：獲取「樹狀」分類的 JSON (快取，已序列化)
      */
     @Override
-    @Transactional(readOnly = true)
-    public List<Integer> getAllChildCategoryIds(Integer categoryId) {
-        // 1. 建立一個 List 來收集 ID
-        List<Integer> categoryIds = new java.util.ArrayList<>();
-        
-        // 2. 首先， 把 「父 ID 本身」 加進去
-        categoryIds.add(categoryId);
-        
-        // 3. 呼叫「私有的」 遞迴輔助方法， 來「填滿」 這個 List
-        findChildrenRecursive(categoryId, categoryIds);
-        
-        logger.info("分類 ID: {} 及其所有子孫 ID 共有： {}",categoryId, categoryIds);
-        return categoryIds;
+    public byte[] getCategoryTreeJson() {
+        return currentTree().json();
+    }
+
+    /**
+     * 實作：讓快取失效 (下一次讀取時重建)
+     */
+    @Override
+    public void invalidateCategoryTree() {
+        generation.incrementAndGet();
+        cachedTree = null;
+        logger.info("分類樹快取已失效");
+    }
+
+    /**
+     * 實作：依目前的分類樹重建 product_category_paths
+     * (關鍵) REQUIRES_NEW：會在分類異動的交易提交後 (afterCommit) 被呼叫，
+     *        此時舊交易的資源仍綁在執行緒上，必須開新的交易才會真的寫入
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int rebuildProductCategoryPaths() {
+        categoryDAO.deleteAllProductCategoryPaths();
+        int rows = categoryDAO.insertAllProductCategoryPaths();
+        logger.info("商品祖先分類列已重建，共 {} 列", rows);
+        return rows;
+    }
+
+    private CategoryTree currentTree() {
+        CategoryTree tree = cachedTree;
+        if (tree != null && tree.generation() == generation.get()) {
+            return tree;
+        }
+        // (關鍵) 只讓一個執行緒去重建，其他執行緒等它建好直接使用
+        synchronized (this) {
+            long buildGeneration = generation.get();
+            tree = cachedTree;
+            if (tree != null && tree.generation() == buildGeneration) {
+                return tree;
+            }
+            tree = loadTree(buildGeneration);
+            // 組樹期間若又有分類異動，這棵樹只給這次使用，不放進快取
+            if (generation.get() == buildGeneration) {
+                cachedTree = tree;
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * (效能) 一句 SQL 讀出整張分類表，在記憶體中組成樹，並預先序列化成 JSON
+     */
+    private CategoryTree loadTree(long buildGeneration) {
+        logger.info("正在查詢「樹狀」商品分類...");
+
+        // 1. 一次讀出所有分類，依「父 ID」分組
+        List<Object[]> rows = categoryDAO.findAllForTree();
+        Map<Integer, List<Object[]>> childrenByParentId = new HashMap<>();
+        List<Object[]> rootRows = new ArrayList<>();
+        for (Object[] row : rows) {
+            Integer parentId = (Integer) row[2];
+            if (parentId == null) {
+                rootRows.add(row);
+            } else {
+                childrenByParentId.computeIfAbsent(parentId, id -> new ArrayList<>()).add(row);
+            }
+        }
+
+        // 2. 從根節點往下組成不可變的樹 (同時記錄每個分類的前序區間)
+        List<CategoryNodeVO> roots = new ArrayList<>(rootRows.size());
+        List<Integer> preorderIds = new ArrayList<>(rows.size());
+        Map<Integer, int[]> intervals = new HashMap<>();
+        for (Object[] row : rootRows) {
+            roots.add(toNode(row, childrenByParentId, preorderIds, intervals));
+        }
+        roots = List.copyOf(roots);
+        logger.info("找到{}個根分類，共{}個分類。", roots.size(), rows.size());
+
+        // 3. 預先序列化：之後的請求直接回傳位元組，不必再經過 Jackson
+        try {
+            return new CategoryTree(buildGeneration, roots, objectMapper.writeValueAsBytes(roots),
+                    List.copyOf(preorderIds), Map.copyOf(intervals));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("分類樹序列化失敗", e);
+        }
     }
 
+    private static CategoryNodeVO toNode(Object[] row, Map<Integer, List<Object[]>> childrenByParentId,
+                                         List<Integer> preorderIds, Map<Integer, int[]> intervals) {
+        Integer categoryId = (Integer) row[0];
+        int entry = preorderIds.size();
+        preorderIds.add(categoryId);
+
+        List<CategoryNodeVO> children = new ArrayList<>();
+        for (Object[] childRow : childrenByParentId.getOrDefault(categoryId, List.of())) {
+            children.add(toNode(childRow, childrenByParentId, preorderIds, intervals)); // 遞迴 (只在記憶體中)
+        }
+        // 走完所有子孫後的位置 = 區間結尾
+        intervals.put(categoryId, new int[]{entry, preorderIds.size()});
+        return new CategoryNodeVO(categoryId, (String) row[1], children);
+    }
+    
     /**
      * (關鍵新增！) 
-     * 遞迴輔助方法： 不斷向下 尋找 子 ID 並 加入 List
+     * 實作：獲取 ID 列表（公開方法）
      *
-     * @param parentId 目前要查詢的 「父 ID」
-     * @param categoryIds  「共用的」 結果 List
+     * (效能) 從快取的子孫區間索引取出連續的一段，不再每個節點查詢一次資料庫
      */
-    private void findChildrenRecursive(Integer parentId, List<Integer> categoryIds) {
-        // 1. 使用你的 DAO 方法， 查詢 「直接子代」
-        // ( `findByParentCategory_CategoryId` )
-        List<CategoryPO> children = categoryDAO.findByParentCategory_CategoryId(parentId);
-
-        // 2.  `forEach`  所有 「直接子代」
-        for (CategoryPO child : children) {
-            // 3. 將 「子 ID」 加入 List
-            categoryIds.add(child.getCategoryId());
-            
-            // 4. (遞迴) 然後， 「以這個子代為新的父代」， 再次呼叫「它自己」
-            findChildrenRecursive(child.getCategoryId(), categoryIds);
+    @Override
+    public List<Integer> getAllChildCategoryIds(Integer categoryId) {
+        List<Integer> categoryIds = currentTree().subtreeIds(categoryId);
+        if (categoryIds == null) {
+            // (不存在的分類) 與過去相同：只回傳自己 (之後的商品查詢自然查無資料)
+            return List.of(categoryId);
         }
+        logger.debug("分類 ID: {} 及其所有子孫共 {} 個", categoryId, categoryIds.size());
+        return categoryIds;
     }
-}
\ No newline at end of file
+}
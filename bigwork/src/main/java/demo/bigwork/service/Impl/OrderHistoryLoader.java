@@ -0,0 +1,117 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.dao.OrderItemDAO;
+import demo.bigwork.dao.OrderSummaryDAO;
+import demo.bigwork.model.po.OrderPO;
+import demo.bigwork.model.vo.OrderPageVO;
+import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderResponseVO.OrderItemResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
+import demo.bigwork.util.OrderCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (訂單歷史) 買家 / 賣家 / 管理員共用的訂單查詢
+ *
+ * - 列表 (分頁 / 不分頁)：只讀 order_summaries 讀取模型，一句單表 SQL
+ * - 詳情：訂單明細 + 商品 + 評價以 IN 清單一句 SQL 批次查出，組成完整的 OrderResponseVO
+ *
+ * (必須在呼叫端的交易中使用)
+ */
+@Component
+class OrderHistoryLoader {
+
+    // (安全) IN 清單的上限，超過就分段查詢
+    private static final int MAX_IN_LIST_SIZE = 500;
+
+    private final OrderSummaryDAO orderSummaryDAO;
+    private final OrderItemDAO orderItemDAO;
+
+    @Autowired
+    OrderHistoryLoader(OrderSummaryDAO orderSummaryDAO, OrderItemDAO orderItemDAO) {
+        this.orderSummaryDAO = orderSummaryDAO;
+        this.orderItemDAO = orderItemDAO;
+    }
+
+    /**
+     * 某買家的一頁訂單摘要 (最新優先)
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    OrderPageVO loadBuyerPage(Long buyerId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1); // (多讀一筆) 判斷是否還有下一頁
+        OrderCursor after = decode(cursor);
+        List<OrderSummaryVO> orders = after == null
+                ? orderSummaryDAO.findBuyerFirstPage(buyerId, limit)
+                : orderSummaryDAO.findBuyerPageAfter(buyerId, after.getCreatedAt(), after.getOrderId(), limit);
+        return toPage(orders, size);
+    }
+
+    /**
+     * 某賣家的一頁訂單摘要 (最新優先)
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    OrderPageVO loadSellerPage(Long sellerId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        OrderCursor after = decode(cursor);
+        List<OrderSummaryVO> orders = after == null
+                ? orderSummaryDAO.findSellerFirstPage(sellerId, limit)
+                : orderSummaryDAO.findSellerPageAfter(sellerId, after.getCreatedAt(), after.getOrderId(), limit);
+        return toPage(orders, size);
+    }
+
+    /**
+     * 某買家 / 賣家的所有訂單摘要 (不分頁的舊 API)
+     */
+    List<OrderSummaryVO> loadAllForBuyer(Long buyerId) {
+        return orderSummaryDAO.findByBuyer(buyerId);
+    }
+
+    List<OrderSummaryVO> loadAllForSeller(Long sellerId) {
+        return orderSummaryDAO.findBySeller(sellerId);
+    }
+
+    /**
+     * (詳情) 把已經查出的訂單轉成完整 VO：明細以 IN 清單批次查詢，不逐筆初始化 items
+     */
+    List<OrderResponseVO> toResponses(List<OrderPO> orders) {
+        Map<Long, List<OrderItemResponseVO>> itemsByOrder = new HashMap<>();
+        for (int from = 0; from < orders.size(); from += MAX_IN_LIST_SIZE) {
+            List<Long> orderIds = orders.subList(from, Math.min(orders.size(), from + MAX_IN_LIST_SIZE))
+                    .stream().map(OrderPO::getOrderId).toList();
+            for (Object[] row : orderItemDAO.findResponseRowsByOrderIds(orderIds)) {
+                itemsByOrder.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(new OrderItemResponseVO(row));
+            }
+        }
+
+        List<OrderResponseVO> responses = new ArrayList<>(orders.size());
+        for (OrderPO order : orders) {
+            responses.add(new OrderResponseVO(order, itemsByOrder.getOrDefault(order.getOrderId(), new ArrayList<>())));
+        }
+        return responses;
+    }
+
+    private static OrderPageVO toPage(List<OrderSummaryVO> orders, int size) {
+        // 有第 size + 1 筆 -> 還有下一頁，游標指向本頁最後一筆
+        boolean hasNext = orders.size() > size;
+        List<OrderSummaryVO> page = hasNext ? new ArrayList<>(orders.subList(0, size)) : orders;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummaryVO last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getOrderId()).encode();
+        }
+        return new OrderPageVO(page, nextCursor);
+    }
+
+    private static OrderCursor decode(String cursor) {
+        return (cursor == null || cursor.isBlank()) ? null : OrderCursor.decode(cursor);
+    }
+}
@@ -1,25 +1,38 @@
 package demo.bigwork.service.Impl;
 
+import demo.bigwork.aop.OptimisticRetry;
 import demo.bigwork.dao.*; // 匯入所有 DAO
 import demo.bigwork.model.enums.OrderStatus;
+import demo.bigwork.model.enums.PendingPaymentStatus;
 import demo.bigwork.model.enums.TransactionType;
 import demo.bigwork.model.po.*; // 匯入所有 PO
+import demo.bigwork.model.vo.OrderPageVO;
 import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
+import demo.bigwork.model.vo.PendingPaymentVO;
 import demo.bigwork.service.AuthHelperService;
 import demo.bigwork.service.OrderService;
+import demo.bigwork.util.TradeNoGenerator;
 import jakarta.persistence.EntityNotFoundException;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -37,12 +50,22 @@ public class OrderServiceImpl implements OrderService {
     private final WalletTransactionDAO walletTransactionDAO;
     private final OrderDAO orderDAO;
     private final UserDAO userDAO; // (需要用來找賣家)
+    private final PendingPaymentDAO pendingPaymentDAO;
+    private final long pendingPaymentTtlMs;
+    private final TradeNoGenerator tradeNoGenerator;
+    private final OrderHistoryLoader orderHistoryLoader; // (訂單歷史：批次載入明細)
+    private final OrderSummaryDAO orderSummaryDAO; // (訂單列表讀取模型)
+    private final ReportCache reportCache; // (營運報表快取)
 
     @Autowired
     public OrderServiceImpl(AuthHelperService authHelperService, CartDAO cartDAO, 
                             CartItemDAO cartItemDAO, ProductDAO productDAO, 
                             WalletDAO walletDAO, WalletTransactionDAO walletTransactionDAO, 
-                            OrderDAO orderDAO, UserDAO userDAO) {
+                            OrderDAO orderDAO, UserDAO userDAO,
+                            PendingPaymentDAO pendingPaymentDAO, TradeNoGenerator tradeNoGenerator,
+                            OrderHistoryLoader orderHistoryLoader, OrderSummaryDAO orderSummaryDAO,
+                            ReportCache reportCache,
+                            @Value("${payment.reservation.ttl-ms:900000}") long pendingPaymentTtlMs) {
         this.authHelperService = authHelperService;
         this.cartDAO = cartDAO;
         this.cartItemDAO = cartItemDAO;
@@ -51,6 +74,12 @@ public class OrderServiceImpl implements OrderService {
         this.walletTransactionDAO = walletTransactionDAO;
         this.orderDAO = orderDAO;
         this.userDAO = userDAO;
+        this.pendingPaymentDAO = pendingPaymentDAO;
+        this.pendingPaymentTtlMs = pendingPaymentTtlMs;
+        this.tradeNoGenerator = tradeNoGenerator;
+        this.orderHistoryLoader = orderHistoryLoader;
+        this.orderSummaryDAO = orderSummaryDAO;
+        this.reportCache = reportCache;
     }
 
 
@@ -58,7 +87,8 @@ public class OrderServiceImpl implements OrderService {
      * (核心！) 結帳
      */
     @Override
-    @Transactional // (極度重要！)
+    @OptimisticRetry // (並發) 買家錢包被同時修改時，整筆結帳回滾後重跑
+    @Transactional(rollbackFor = Exception.class) // (極度重要！任何錯誤都要回滾庫存與金流)
     public List<OrderResponseVO> checkoutFromMyCart() throws AccessDeniedException, Exception {
         
         // 1. (安全) 取得買家
@@ -66,11 +96,9 @@ public class OrderServiceImpl implements OrderService {
         logger.info("買家 {} 正在結帳...", buyer.getEmail());
 
         // 2. (讀取) 取得購物車
-        CartPO cart = cartDAO.findByUser_UserId(buyer.getUserId())
+        // (關鍵) 一句 JOIN FETCH 同時載入「項目 + 商品 + 賣家」，後面不會再懶載入
+        CartPO cart = cartDAO.findForCheckoutByUserId(buyer.getUserId())
                 .orElseThrow(() -> new Exception("找不到購物車"));
-        
-        // (關鍵) 手動初始化「所有」項目 (POJO, DAO 都已修正)
-        Hibernate.initialize(cart.getItems());
         Set<CartItemPO> itemsInCart = cart.getItems();
 
         // 3. (驗證 1) 購物車是否為空？
@@ -80,17 +108,11 @@ public class OrderServiceImpl implements OrderService {
         }
         logger.debug("購物車內有 {} 項商品", itemsInCart.size());
 
-        // 4. (驗證 2) 檢查「所有」庫存
-        // (我們必須在「扣款」前先檢查)
-        for (CartItemPO item : itemsInCart) {
-            ProductPO product = item.getProduct();
-            if (product.getStock() < item.getQuantity()) {
-                logger.warn("結帳失敗：商品 {} 庫存不足 (庫存: {}, 欲購: {})", 
-                    product.getName(), product.getStock(), item.getQuantity());
-                throw new Exception("商品「" + product.getName() + "」庫存不足");
-            }
-        }
-        logger.debug("所有商品庫存檢查通過");
+        // 4. (驗證 2 + 執行) 以「條件式 UPDATE」扣除「所有」庫存
+        // (檢查與扣除在同一句 SQL 完成，不會有兩個買家同時買走最後一件的問題)
+        // (若後面任何一步失敗，rollbackFor 會讓已扣除的庫存一併回滾)
+        reserveStockForCart(itemsInCart);
+        logger.debug("所有商品庫存已扣除");
 
         // 5. (驗證 3) 檢查「錢包餘額」
         // 5a. 計算「總價」
@@ -98,8 +120,9 @@ public class OrderServiceImpl implements OrderService {
                 .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        // 5b. 取得買家錢包
-        WalletPO buyerWallet = walletDAO.findByUser_UserId(buyer.getUserId())
+        // 5b. 取得買家錢包 (連同所有賣家的錢包，一次查詢)
+        Map<Long, WalletPO> walletsByUserId = findWalletsForCheckout(buyer.getUserId(), itemsInCart);
+        WalletPO buyerWallet = Optional.ofNullable(walletsByUserId.get(buyer.getUserId()))
                 .orElseThrow(() -> new Exception("找不到買家錢包"));
         
         // 5c. 比較餘額
@@ -139,26 +162,23 @@ public class OrderServiceImpl implements OrderService {
             Long sellerId = entry.getKey();
             List<CartItemPO> sellerItems = entry.getValue();
 
-            // 8a. 取得賣家物件
-            UserPO seller = userDAO.findById(sellerId)
-                    .orElseThrow(() -> new Exception("找不到賣家, ID: " + sellerId));
+            // 8a. 取得賣家物件 (已由 JOIN FETCH 載入)
+            UserPO seller = sellerItems.get(0).getProduct().getSeller();
             
             // 8b. 計算「這張訂單」的總價
             BigDecimal sellerOrderPrice = sellerItems.stream()
                     .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
             
-            // 8c. (金流) 幫賣家加錢
-            WalletPO sellerWallet = walletDAO.findByUser_UserId(sellerId)
+            // 8c. (金流) 取得賣家錢包 (只用來關聯交易紀錄，不更新 wallets 那一列)
+            WalletPO sellerWallet = Optional.ofNullable(walletsByUserId.get(sellerId))
                     .orElseThrow(() -> new Exception("找不到賣家錢包, ID: " + sellerId));
-            sellerWallet.setBalance(sellerWallet.getBalance().add(sellerOrderPrice));
-            walletDAO.save(sellerWallet);
             
             // 8d. (金流) 建立賣家「交易紀錄」 (PAYMENT_RECEIVED)
-            WalletTransactionPO sellerTx = new WalletTransactionPO(
-                    sellerWallet, TransactionType.PAYMENT_RECEIVED, sellerOrderPrice);
-            walletTransactionDAO.save(sellerTx);
-            logger.info("已付款 {} 元給賣家 {}", sellerOrderPrice, seller.getEmail());
+            // (關鍵) 只寫入流水帳 (settled = false)，由 WalletLedgerService 非同步併入餘額
+            // 熱門賣家的錢包不會再被每一筆結帳鎖住
+            walletTransactionDAO.save(newPendingCredit(sellerWallet, sellerOrderPrice));
+            logger.info("已記錄應付 {} 元給賣家 {} (待入帳)", sellerOrderPrice, seller.getEmail());
 
             // 8e. (訂單) 建立「訂單主檔 (OrderPO)」
             OrderPO newOrder = new OrderPO();
@@ -178,12 +198,8 @@ public class OrderServiceImpl implements OrderService {
                 newOrderItem.setPricePerUnit(product.getPrice()); // (S儲存「當下」的價格)
                 
                 // (關鍵) 使用輔助方法，自動設定「雙向關聯」
+                // (庫存已在步驟 4 扣除)
                 newOrder.addOrderItem(newOrderItem);
-                
-                // 8g. (庫存) 扣除「商品庫存」
-                product.setStock(product.getStock() - cartItem.getQuantity());
-                productDAO.save(product);
-                logger.debug("商品 {} 庫存已扣除，剩餘: {}", product.getName(), product.getStock());
             }
 
             // 8h. (儲存) 儲存「訂單」
@@ -193,6 +209,10 @@ public class OrderServiceImpl implements OrderService {
             logger.info("訂單 {} (for 賣家 {}) 已建立", savedOrder.getOrderId(), seller.getEmail());
         }
 
+        // 8i. (讀取模型) 同一個交易寫入所有新訂單的摘要
+        writeOrderSummaries(createdOrders);
+        reportCache.invalidateOpenPeriodsAfterCommit(); // (營運報表) 本期報表快取在提交後失效
+
         // 9. (執行 - 清理)
         // (所有訂單都成功了) 清空購物車
         logger.info("結帳成功，正在清空買家 {} 的購物車...", buyer.getEmail());
@@ -219,23 +239,23 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponseVO> getMyOrdersAsBuyer() throws AccessDeniedException {
+    public List<OrderSummaryVO> getMyOrdersAsBuyer() throws AccessDeniedException {
         UserPO buyer = authHelperService.getCurrentAuthenticatedBuyer();
         logger.info("正在查詢買家 {} 的所有訂單...", buyer.getEmail());
         
-        List<OrderPO> orders = orderDAO.findByBuyer_UserId(buyer.getUserId());
-        
-        // (S關鍵) 
-        // 迴圈「手動初始化」所有訂單的 LAZY items
-        for (OrderPO order : orders) {
-            Hibernate.initialize(order.getItems());
-            // (我們也需要賣家資訊，但 OrderResponseVO 會幫我們載入)
-        }
-        
-        // (安全轉換)
-        return orders.stream()
-                .map(OrderResponseVO::new)
-                .collect(Collectors.toList());
+        // (效能) 只讀 order_summaries，不再載入明細 / 商品 / 評價
+        return orderHistoryLoader.loadAllForBuyer(buyer.getUserId());
+    }
+
+    /**
+     * (查詢) 「我 (買家)」的訂單歷史 (游標分頁)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageVO getMyOrderHistoryAsBuyer(String cursor, int size) throws AccessDeniedException {
+        UserPO buyer = authHelperService.getCurrentAuthenticatedBuyer();
+        logger.info("正在查詢買家 {} 的訂單歷史 (cursor: {})...", buyer.getEmail(), cursor);
+        return orderHistoryLoader.loadBuyerPage(buyer.getUserId(), cursor, size);
     }
 
     /**
@@ -258,12 +278,8 @@ public class OrderServiceImpl implements OrderService {
             throw new AccessDeniedException("您沒有權限查詢此訂單");
         }
         
-        // (S關鍵) 
-        // 手動初始化 LAZY items
-        Hibernate.initialize(order.getItems());
-        
-        // (安全轉換)
-        return new OrderResponseVO(order);
+        // (效能) 明細 + 商品 + 評價一句 SQL 批次查出
+        return orderHistoryLoader.toResponses(List.of(order)).get(0);
     }
     
     /**
@@ -271,142 +287,350 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponseVO> getMyOrdersAsSeller() 
+    public List<OrderSummaryVO> getMyOrdersAsSeller() 
             throws AccessDeniedException {
         
         // 1. (安全) 驗證「角色」
         UserPO seller = authHelperService.getCurrentAuthenticatedSeller();
         logger.info("賣家 {} 正在查詢S收到的所有訂單", seller.getEmail());
 
-        // 2. (查詢) 呼叫 DAO (這個方法我們之前就建好了)
-        List<OrderPO> orders = orderDAO.findBySeller_UserId(seller.getUserId());
-        
-        // 3. (S關鍵 - 安全) 
-        // 迴圈「手動初始化」所有訂單的 LAZY items 集合
-        // (VO 建構子中的 .getBuyer() 和 .getProduct() 會在交易中安全地懶載入)
-        for (OrderPO order : orders) {
-            Hibernate.initialize(order.getItems());
-        }
-        
-        // 4. (安全轉換)
+        // 2. (效能) 只讀 order_summaries，不再載入明細 / 商品 / 評價
+        List<OrderSummaryVO> orders = orderHistoryLoader.loadAllForSeller(seller.getUserId());
         logger.info("賣家 {} 共查詢到 {} 筆訂單", seller.getEmail(), orders.size());
-        return orders.stream()
-                .map(OrderResponseVO::new) // (在交易內安全轉換)
-                .collect(Collectors.toList());
+        return orders;
     }
+
     /**
-     * (新) 處理綠界直接結帳 (Callback 觸發)
-     * 邏輯：
-     * 1. 找到買家購物車
-     * 2. 驗證總金額是否正確
-     * 3. 拆分訂單、扣庫存
-     * 4. (關鍵) 賣家錢包入帳 (因為綠界代收了)
-     * 5. (關鍵) 不扣買家錢包餘額 (因為是外部付款)
+     * (查詢) 「我 (賣家)」收到的訂單歷史 (游標分頁)
      */
     @Override
-    @Transactional // (極度重要：確保資料一致性)
-    public void processEcpayCheckout(Long userId, BigDecimal amount, String tradeNo) throws Exception {
-        
-        logger.info("開始處理綠界直接結帳... 買家ID: {}, 金額: {}, 綠界單號: {}", userId, amount, tradeNo);
+    @Transactional(readOnly = true)
+    public OrderPageVO getMyOrderHistoryAsSeller(String cursor, int size) throws AccessDeniedException {
+        UserPO seller = authHelperService.getCurrentAuthenticatedSeller();
+        logger.info("賣家 {} 正在查詢訂單歷史 (cursor: {})", seller.getEmail(), cursor);
+        return orderHistoryLoader.loadSellerPage(seller.getUserId(), cursor, size);
+    }
+    /**
+     * 實作：(回填) 重新產生 (afterId, upToId] 區間內訂單的摘要
+     */
+    @Override
+    @Transactional
+    public int rebuildOrderSummaries(Long afterId, Long upToId) {
+        return orderSummaryDAO.refreshRange(afterId, upToId);
+    }
 
-        // 1. 取得買家 (注意：這裡是後端自動執行，沒有登入狀態，只能用 ID 查)
-        UserPO buyer = userDAO.findById(userId)
-                .orElseThrow(() -> new Exception("綠界結帳錯誤：找不到買家 ID " + userId));
+    /**
+     * (新) 綠界付款前：建立「待付款訂單」並保留庫存 (/createOrder 觸發)
+     * 邏輯：
+     * 1. 讀取買家購物車 (JOIN FETCH)
+     * 2. 條件式扣除庫存 (不足就直接拒絕，不會讓買家付了錢才發現沒貨)
+     * 3. 快照「商品 / 賣家 / 數量 / 單價」，記錄 MerchantTradeNo -> 待付款訂單
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class) // (關鍵) 任一步失敗，已扣的庫存一併回滾
+    public PendingPaymentVO createEcpayPendingPayment() throws AccessDeniedException, Exception {
+        // 1. (安全) 取得買家
+        UserPO buyer = authHelperService.getCurrentAuthenticatedBuyer();
 
-        // 2. 取得購物車
-        CartPO cart = cartDAO.findByUser_UserId(userId)
-                .orElseThrow(() -> new Exception("綠界結帳錯誤：找不到買家購物車"));
-        
-        Hibernate.initialize(cart.getItems());
+        // 2. 取得購物車 (JOIN FETCH：項目 + 商品 + 賣家)
+        CartPO cart = cartDAO.findForCheckoutByUserId(buyer.getUserId())
+                .orElseThrow(() -> new Exception("您的購物車是空的"));
         Set<CartItemPO> itemsInCart = cart.getItems();
-
         if (itemsInCart.isEmpty()) {
-            logger.error("綠界結帳異常：買家 {} 已付款，但購物車是空的 (可能重複處理)", buyer.getEmail());
-            return; // 防止重複執行
+            throw new Exception("購物車內無商品，無法結帳");
         }
 
-        // 3. (安全驗證) 計算購物車總金額
-        BigDecimal totalCartPrice = itemsInCart.stream()
-                .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // 比對金額 (允許整數比較，忽略小數點後微小差異)
-        if (totalCartPrice.intValue() != amount.intValue()) {
-            logger.warn("綠界結帳金額警示！購物車金額: {}, 實際付款金額: {}", totalCartPrice, amount);
-            // 實務上可能需要標記異常訂單，這裡我們先繼續執行，以綠界付款金額為準
+        // 3. (庫存) 買家重新付款：先釋放他尚未付款的舊保留 (否則每按一次付款就多鎖一份庫存，直到過期)
+        List<Long> previousIds = pendingPaymentDAO.lockPendingByBuyerId(buyer.getUserId()).stream()
+                .map(PendingPaymentPO::getPendingPaymentId)
+                .collect(Collectors.toList());
+        if (!previousIds.isEmpty()) {
+            expirePendingPayments(previousIds);
+            logger.info("買家 {} 重新付款，已釋放 {} 張未付款的待付款訂單", buyer.getEmail(), previousIds.size());
         }
 
-        // 4. (庫存檢查)
-        for (CartItemPO item : itemsInCart) {
-            ProductPO product = item.getProduct();
-            if (product.getStock() < item.getQuantity()) {
-                logger.error("綠界結帳庫存不足！商品: {}, 已付錢但沒貨。", product.getName());
-                throw new Exception("商品「" + product.getName() + "」庫存不足");
-            }
+        // 3b. 再保留這次的庫存，保留到 expires_at 為止
+        reserveStockForCart(itemsInCart);
+
+        // 4. (快照) 建立待付款訂單
+        PendingPaymentPO pending = new PendingPaymentPO();
+        pending.setMerchantTradeNo(tradeNoGenerator.nextTradeNo("TOSN"));
+        pending.setBuyer(buyer);
+        pending.setExpiresAt(new Timestamp(System.currentTimeMillis() + pendingPaymentTtlMs));
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (CartItemPO cartItem : itemsInCart) {
+            ProductPO product = cartItem.getProduct();
+
+            PendingPaymentItemPO item = new PendingPaymentItemPO();
+            item.setProduct(product);
+            item.setSeller(product.getSeller());
+            item.setQuantity(cartItem.getQuantity());
+            item.setPricePerUnit(product.getPrice());
+            pending.addItem(item);
+
+            totalAmount = totalAmount.add(product.getPrice().multiply(new BigDecimal(cartItem.getQuantity())));
         }
+        pending.setTotalAmount(totalAmount);
+        pendingPaymentDAO.save(pending);
 
-        // --- 開始拆單與入帳 ---
-        
-        // 5. 依照賣家分組
-        Map<Long, List<CartItemPO>> itemsBySeller = itemsInCart.stream()
-                .collect(Collectors.groupingBy(item -> item.getProduct().getSeller().getUserId()));
+        String itemNames = itemsInCart.stream()
+                .map(item -> item.getProduct().getName() + " x " + item.getQuantity())
+                .collect(Collectors.joining("#"));
 
-        // 6. 迴圈處理每一張訂單
-        for (Map.Entry<Long, List<CartItemPO>> entry : itemsBySeller.entrySet()) {
+        logger.info("買家 {} 建立待付款訂單 {} (金額: {}，保留至 {})",
+                buyer.getEmail(), pending.getMerchantTradeNo(), totalAmount, pending.getExpiresAt());
+        return new PendingPaymentVO(pending.getMerchantTradeNo(), buyer.getUserId(), totalAmount, itemNames);
+    }
+
+    /**
+     * (新) 綠界付款成功 (由付款通知收件匣觸發)
+     * 邏輯：
+     * 1. (關鍵) 狀態轉換 PENDING -> PAID (庫存在 /createOrder 時已保留，不必再驗證購物車)
+     * 2. 依快照拆分訂單
+     * 3. (關鍵) 賣家收款寫入流水帳 (因為綠界代收了)
+     * 4. (關鍵) 不扣買家錢包餘額 (因為是外部付款)
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class) // (極度重要：確保資料一致性)
+    public void confirmEcpayPayment(String tradeNo, BigDecimal amount) throws Exception {
+
+        logger.info("綠界付款成功，處理待付款訂單 {} (金額: {})", tradeNo, amount);
+
+        // 1. (關鍵) 狀態轉換：一句 UPDATE，重複的通知在這裡就會被擋下
+        boolean paidNow = pendingPaymentDAO.transition(
+                tradeNo, PendingPaymentStatus.PENDING, PendingPaymentStatus.PAID) == 1
+                || confirmLatePayment(tradeNo);
+        if (!paidNow) {
+            logger.info("待付款訂單 {} 已經處理過 (重複通知)，略過", tradeNo);
+            return;
+        }
+
+        // 2. 載入快照 (JOIN FETCH：明細 + 商品 + 賣家)
+        PendingPaymentPO pending = pendingPaymentDAO.findWithItemsByMerchantTradeNo(tradeNo)
+                .orElseThrow(() -> new Exception("綠界結帳錯誤：找不到待付款訂單 " + tradeNo));
+
+        // 比對金額 (允許整數比較，忽略小數點後微小差異)
+        if (pending.getTotalAmount().intValue() != amount.intValue()) {
+            logger.warn("綠界結帳金額警示！待付款訂單金額: {}, 實際付款金額: {}", pending.getTotalAmount(), amount);
+            // 實務上可能需要標記異常訂單，這裡我們先繼續執行
+        }
+
+        // 3. 依照賣家分組 (快照中已記錄賣家)
+        Map<Long, List<PendingPaymentItemPO>> itemsBySeller = pending.getItems().stream()
+                .collect(Collectors.groupingBy(item -> item.getSeller().getUserId()));
+        Map<Long, WalletPO> walletsByUserId = new HashMap<>();
+        for (WalletPO wallet : walletDAO.findByUser_UserIdIn(itemsBySeller.keySet())) {
+            walletsByUserId.put(wallet.getUser().getUserId(), wallet);
+        }
+
+        // 4. 迴圈處理每一張訂單
+        List<OrderPO> createdOrders = new ArrayList<>();
+        for (Map.Entry<Long, List<PendingPaymentItemPO>> entry : itemsBySeller.entrySet()) {
             Long sellerId = entry.getKey();
-            List<CartItemPO> sellerItems = entry.getValue();
+            List<PendingPaymentItemPO> sellerItems = entry.getValue();
+            UserPO seller = sellerItems.get(0).getSeller();
 
-            UserPO seller = userDAO.findById(sellerId)
-                    .orElseThrow(() -> new Exception("找不到賣家 ID: " + sellerId));
-            
             BigDecimal sellerOrderPrice = sellerItems.stream()
-                    .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
+                    .map(item -> item.getPricePerUnit().multiply(new BigDecimal(item.getQuantity())))
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // 6a. (賣家入帳) 綠界代收 -> 轉入賣家錢包
-            // 因為錢在綠界那邊，我們視為平台已收款，所以將虛擬餘額加給賣家
-            WalletPO sellerWallet = walletDAO.findByUser_UserId(sellerId)
+
+            // 4a. (賣家紀錄) 只寫入流水帳，餘額由 WalletLedgerService 非同步入帳
+            WalletPO sellerWallet = Optional.ofNullable(walletsByUserId.get(sellerId))
                     .orElseThrow(() -> new Exception("找不到賣家錢包 ID: " + sellerId));
-            
-            sellerWallet.setBalance(sellerWallet.getBalance().add(sellerOrderPrice));
-            walletDAO.save(sellerWallet);
-            
-            // 6b. (賣家紀錄)
-            WalletTransactionPO sellerTx = new WalletTransactionPO(
-                    sellerWallet, TransactionType.PAYMENT_RECEIVED, sellerOrderPrice);
-            // 可以在這裡記錄綠界的交易單號，方便對帳
-            // sellerTx.setDescription("ECPay: " + tradeNo); 
-            walletTransactionDAO.save(sellerTx);
-            
-            // 6c. (建立訂單)
+            walletTransactionDAO.save(newPendingCredit(sellerWallet, sellerOrderPrice));
+
+            // 4b. (建立訂單) 價格使用快照，不是付款當下的價格
             OrderPO newOrder = new OrderPO();
-            newOrder.setBuyer(buyer);
+            newOrder.setBuyer(pending.getBuyer());
             newOrder.setSeller(seller);
             newOrder.setTotalPrice(sellerOrderPrice);
             newOrder.setStatus(OrderStatus.COMPLETED); // 設定為已付款/完成
 
-            for (CartItemPO cartItem : sellerItems) {
-                ProductPO product = cartItem.getProduct();
-                
+            for (PendingPaymentItemPO item : sellerItems) {
                 OrderItemPO newOrderItem = new OrderItemPO();
-                newOrderItem.setProduct(product);
-                newOrderItem.setQuantity(cartItem.getQuantity());
-                newOrderItem.setPricePerUnit(product.getPrice());
-                
+                newOrderItem.setProduct(item.getProduct());
+                newOrderItem.setQuantity(item.getQuantity());
+                newOrderItem.setPricePerUnit(item.getPricePerUnit());
                 newOrder.addOrderItem(newOrderItem);
-                
-                // 6d. (扣庫存)
-                product.setStock(product.getStock() - cartItem.getQuantity());
-                productDAO.save(product);
             }
-            // 儲存訂單
-            orderDAO.save(newOrder);
+            createdOrders.add(orderDAO.save(newOrder));
             logger.info("綠界結帳：已建立訂單 (賣家: {})", seller.getEmail());
         }
 
-        // 7. 清空購物車
-        cartItemDAO.deleteAllByCart_CartId(cart.getCartId());
-        
-        logger.info("綠界直接結帳成功！買家: {}, 綠界單號: {}", buyer.getEmail(), tradeNo);
+        // 4c. (讀取模型) 同一個交易寫入所有新訂單的摘要
+        writeOrderSummaries(createdOrders);
+        reportCache.invalidateOpenPeriodsAfterCommit(); // (營運報表) 本期報表快取在提交後失效
+
+        // 5. 從購物車移除「已付款」的數量 (只扣快照中的商品；/createOrder 之後才加入的商品保留)
+        removePaidItemsFromCart(pending);
+
+        logger.info("綠界直接結帳成功！綠界單號: {}", tradeNo);
+    }
+
+    /**
+     * (私有輔助方法) 為剛建立的訂單寫入 order_summaries
+     * 先 flush：訂單與明細寫入資料庫 (created_at 也在此時產生)，
+     * 再以一句 INSERT ... SELECT 組出所有摘要 (仍在同一個交易，結帳失敗時一併回滾)
+     */
+    private void writeOrderSummaries(List<OrderPO> createdOrders) {
+        if (createdOrders.isEmpty()) {
+            return;
+        }
+        orderDAO.flush();
+        orderSummaryDAO.refreshOrders(createdOrders.stream().map(OrderPO::getOrderId).toList());
+    }
+
+    /**
+     * (私有輔助方法) 待付款訂單已不是 PENDING 時的處理
+     * - PAID   : 重複通知，回傳 false (不做事)
+     * - EXPIRED: 買家在保留期限過後才付款，庫存已被歸還 -> 重新扣一次庫存後回傳 true
+     *            (庫存不足時拋出例外，通知會留在收件匣等待重試 / 人工退款)
+     * - 不存在 : 拋出例外
+     */
+    private boolean confirmLatePayment(String tradeNo) throws Exception {
+        if (pendingPaymentDAO.transition(tradeNo, PendingPaymentStatus.EXPIRED, PendingPaymentStatus.PAID) == 0) {
+            if (!pendingPaymentDAO.existsByMerchantTradeNo(tradeNo)) {
+                throw new Exception("綠界結帳錯誤：找不到待付款訂單 " + tradeNo);
+            }
+            return false;
+        }
+
+        PendingPaymentPO pending = pendingPaymentDAO.findWithItemsByMerchantTradeNo(tradeNo)
+                .orElseThrow(() -> new Exception("綠界結帳錯誤：找不到待付款訂單 " + tradeNo));
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (PendingPaymentItemPO item : pending.getItems()) {
+            quantities.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Long> failedProductIds = productDAO.reserveStock(quantities);
+        if (!failedProductIds.isEmpty()) {
+            logger.error("綠界結帳庫存不足！待付款訂單 {} 已過期且已付款，但商品 {} 已售完", tradeNo, failedProductIds);
+            throw new Exception("待付款訂單 " + tradeNo + " 已過期，且商品庫存不足");
+        }
+        logger.warn("待付款訂單 {} 在過期後才付款，已重新保留庫存", tradeNo);
+        return true;
+    }
+
+    /**
+     * (排程) 將「已過期仍未付款」的待付款訂單批次改為 EXPIRED，並歸還庫存
+     */
+    @Override
+    @Transactional
+    public int releaseExpiredPendingPayments(int batchSize) {
+        // 1. 鎖定這一批過期的待付款訂單 (SELECT ... FOR UPDATE)
+        List<Long> ids = pendingPaymentDAO.lockExpired(new Timestamp(System.currentTimeMillis()),
+                        PageRequest.of(0, batchSize)).stream()
+                .map(PendingPaymentPO::getPendingPaymentId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 改為 EXPIRED 並歸還庫存
+        int releasedProducts = expirePendingPayments(ids);
+
+        logger.info("已釋放 {} 張過期的待付款訂單，歸還 {} 項商品庫存", ids.size(), releasedProducts);
+        return ids.size();
+    }
+
+    /**
+     * (私有輔助方法) 將「已鎖定」的待付款訂單改為 EXPIRED，並歸還保留的庫存
+     * (依商品彙總後歸還：每個商品一句 UPDATE，而不是每張待付款訂單各自歸還)
+     *
+     * @return 歸還庫存的商品數
+     */
+    private int expirePendingPayments(List<Long> ids) {
+        pendingPaymentDAO.markExpired(ids);
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Object[] row : pendingPaymentDAO.sumQuantitiesByProduct(ids)) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        productDAO.releaseStock(quantities);
+        return quantities.size();
+    }
+
+    /**
+     * (私有輔助方法) 綠界付款成功後，從買家購物車扣掉快照中的數量
+     * 購物車數量 <= 已付款數量 -> 移除該項；否則只扣掉已付款的數量
+     */
+    private void removePaidItemsFromCart(PendingPaymentPO pending) {
+        Map<Long, Integer> paidQuantities = new HashMap<>();
+        for (PendingPaymentItemPO item : pending.getItems()) {
+            paidQuantities.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        cartDAO.findByUser_UserId(pending.getBuyer().getUserId()).ifPresent(cart -> {
+            List<CartItemPO> paidItems = new ArrayList<>();
+            for (CartItemPO cartItem : cartItemDAO.findByCart_CartIdOrderByCartItemIdAsc(cart.getCartId())) {
+                Integer paid = paidQuantities.get(cartItem.getProduct().getProductId());
+                if (paid == null) {
+                    continue;
+                }
+                if (cartItem.getQuantity() <= paid) {
+                    paidItems.add(cartItem);
+                } else {
+                    cartItem.setQuantity(cartItem.getQuantity() - paid); // (dirty checking 自動 UPDATE)
+                }
+            }
+            cartItemDAO.deleteAll(paidItems);
+        });
+    }
+
+    /**
+     * (私有輔助方法) 建立一筆「待入帳」的賣家收款紀錄
+     */
+    private WalletTransactionPO newPendingCredit(WalletPO sellerWallet, BigDecimal amount) {
+        WalletTransactionPO tx = new WalletTransactionPO(
+                sellerWallet, TransactionType.PAYMENT_RECEIVED, amount);
+        tx.setSettled(false);
+        return tx;
+    }
+
+    /**
+     * (私有輔助方法) 一次查詢「買家 (可為 null) + 購物車中所有賣家」的錢包
+     *
+     * @return key = userId, value = 錢包
+     */
+    private Map<Long, WalletPO> findWalletsForCheckout(Long buyerId, Collection<CartItemPO> items) {
+        Set<Long> userIds = new HashSet<>();
+        if (buyerId != null) {
+            userIds.add(buyerId);
+        }
+        for (CartItemPO item : items) {
+            userIds.add(item.getProduct().getSeller().getUserId());
+        }
+
+        Map<Long, WalletPO> walletsByUserId = new HashMap<>();
+        for (WalletPO wallet : walletDAO.findByUser_UserIdIn(userIds)) {
+            // (getUserId() 只讀取 Proxy 的 ID，不會觸發懶載入)
+            walletsByUserId.put(wallet.getUser().getUserId(), wallet);
+        }
+        return walletsByUserId;
+    }
+
+    /**
+     * (私有輔助方法) 為購物車中的「所有」商品扣除庫存
+     * (每個商品一句 "UPDATE ... WHERE stock >= ?"，不再先讀取 stock 再 save)
+     *
+     * @throws Exception 列出「所有」庫存不足的商品名稱
+     */
+    private void reserveStockForCart(Collection<CartItemPO> items) throws Exception {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItemPO item : items) {
+            quantities.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<Long> failedProductIds = productDAO.reserveStock(quantities);
+        if (!failedProductIds.isEmpty()) {
+            String failedNames = items.stream()
+                    .map(CartItemPO::getProduct)
+                    .filter(product -> failedProductIds.contains(product.getProductId()))
+                    .map(product -> "「" + product.getName() + "」")
+                    .distinct()
+                    .collect(Collectors.joining("、"));
+            logger.warn("庫存不足，無法扣除的商品 ID: {}", failedProductIds);
+            throw new Exception("商品" + failedNames + "庫存不足");
+        }
     }
-}
\ No newline at end of file
+}
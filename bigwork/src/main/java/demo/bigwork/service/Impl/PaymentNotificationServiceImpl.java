@@ -0,0 +1,117 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.aop.OptimisticRetry;
+import demo.bigwork.dao.PaymentNotificationDAO;
+import demo.bigwork.model.enums.NotificationStatus;
+import demo.bigwork.model.po.PaymentNotificationPO;
+import demo.bigwork.service.OrderService;
+import demo.bigwork.service.PaymentNotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@Service
+public class PaymentNotificationServiceImpl implements PaymentNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentNotificationServiceImpl.class);
+
+    private final PaymentNotificationDAO paymentNotificationDAO;
+    private final OrderService orderService;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+
+    @Autowired
+    public PaymentNotificationServiceImpl(PaymentNotificationDAO paymentNotificationDAO,
+                                          OrderService orderService,
+                                          @Value("${payment.notify.max-attempts:5}") int maxAttempts,
+                                          @Value("${payment.notify.retry-base-delay-ms:5000}") long retryBaseDelayMs,
+                                          @Value("${payment.notify.retry-max-delay-ms:600000}") long retryMaxDelayMs) {
+        this.paymentNotificationDAO = paymentNotificationDAO;
+        this.orderService = orderService;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseDelayMs = Math.max(1, retryBaseDelayMs);
+        this.retryMaxDelayMs = Math.max(this.retryBaseDelayMs, retryMaxDelayMs);
+    }
+
+    /**
+     * (注意) 刻意「不」加 @Transactional：
+     * 重複的 MerchantTradeNo 會在 saveAndFlush 時違反唯一索引，
+     * 若在外層交易中發生，整個交易會被標記為只能回滾
+     */
+    @Override
+    public Optional<Long> receive(String merchantTradeNo, Long userId, BigDecimal tradeAmt, String payload) {
+        // 1. (快速路徑) 綠界重送時大多走這裡，不會觸發唯一索引錯誤
+        if (paymentNotificationDAO.existsByMerchantTradeNo(merchantTradeNo)) {
+            logger.info("重複的綠界通知，已忽略: {}", merchantTradeNo);
+            return Optional.empty();
+        }
+
+        // 2. (關鍵) 兩個重送同時進來時，由資料庫的唯一索引決定誰收下
+        try {
+            PaymentNotificationPO saved = paymentNotificationDAO.saveAndFlush(
+                    new PaymentNotificationPO(merchantTradeNo, userId, tradeAmt, payload));
+            return Optional.of(saved.getNotificationId());
+        } catch (DataIntegrityViolationException e) {
+            logger.info("重複的綠界通知 (並發)，已忽略: {}", merchantTradeNo);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @OptimisticRetry
+    @Transactional(rollbackFor = Exception.class) // (關鍵) 狀態更新與建單同時成功或同時回滾
+    public boolean process(Long notificationId) throws Exception {
+        // 1. 搶下這筆通知 (PENDING -> PROCESSED)，這一列會被鎖到交易結束
+        if (paymentNotificationDAO.markProcessed(notificationId, new Timestamp(System.currentTimeMillis())) == 0) {
+            return false;
+        }
+
+        // 2. (注意) 必須在 markProcessed「之後」才讀取，才不會拿到快取中的舊狀態
+        PaymentNotificationPO notification = paymentNotificationDAO.findById(notificationId)
+                .orElseThrow(() -> new Exception("找不到付款通知 ID: " + notificationId));
+
+        // 3. 待付款訂單 PENDING -> PAID 並建單 (加入同一個交易)
+        orderService.confirmEcpayPayment(notification.getMerchantTradeNo(), notification.getTradeAmt());
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(Long notificationId, String error) {
+        paymentNotificationDAO.findById(notificationId).ifPresent(notification -> {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setLastError(error == null || error.length() <= 500 ? error : error.substring(0, 500));
+            if (notification.getAttempts() >= maxAttempts) {
+                notification.setStatus(NotificationStatus.FAILED);
+                logger.error("綠界通知 {} 已失敗 {} 次，停止重試 (請人工處理): {}",
+                        notification.getMerchantTradeNo(), notification.getAttempts(), error);
+                return;
+            }
+            // (關鍵) 指數退避：下游中斷時不會每一輪排程都立刻重試
+            long delayMs = retryDelayMs(notification.getAttempts());
+            notification.setNextAttemptAt(new Timestamp(System.currentTimeMillis() + delayMs));
+            logger.warn("綠界通知 {} 第 {} 次失敗，{} 毫秒後重試",
+                    notification.getMerchantTradeNo(), notification.getAttempts(), delayMs);
+        });
+    }
+
+    /**
+     * 第 attempts 次失敗後的等待時間 = 基本間隔 × 2^(attempts - 1)，最多 retryMaxDelayMs
+     */
+    private long retryDelayMs(int attempts) {
+        long delayMs = retryBaseDelayMs;
+        for (int i = 1; i < attempts && delayMs < retryMaxDelayMs; i++) {
+            delayMs *= 2;
+        }
+        return Math.min(retryMaxDelayMs, delayMs);
+    }
+}
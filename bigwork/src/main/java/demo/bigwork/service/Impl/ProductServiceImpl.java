@@ -2,24 +2,37 @@ package demo.bigwork.service.Impl;
 
 import demo.bigwork.dao.CategoryDAO;
 import demo.bigwork.dao.ProductDAO;
+import demo.bigwork.dao.ProductRatingStatsDAO;
 import demo.bigwork.dao.UserDAO;
 import demo.bigwork.model.enums.UserRole;
 import demo.bigwork.model.po.CategoryPO;
 import demo.bigwork.model.po.ProductPO;
+import demo.bigwork.model.po.ProductRatingStatsPO;
 import demo.bigwork.model.po.UserPO;
+import demo.bigwork.model.vo.ProductPageVO;
 import demo.bigwork.model.vo.ProductRequestVO;
+import demo.bigwork.model.vo.ProductResponseVO;
+import demo.bigwork.model.vo.ProductSearchResultVO;
+import demo.bigwork.model.vo.ProductSuggestionVO;
+import demo.bigwork.search.ProductSearchIndex;
+import demo.bigwork.search.ProductSuggestionIndex;
 import demo.bigwork.service.AuthHelperService;
 import demo.bigwork.service.CategoryService;
 import demo.bigwork.service.FileStorageService;
 import demo.bigwork.service.ProductService;
+import demo.bigwork.util.ProductCursor;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -39,19 +52,28 @@ public class ProductServiceImpl implements ProductService {
     private final FileStorageService fileStorageService; // (關鍵) 注入檔案服務
     private final AuthHelperService authHelperService;
     private final CategoryService categoryService;
+    private final ProductSearchIndex productSearchIndex; // (搜尋) 全文索引
+    private final ProductSuggestionIndex productSuggestionIndex; // (搜尋) 自動完成
+    private final ProductRatingStatsDAO productRatingStatsDAO; // (評價彙總)
 
     // (關鍵) 更新建構子
     @Autowired
     public ProductServiceImpl(ProductDAO productDAO, CategoryDAO categoryDAO, UserDAO userDAO,
                               FileStorageService fileStorageService,
                               AuthHelperService authHelperService,
-                              CategoryService categoryService) { // <-- 新增
+                              CategoryService categoryService,
+                              ProductSearchIndex productSearchIndex,
+                              ProductSuggestionIndex productSuggestionIndex,
+                              ProductRatingStatsDAO productRatingStatsDAO) { // <-- 新增
         this.productDAO = productDAO;
         this.categoryDAO = categoryDAO;
         this.userDAO = userDAO;
         this.fileStorageService = fileStorageService; // <-- 新增
         this.authHelperService = authHelperService;
         this.categoryService = categoryService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestionIndex = productSuggestionIndex;
+        this.productRatingStatsDAO = productRatingStatsDAO;
     }
 
     /**
@@ -83,7 +105,15 @@ public class ProductServiceImpl implements ProductService {
         
         // 5. (儲存) 呼叫 DAO
         logger.info("賣家 '{}' 正在新增商品: {}", seller.getEmail(), newProduct.getName());
-        return productDAO.save(newProduct);
+        ProductPO savedProduct = productDAO.saveAndFlush(newProduct);
+
+        // (分類列表) 同一個交易寫入商品對「分類 + 所有祖先分類」的列
+        productDAO.insertCategoryPaths(savedProduct.getProductId());
+
+        // 6. (搜尋) 交易提交後才放入全文索引
+        productSearchIndex.indexAfterCommit(savedProduct.getProductId(),
+                savedProduct.getName(), savedProduct.getDescription());
+        return savedProduct;
     }
     
     @Override
@@ -140,7 +170,15 @@ public class ProductServiceImpl implements ProductService {
         // (關鍵) 因為 productToUpdate 是從 JPA 查出來的 (Attached 狀態)，
         // 呼叫 save() 會自動執行「UPDATE」SQL
         logger.info("賣家 {} 正在更新商品 (ID: {})", seller.getEmail(), productId);
-        return productDAO.save(productToUpdate);
+        ProductPO savedProduct = productDAO.saveAndFlush(productToUpdate);
+
+        // (分類列表) 分類可能改變：重寫這個商品的祖先分類列
+        productDAO.deleteCategoryPaths(productId);
+        productDAO.insertCategoryPaths(productId);
+
+        // 7. (搜尋) 交易提交後才更新全文索引
+        productSearchIndex.indexAfterCommit(productId, savedProduct.getName(), savedProduct.getDescription());
+        return savedProduct;
     }
     
     @Override
@@ -169,6 +207,9 @@ public class ProductServiceImpl implements ProductService {
         
         // (或者) productDAO.deleteById(productId); 
         // 兩者皆可，但前者更明確
+
+        // 5. (搜尋) 交易提交後才從全文索引移除
+        productSearchIndex.removeAfterCommit(productId);
         
         logger.info("賣家 {} 已成功刪除商品 (ID: {})", seller.getEmail(), productId);
     }
@@ -216,17 +257,23 @@ public class ProductServiceImpl implements ProductService {
     }
     
     /**
-     * (新) 實作：(公開) 取得所有商品列表
+     * (新) 實作：(公開) 取得商品列表 (游標分頁，最新的商品排在最前面)
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ProductPO> getAllPublicProducts() {
-        logger.info("正在查詢「所有」公開商品列表...");
-        
-        // (效能) 
-        // 我們不只是 findAll()，我們還指定「排序」
-        // 讓最新的商品 (created_at 欄位) 排在最前面
-        return productDAO.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+    public ProductPageVO getAllPublicProducts(String cursor, int size) {
+        logger.info("正在查詢公開商品列表 (cursor: {}, size: {})...", cursor, size);
+
+        // (效能) 多讀一筆：用來判斷「還有沒有下一頁」，不必另外 COUNT(*)
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ProductResponseVO> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = productDAO.findFirstPage(limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            products = productDAO.findPageAfter(after.getCreatedAt(), after.getProductId(), limit);
+        }
+        return toPage(products, size);
     }
 
     /**
@@ -234,28 +281,126 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     @Transactional(readOnly = true)
-    public ProductPO getPublicProductById(Long productId) throws EntityNotFoundException {
+    public ProductResponseVO getPublicProductById(Long productId) throws EntityNotFoundException {
         logger.info("正在查詢「公開」商品, ID: {}", productId);
         
-        return productDAO.findById(productId)
+        // (效能) 直接查出 VO：一句 SQL 帶出分類與賣家名稱
+        return productDAO.findResponseById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("找不到商品, ID: " + productId));
     }
     
     /**
      * (關鍵新增！)實作：(公開)透過Category ID取得商品
-     * 實作：(公開) 透過 Category ID 取得商品（包含子孫）
+     * 實作：(公開) 透過 Category ID 取得商品（包含子孫，游標分頁）
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ProductPO> getPublicProductsByCategory(Integer categoryId) {
-        
-        // 1. (新) 呼叫 CategoryService 來「遞迴 獲取 所有 ID」
-        List<Integer> allCategoryIds = categoryService.getAllChildCategoryIds(categoryId);
+    public ProductPageVO getPublicProductsByCategory(Integer categoryId, String cursor, int size) {
         
-        logger.info("正在查詢 「分類 ID 列表：{}」 的公開商品...",allCategoryIds);
-        
-        // 2. (新) 呼叫 ProductDAO 新增的 「 IN (...) 」 查詢 
-        return productDAO.findByCategory_CategoryIdIn(allCategoryIds);
+        // 1. 依祖先分類分頁：「自己 + 所有子孫」的商品都在 product_category_paths 的同一段主鍵範圍
+        //    (效能) 只讀索引、依索引順序取一頁 ID，不需要展開子孫分類，也不需要 filesort
+        logger.info("正在查詢 「分類 ID：{} (含子孫)」 的公開商品 (cursor: {})...", categoryId, cursor);
+        List<Long> productIds;
+        if (cursor == null || cursor.isBlank()) {
+            productIds = productDAO.findFirstPageIdsByAncestor(categoryId, size + 1);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            productIds = productDAO.findPageIdsAfterByAncestor(
+                    categoryId, after.getCreatedAt(), after.getProductId(), size + 1);
+        }
+
+        // 2. 一句 IN (...) 投影查詢取回這一頁的 VO，再依分頁順序排好
+        return toPage(findResponsesInOrder(productIds), size);
+    }
+
+    /**
+     * 實作：(公開) 商品全文搜尋
+     * 1. 記憶體內索引算出「這一頁」的商品 ID (依 BM25 分數排序)
+     * 2. 一句 IN (...) 投影查詢取回 VO，再依分數順序排好
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchResultVO searchPublicProducts(String query, int page, int size) {
+        ProductSearchIndex.SearchHits hits = productSearchIndex.search(query, page * size, size);
+        if (hits.productIds().isEmpty()) {
+            return new ProductSearchResultVO(List.of(), hits.total(), page, size);
+        }
+
+        List<ProductResponseVO> items = findResponsesInOrder(hits.productIds());
+        return new ProductSearchResultVO(items, hits.total(), page, size);
+    }
+
+    /**
+     * 實作：(公開) 搜尋框自動完成
+     * (效能) 只查記憶體中的前綴樹，不開交易、不碰資料庫
+     */
+    @Override
+    public List<ProductSuggestionVO> suggestPublicProducts(String prefix, int limit) {
+        return productSuggestionIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * (私有輔助方法) 把「多讀一筆」的查詢結果轉成一頁
+     * 有第 size + 1 筆 -> 還有下一頁，游標指向本頁最後一筆
+     */
+    /**
+     * 實作：(賣家 API) PO -> VO，帶入評價彙總
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseVO> toResponseVOs(List<ProductPO> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<Long> productIds = products.stream().map(ProductPO::getProductId).toList();
+        Map<Long, ProductRatingStatsPO> statsById = new HashMap<>();
+        for (ProductRatingStatsPO stats : productRatingStatsDAO.findAllById(productIds)) {
+            statsById.put(stats.getProductId(), stats);
+        }
+        List<ProductResponseVO> items = new ArrayList<>(products.size());
+        for (ProductPO product : products) {
+            items.add(new ProductResponseVO(product, statsById.get(product.getProductId())));
+        }
+        return items;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponseVO toResponseVO(ProductPO product) {
+        return toResponseVOs(List.of(product)).get(0);
+    }
+
+    /**
+     * 依 productIds 的順序取回 VO (剛好在這之間被刪除的商品就略過)
+     */
+    private List<ProductResponseVO> findResponsesInOrder(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponseVO> byId = new HashMap<>();
+        for (ProductResponseVO vo : productDAO.findResponsesByIds(productIds)) {
+            byId.put(vo.getProductId(), vo);
+        }
+        List<ProductResponseVO> items = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            ProductResponseVO vo = byId.get(productId);
+            if (vo != null) {
+                items.add(vo);
+            }
+        }
+        return items;
+    }
+
+    private ProductPageVO toPage(List<ProductResponseVO> products, int size) {
+        boolean hasNext = products.size() > size;
+        List<ProductResponseVO> page = hasNext ? new ArrayList<>(products.subList(0, size)) : products;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductResponseVO last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(last.getCreatedAt(), last.getProductId()).encode();
+        }
+        return new ProductPageVO(page, nextCursor);
     }
     
 }
\ No newline at end of file
@@ -1,25 +1,36 @@
 package demo.bigwork.service.Impl;
 
 import demo.bigwork.dao.OrderItemDAO;
+import demo.bigwork.dao.OrderSummaryDAO;
+import demo.bigwork.dao.ProductDAO;
 import demo.bigwork.dao.ProductRatingDAO;
+import demo.bigwork.dao.ProductRatingStatsDAO;
+import demo.bigwork.model.enums.RatingSort;
 import demo.bigwork.model.po.OrderItemPO;
 import demo.bigwork.model.po.ProductPO;
 import demo.bigwork.model.po.ProductRatingPO;
 import demo.bigwork.model.po.UserPO;
 import demo.bigwork.model.vo.CreateRatingRequestVO;
+import demo.bigwork.model.vo.ProductRatingSummaryVO;
+import demo.bigwork.model.vo.RatingPageVO;
 import demo.bigwork.model.vo.RatingResponseVO;
+import demo.bigwork.model.vo.SellerRatingSummaryVO;
 import demo.bigwork.model.vo.UpdateRatingRequestVO;
 import demo.bigwork.service.AuthHelperService;
 import demo.bigwork.service.RatingService;
+import demo.bigwork.util.RatingCursor;
 import jakarta.persistence.EntityNotFoundException;
 import org.hibernate.Hibernate; // (關鍵) 匯入 Hibernate
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -32,12 +43,20 @@ public class RatingServiceImpl implements RatingService {
     private final ProductRatingDAO productRatingDAO;
     private final OrderItemDAO orderItemDAO;
     private final AuthHelperService authHelperService;
+    private final ProductRatingStatsDAO productRatingStatsDAO; // (評價彙總)
+    private final ProductDAO productDAO; // (賣家：驗證商品所有權)
+    private final OrderSummaryDAO orderSummaryDAO; // (訂單列表的「已評價」筆數)
 
     @Autowired
-    public RatingServiceImpl(ProductRatingDAO productRatingDAO, OrderItemDAO orderItemDAO, AuthHelperService authHelperService) {
+    public RatingServiceImpl(ProductRatingDAO productRatingDAO, OrderItemDAO orderItemDAO, AuthHelperService authHelperService,
+                             ProductRatingStatsDAO productRatingStatsDAO, ProductDAO productDAO,
+                             OrderSummaryDAO orderSummaryDAO) {
         this.productRatingDAO = productRatingDAO;
         this.orderItemDAO = orderItemDAO;
         this.authHelperService = authHelperService;
+        this.productRatingStatsDAO = productRatingStatsDAO;
+        this.productDAO = productDAO;
+        this.orderSummaryDAO = orderSummaryDAO;
     }
 
     /**
@@ -98,6 +117,10 @@ public class RatingServiceImpl implements RatingService {
         ProductRatingPO savedRating = productRatingDAO.save(newRating);
         logger.info("買家 {} 評價成功 (Rating ID: {})", buyer.getEmail(), savedRating.getRatingId());
 
+        // 7-1. (評價彙總) 同一個交易中更新該商品的評價數與星等分布
+        productRatingStatsDAO.addRating(product.getProductId(), savedRating.getRatingStars());
+        orderSummaryDAO.adjustRatedItemCount(orderItem.getOrderItemId(), 1);
+
         // 8. (安全) 回傳 VO
         // (因為 buyer 和 product 都已在「交易」中載入，
         //  VO 建構子可以安全地存取它們)
@@ -105,25 +128,39 @@ public class RatingServiceImpl implements RatingService {
     }
 
     /**
-     * (公開查詢) 取得「某個商品」的所有評價
+     * (公開查詢) 取得「某個商品」的評價 (游標分頁)
+     * (效能) 一頁 = 一句 SQL：JPQL 投影直接帶出買家名稱，不再逐筆初始化 buyer
      */
     @Override
     @Transactional(readOnly = true)
-    public List<RatingResponseVO> getRatingsForProduct(Long productId) {
-        logger.info("正在查詢商品 {} 的所有評價...", productId);
-        List<ProductRatingPO> ratings = productRatingDAO.findByProduct_ProductId(productId);
-        
-        // (S關鍵) 
-        // 迴圈「手動初始化」所有評價的 LAZY buyer
-        // (product 我們不需要，因為 VO 建構子只會用到 ratingPO.getProduct().getProductId())
-        for (ProductRatingPO rating : ratings) {
-            Hibernate.initialize(rating.getBuyer());
+    public RatingPageVO getRatingsForProduct(Long productId, String cursor, int size, RatingSort sort) {
+        logger.info("正在查詢商品 {} 的評價 (sort: {}, cursor: {})...", productId, sort, cursor);
+
+        // (多讀一筆) 用來判斷是否還有下一頁
+        Pageable limit = PageRequest.of(0, size + 1);
+        RatingCursor after = (cursor == null || cursor.isBlank()) ? null : RatingCursor.decode(cursor);
+        List<RatingResponseVO> ratings;
+        if (sort == RatingSort.STARS) {
+            ratings = after == null
+                    ? productRatingDAO.findStarsFirstPage(productId, limit)
+                    : productRatingDAO.findStarsPageAfter(productId, after.getRatingStars(),
+                            after.getCreatedAt(), after.getRatingId(), limit);
+        } else {
+            ratings = after == null
+                    ? productRatingDAO.findNewestFirstPage(productId, limit)
+                    : productRatingDAO.findNewestPageAfter(productId,
+                            after.getCreatedAt(), after.getRatingId(), limit);
         }
-        
-        // (安全轉換)
-        return ratings.stream()
-                .map(RatingResponseVO::new)
-                .collect(Collectors.toList());
+
+        // 有第 size + 1 筆 -> 還有下一頁，游標指向本頁最後一筆
+        boolean hasNext = ratings.size() > size;
+        List<RatingResponseVO> page = hasNext ? new ArrayList<>(ratings.subList(0, size)) : ratings;
+        String nextCursor = null;
+        if (hasNext) {
+            RatingResponseVO last = page.get(page.size() - 1);
+            nextCursor = new RatingCursor(last.getRatingStars(), last.getCreatedAt(), last.getRatingId()).encode();
+        }
+        return new RatingPageVO(page, nextCursor);
     }
 
     /**
@@ -173,6 +210,7 @@ public class RatingServiceImpl implements RatingService {
         logger.debug("評價：所有權驗證通過");
 
         // 4. (執行) 更新欄位
+        int oldStars = rating.getRatingStars();
         rating.setRatingStars(requestVO.getRatingStars());
         rating.setComment(requestVO.getComment());
         
@@ -180,6 +218,9 @@ public class RatingServiceImpl implements RatingService {
         ProductRatingPO savedRating = productRatingDAO.save(rating);
         logger.info("買家 {} 評價更新成功 (ID: {})", buyer.getEmail(), savedRating.getRatingId());
 
+        // 5-1. (評價彙總) 星等有變才需要調整 (舊星等 - 1、新星等 + 1)
+        productRatingStatsDAO.changeRating(rating.getProduct().getProductId(), oldStars, savedRating.getRatingStars());
+
         // 6. (安全) 回傳 VO
         // (VO 建構子需要 Product，我們手動初始化它)
         Hibernate.initialize(savedRating.getProduct()); 
@@ -210,37 +251,86 @@ public class RatingServiceImpl implements RatingService {
 
         // 4. (執行) 刪除
         productRatingDAO.delete(rating);
+
+        // 5. (評價彙總) 同一個交易中扣回
+        // (getProductId() 直接取自代理物件，不會觸發查詢)
+        productRatingStatsDAO.removeRating(rating.getProduct().getProductId(), rating.getRatingStars());
+        orderSummaryDAO.adjustRatedItemCount(rating.getOrderItem().getOrderItemId(), -1);
         logger.info("買家 {} 評價刪除成功 (ID: {})", buyer.getEmail(), ratingId);
     }
     
     /**
-     * (新) 實作：賣家查詢「所有」S收到的評價
+     * 實作：賣家評價總覽
+     * (效能) 兩句 SQL：全店合計 (SUM 彙總表) + 一頁商品 (LEFT JOIN 彙總表)，
+     *        不再載入全部評價、也不再逐筆初始化 buyer / product
      */
     @Override
     @Transactional(readOnly = true)
-    public List<RatingResponseVO> getRatingsForMyProducts() 
+    public SellerRatingSummaryVO getRatingSummaryForMyProducts(Long afterProductId, int size)
             throws AccessDeniedException {
-        
+
         // 1. (安全) 驗證「角色」
         UserPO seller = authHelperService.getCurrentAuthenticatedSeller();
-        logger.info("賣家 {} 正在查詢S收到的所有評價", seller.getEmail());
+        logger.info("賣家 {} 正在查詢評價總覽 (afterProductId: {})", seller.getEmail(), afterProductId);
 
-        // 2. (查詢) 呼叫我們在 DAO 建立的高效能方法
-        List<ProductRatingPO> ratings = productRatingDAO
-                .findByProduct_Seller_UserId(seller.getUserId());
-        
-        // 3. (S關鍵 - 安全) 
-        // 迴圈「手動初始化」所有評價的 LAZY 欄位
-        // (VO 建構子需要 buyer 和 product)
-        for (ProductRatingPO rating : ratings) {
-            Hibernate.initialize(rating.getBuyer());
-            Hibernate.initialize(rating.getProduct());
+        // 2. 全店合計 (沒有任何評價時 SUM 為 null)
+        Object[] totals = productRatingStatsDAO.sumBySeller(seller.getUserId()).get(0);
+        int totalCount = toInt(totals[0]);
+        Double averageRating = totalCount > 0
+                ? Math.round(((Number) totals[1]).longValue() * 100.0 / totalCount) / 100.0
+                : null;
+        int[] histogram = new int[5];
+        for (int i = 0; i < 5; i++) {
+            histogram[i] = toInt(totals[i + 2]);
         }
-        
-        // 4. (安全轉換)
-        logger.info("賣家 {} 共查詢到 {} 筆評價", seller.getEmail(), ratings.size());
-        return ratings.stream()
-                .map(RatingResponseVO::new)
-                .collect(Collectors.toList());
+
+        // 3. 一頁商品 (多讀一筆判斷是否還有下一頁)
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ProductRatingSummaryVO> products = afterProductId == null
+                ? productRatingStatsDAO.findSellerSummaryFirstPage(seller.getUserId(), limit)
+                : productRatingStatsDAO.findSellerSummaryPageAfter(seller.getUserId(), afterProductId, limit);
+        boolean hasNext = products.size() > size;
+        List<ProductRatingSummaryVO> page = hasNext ? new ArrayList<>(products.subList(0, size)) : products;
+        Long nextAfterProductId = hasNext ? page.get(page.size() - 1).getProductId() : null;
+
+        return new SellerRatingSummaryVO(totalCount, averageRating, histogram, page, nextAfterProductId);
+    }
+
+    /**
+     * 實作：賣家展開某個商品的評價 (先驗證所有權，再沿用公開查詢的游標分頁)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RatingPageVO getRatingsForMyProduct(Long productId, String cursor, int size, RatingSort sort)
+            throws AccessDeniedException {
+
+        // 1. (安全) 驗證「角色」
+        UserPO seller = authHelperService.getCurrentAuthenticatedSeller();
+
+        // 2. (安全 - 關鍵) 驗證「所有權」
+        if (!productDAO.existsByProductIdAndSeller_UserId(productId, seller.getUserId())) {
+            logger.warn("權限不足：賣家 {} 試圖查看「不屬於」他的商品評價 (ID: {})", seller.getEmail(), productId);
+            throw new AccessDeniedException("您沒有權限查看此商品的評價");
+        }
+
+        // 3. 與公開頁面相同的分頁查詢
+        return getRatingsForProduct(productId, cursor, size, sort);
+    }
+
+    // (SUM 回傳 Long，沒有資料時為 null)
+    private static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    /**
+     * 實作：(回填) 重新計算 (afterId, upToId] 區間內商品的評價彙總
+     * (兩句 SQL 在同一個交易：有評價的覆蓋、已沒有評價的歸零)
+     */
+    @Override
+    @Transactional
+    public int recomputeRatingStats(Long afterId, Long upToId) {
+        int updated = productRatingStatsDAO.recomputeRange(afterId, upToId);
+        productRatingStatsDAO.resetRangeWithoutRatings(afterId, upToId);
+        return updated;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.model.vo.AdminReportVO;
+import demo.bigwork.model.vo.ReportCacheMetricsVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (快取) 營運報表，以 (startDate, endDate) 為 key
+ *
+ * - 已結算的區間 (結束日早於排程仍會重算的最近幾天)：結果不會再變，永久保留
+ * - 尚未結算的區間 (本週 / 本季)：短暫 TTL；有新的完成訂單時立即失效 (版本號 + 1，交易提交後)
+ * - 每日彙總被重算 / 回填時，讓涵蓋那幾天的報表失效
+ * - 有查詢逾時的「部分結果」不放進快取
+ * (注意) 回傳的是快取中的同一個 VO，呼叫端只能讀取
+ */
+@Component
+class ReportCache {
+
+    // 排程每小時重算最近 3 天的彙總 (DailySalesRollupJob)；結束日比這更早的區間才視為已結算
+    static final int CLOSED_AFTER_DAYS = 3;
+
+    // (防呆) 報表期間只有本期 / 上期幾種，超過上限代表異常使用，直接清空
+    private static final int MAX_ENTRIES = 256;
+
+    private record Key(LocalDate startDate, LocalDate endDate) {
+    }
+
+    // generation：開始計算時的版本號；expiresAt：System.nanoTime() 基準，已結算區間為 Long.MAX_VALUE
+    private record Entry(AdminReportVO report, long generation, long expiresAt) {
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong openGeneration = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final long openTtlNanos;
+
+    @Autowired
+    ReportCache(@Value("${report.cache.open-ttl-ms:60000}") long openTtlMs) {
+        this.openTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, openTtlMs));
+    }
+
+    /**
+     * 開始計算報表「之前」先取版本號，放入快取時一併帶回
+     * (計算期間若有新訂單，版本號已不同，這份報表不會被當成有效快取)
+     */
+    long currentGeneration() {
+        return openGeneration.get();
+    }
+
+    /**
+     * @return 快取中仍有效的報表；沒有時為 null (計入 miss)
+     */
+    AdminReportVO get(LocalDate startDate, LocalDate endDate) {
+        Entry entry = entries.get(new Key(startDate, endDate));
+        if (entry != null && isValid(entry)) {
+            hitCount.incrementAndGet();
+            return entry.report();
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    void put(AdminReportVO report, long generation) {
+        if (report.isPartial()) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        long expiresAt = isClosed(report.getEndDate()) ? Long.MAX_VALUE : System.nanoTime() + openTtlNanos;
+        Key key = new Key(report.getStartDate(), report.getEndDate());
+        Entry entry = new Entry(report, generation, expiresAt);
+        entries.put(key, entry);
+        // 計算期間有新訂單 / 彙總重算：這份報表可能是舊資料，不保留
+        if (openGeneration.get() != generation) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * (新訂單) 交易提交後，讓所有未結算區間的報表失效
+     */
+    void invalidateOpenPeriodsAfterCommit() {
+        afterCommit(() -> {
+            openGeneration.incrementAndGet();
+            entries.values().removeIf(entry -> entry.expiresAt() != Long.MAX_VALUE);
+        });
+    }
+
+    /**
+     * (彙總重算) 交易提交後，讓涵蓋 [fromDate, toExclusiveDate) 任何一天的報表失效
+     */
+    void invalidateRangeAfterCommit(LocalDate fromDate, LocalDate toExclusiveDate) {
+        afterCommit(() -> {
+            openGeneration.incrementAndGet();
+            entries.keySet().removeIf(key ->
+                    key.startDate().isBefore(toExclusiveDate) && !key.endDate().isBefore(fromDate));
+        });
+    }
+
+    ReportCacheMetricsVO getMetrics() {
+        ReportCacheMetricsVO vo = new ReportCacheMetricsVO();
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        vo.setHitCount(hits);
+        vo.setMissCount(misses);
+        vo.setHitRate(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        long closed = entries.values().stream().filter(entry -> entry.expiresAt() == Long.MAX_VALUE).count();
+        vo.setClosedEntryCount(closed);
+        vo.setOpenEntryCount(entries.size() - closed);
+        return vo;
+    }
+
+    private boolean isClosed(LocalDate endDate) {
+        return endDate.isBefore(LocalDate.now().minusDays(CLOSED_AFTER_DAYS - 1));
+    }
+
+    private boolean isValid(Entry entry) {
+        if (entry.expiresAt() == Long.MAX_VALUE) {
+            return true;
+        }
+        return entry.generation() == openGeneration.get() && System.nanoTime() - entry.expiresAt() < 0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package demo.bigwork.service.Impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * (營運報表) 把報表的各項查詢「同時」送出，每項查詢一條 virtual thread、一個唯讀交易
+ *
+ * - 同一份報表 (或本期 + 上期) 的查詢共用一個截止時間 (deadline)：
+ *   逾時或失敗的查詢回傳 null，由呼叫端以「部分結果」回應，不會拖住整個請求
+ * - 交易逾時 = 剩餘時間 (無條件進位到秒)，逾時的 SQL 由 JDBC 取消，連線不會被長時間佔住
+ * - (防呆) 同時執行的報表查詢數最多為連線池的 1/3，避免儀表板吃光連線池、影響結帳等交易
+ */
+@Component
+class ReportQueryRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportQueryRunner.class);
+
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    @Autowired
+    ReportQueryRunner(PlatformTransactionManager transactionManager,
+                      @Value("${report.query.timeout-ms:5000}") long timeoutMillis,
+                      @Value("${report.query.max-concurrency:0}") int maxConcurrency,
+                      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.transactionManager = transactionManager;
+        // (關鍵) 最多佔用連線池的 1/3 (未設定 / 設定過大時以此為準)，其餘留給結帳、付款通知與排程
+        int poolShare = Math.max(1, poolSize / 3);
+        this.permits = new Semaphore(maxConcurrency > 0 ? Math.min(maxConcurrency, poolShare) : poolShare);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMillis));
+    }
+
+    /**
+     * 一份報表的截止時間 (System.nanoTime() 基準)
+     */
+    long newDeadline() {
+        return System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * 在 virtual thread 上以唯讀交易執行查詢
+     */
+    <T> Future<T> submit(long deadline, Supplier<T> query) {
+        return executor.submit(() -> {
+            if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("等待報表查詢名額逾時");
+            }
+            try {
+                long remainingSeconds = TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime() + 999_999_999L);
+                TransactionTemplate tx = new TransactionTemplate(transactionManager);
+                tx.setReadOnly(true);
+                tx.setTimeout((int) Math.max(1, remainingSeconds));
+                return tx.execute(status -> query.get());
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * 等待查詢結果直到截止時間
+     *
+     * @return 查詢結果；逾時或失敗時為 null (已記錄 log)
+     */
+    <T> T await(Future<T> future, long deadline, String section) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            logger.warn("報表查詢逾時，回傳部分結果：{}", section);
+        } catch (ExecutionException e) {
+            logger.warn("報表查詢失敗，回傳部分結果：{} ({})", section, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+        }
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
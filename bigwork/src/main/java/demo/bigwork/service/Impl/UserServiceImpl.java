@@ -3,6 +3,7 @@ package demo.bigwork.service.Impl;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
 
@@ -16,6 +17,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import demo.bigwork.dao.OrderSummaryDAO;
 import demo.bigwork.dao.PasswordResetTokenDAO;
 import demo.bigwork.dao.UserDAO;
 import demo.bigwork.dao.WalletDAO;
@@ -42,6 +44,7 @@ public class UserServiceImpl implements UserService {
     private final PasswordResetTokenDAO tokenDAO;
     private final WalletDAO walletDAO; 
     private final AuthHelperService authHelperService;
+    private final OrderSummaryDAO orderSummaryDAO; // (訂單列表讀取模型中的買家 / 賣家名稱)
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     // (關鍵新增！)注入application.properties 中的「前端網址」
     @Value("${frontend.reset-password-url}")
@@ -52,7 +55,8 @@ public class UserServiceImpl implements UserService {
     public UserServiceImpl(UserDAO userDAO, PasswordEncoder passwordEncoder, 
                            EmailService emailService, VerificationCodeService codeService,
                            PasswordResetTokenDAO tokenDAO, WalletDAO walletDAO,
-                           AuthHelperService authHelperService) { // <-- 新增
+                           AuthHelperService authHelperService, // <-- 新增
+                           OrderSummaryDAO orderSummaryDAO) {
         this.userDAO = userDAO;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
@@ -60,6 +64,7 @@ public class UserServiceImpl implements UserService {
         this.tokenDAO = tokenDAO;
         this.walletDAO = walletDAO;
         this.authHelperService = authHelperService; // <-- 新增
+        this.orderSummaryDAO = orderSummaryDAO;
     }
 
     // (重構) 我們將 register 邏輯抽出來共用
@@ -281,6 +286,7 @@ public class UserServiceImpl implements UserService {
         
         // 2. (業務) 從 VO 更新 PO 的資料
         // (注意：我們「不」更新 email, password, role)
+        boolean renamed = !Objects.equals(requestVO.getName(), userToUpdate.getName());
         userToUpdate.setName(requestVO.getName());
         userToUpdate.setPhone(requestVO.getPhone());
         userToUpdate.setDefaultAddress(requestVO.getAddress());
@@ -288,6 +294,13 @@ public class UserServiceImpl implements UserService {
         // 3. (儲存) 
         // 呼叫 save() 執行 UPDATE SQL
         logger.info("使用者 {} 正在更新個人資料", userToUpdate.getEmail());
-        return userDAO.save(userToUpdate);
+        UserPO savedUser = userDAO.save(userToUpdate);
+
+        // 4. (讀取模型) 名稱有變才同步訂單摘要 (同一個交易)
+        if (renamed) {
+            orderSummaryDAO.renameBuyer(savedUser.getUserId(), savedUser.getName());
+            orderSummaryDAO.renameSeller(savedUser.getUserId(), savedUser.getName());
+        }
+        return savedUser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.dao.WalletDAO;
+import demo.bigwork.dao.WalletTransactionDAO;
+import demo.bigwork.model.po.WalletTransactionPO;
+import demo.bigwork.service.WalletLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class WalletLedgerServiceImpl implements WalletLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletLedgerServiceImpl.class);
+
+    private final WalletDAO walletDAO;
+    private final WalletTransactionDAO walletTransactionDAO;
+
+    @Autowired
+    public WalletLedgerServiceImpl(WalletDAO walletDAO, WalletTransactionDAO walletTransactionDAO) {
+        this.walletDAO = walletDAO;
+        this.walletTransactionDAO = walletTransactionDAO;
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal settlePendingCredits(Long userId) {
+        // 1. 讀取並鎖定待入帳紀錄 (SKIP LOCKED：別的入帳程序正在處理的紀錄直接略過，視為「已入帳」)
+        // 只鎖交易紀錄、不鎖錢包；結帳可以繼續寫入新的紀錄
+        List<WalletTransactionPO> pending = walletTransactionDAO.findPendingByUserId(userId);
+        if (pending.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        List<Long> txIds = pending.stream()
+                .map(WalletTransactionPO::getTxId)
+                .collect(Collectors.toList());
+        BigDecimal total = pending.stream()
+                .map(WalletTransactionPO::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // 2. (關鍵) 標記為已入帳 (這些紀錄已被本交易鎖定，不會被其他程序重複入帳)
+        walletTransactionDAO.markSettled(txIds);
+
+        // 3. 一句 UPDATE 把總額加回錢包
+        walletDAO.addToBalanceByUserId(userId, total);
+
+        logger.debug("使用者 {} 入帳 {} 筆收款，共 {} 元", userId, txIds.size(), total);
+        return total;
+    }
+}
@@ -9,6 +9,7 @@ import demo.bigwork.model.po.UserPO;
 import demo.bigwork.model.po.WalletPO;
 import demo.bigwork.model.po.WalletTransactionPO;
 import demo.bigwork.service.AuthHelperService;
+import demo.bigwork.service.WalletLedgerService;
 import demo.bigwork.service.WalletService;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -29,15 +30,18 @@ public class WalletServiceImpl implements WalletService {
 	private final AuthHelperService authHelperService;
 	private final WalletTransactionDAO walletTransactionDAO;
 	private final BankAccountDAO bankAccountDAO;
+	private final WalletLedgerService walletLedgerService;
 
 	@Autowired
     public WalletServiceImpl(WalletDAO walletDAO, AuthHelperService authHelperService,
                              WalletTransactionDAO walletTransactionDAO, 
-                             BankAccountDAO bankAccountDAO) { // <-- 新增
+                             BankAccountDAO bankAccountDAO,
+                             WalletLedgerService walletLedgerService) { // <-- 新增
         this.walletDAO = walletDAO;
         this.authHelperService = authHelperService;
         this.walletTransactionDAO = walletTransactionDAO;
         this.bankAccountDAO = bankAccountDAO; // <-- 新增
+        this.walletLedgerService = walletLedgerService;
     }
 
 	/**
@@ -53,49 +57,73 @@ public class WalletServiceImpl implements WalletService {
 	}
 
 	@Override
-	@Transactional(readOnly = true) // 查詢
+	@Transactional // (注意) 不是 readOnly：查詢前會先把「待入帳」的收款併入餘額
 	public WalletPO getMyWallet() throws EntityNotFoundException {
-		logger.info("正在查詢 {} 的錢包", authHelperService.getCurrentAuthenticatedUser().getEmail());
+		UserPO currentUser = authHelperService.getCurrentAuthenticatedUser();
+		logger.info("正在查詢 {} 的錢包", currentUser.getEmail());
+
+		// (關鍵) 必須在「讀取錢包之前」入帳，讀到的 balance 才是最新的
+		walletLedgerService.settlePendingCredits(currentUser.getUserId());
 		return getWalletForCurrentUser();
 	}
 
+	/**
+	 * (私有輔助方法) 只查詢錢包主鍵 (不載入整個錢包實體)
+	 */
+	private Long getWalletIdForUser(UserPO user) throws EntityNotFoundException {
+		return walletDAO.findWalletIdByUserId(user.getUserId())
+				.orElseThrow(() -> new EntityNotFoundException("找不到使用者的錢包: " + user.getEmail()));
+	}
+
+	/**
+	 * (私有輔助方法) 寫入交易紀錄，並組出回傳給 Controller 的錢包
+	 *
+	 * (關鍵) 交易紀錄只需要 wallet_id，用 getReferenceById 取得代理物件，不會多一次 SELECT
+	 * 回傳的 WalletPO 是「不受 JPA 管理」的結果 (只帶 walletId / user / 新餘額)，
+	 * 修改它不會再觸發 UPDATE wallets
+	 */
+	private WalletPO recordTransaction(UserPO user, Long walletId, TransactionType type,
+	                                   BigDecimal amount, BigDecimal newBalance) {
+		WalletTransactionPO transaction = new WalletTransactionPO(
+				walletDAO.getReferenceById(walletId), type, amount);
+		walletTransactionDAO.save(transaction);
+
+		WalletPO result = new WalletPO(user, newBalance);
+		result.setWalletId(walletId);
+		return result;
+	}
+
 	/**
      * (關鍵 - 修改)
      * 我們將在這個方法中「同時」更新餘額並「新增」交易紀錄
      *
      * @Transactional 標籤會確保這「兩次」資料庫寫入
      * 要嘛同時成功、要嘛同時失敗
+     *
+     * (並發) 加值直接用一句 UPDATE 在資料庫完成 (balance = balance + ?)，
+     * 不會有兩個請求同時讀到舊餘額、互相覆蓋的問題
      */
     @Override
     @Transactional // (這個標籤至關重要)
     public WalletPO topUpMyWallet(BigDecimal amount) throws EntityNotFoundException {
-        // 1.取得錢包
-        WalletPO wallet = getWalletForCurrentUser();
-        
-        // 2.執行加值
-        BigDecimal newBalance = wallet.getBalance().add(amount);
-        wallet.setBalance(newBalance);
-        
-        // 3.儲存「錢包」的變更 (UPDATE wallets ...)
-        WalletPO savedWallet = walletDAO.save(wallet);
-        
-        // 4. (新) 建立「交易紀錄」
-        // (注意：amount 是正數，代表「入帳」)
-        WalletTransactionPO transaction = new WalletTransactionPO(
-                savedWallet,          // (關聯)
-                TransactionType.TOPUP, // (類型)
-                amount                 // (金額)
-        );
-        
-        // 5. (新) 儲存「交易紀錄」 (INSERT INTO wallet_transactions ...)
-        walletTransactionDAO.save(transaction);
-        
-        logger.info("使用者 {} 儲值 {} 成功，新餘額: {} (交易 ID: {})", 
-                wallet.getUser().getEmail(), amount, newBalance, transaction.getTxId());
-        
-        // 6. (不變) 回傳更新後的錢包
-        return savedWallet;
+        // 1. 取得登入者與錢包 ID
+        UserPO currentUser = authHelperService.getCurrentAuthenticatedUser();
+        Long walletId = getWalletIdForUser(currentUser);
+
+        // 2. 執行加值 (UPDATE wallets SET balance = balance + ? ...)
+        walletDAO.addToBalance(walletId, amount);
+
+        // 3. 讀回新餘額 (同一個交易，讀得到自己剛寫入的值)
+        BigDecimal newBalance = walletDAO.findBalanceByWalletId(walletId);
+
+        // 4. 建立「交易紀錄」 (注意：amount 是正數，代表「入帳」)
+        // (與上面的 UPDATE 在同一個交易，一起提交或一起回滾)
+        WalletPO wallet = recordTransaction(currentUser, walletId, TransactionType.TOPUP, amount, newBalance);
+
+        logger.info("使用者 {} 儲值 {} 成功，新餘額: {}", currentUser.getEmail(), amount, newBalance);
+        return wallet;
     }
+
     @Override
     @Transactional // (S極度重要) 提款必須是「交易」
     public WalletPO withdrawFromMyWallet(BigDecimal amount) throws Exception {
@@ -113,43 +141,28 @@ public class WalletServiceImpl implements WalletService {
             throw new Exception("提款失敗：請先至「賣家中心」設定您的收款銀行帳戶");
         }
 
-        // 3. (業務) 取得錢包
-        // (我們重用這個輔助方法，但因為上面已驗證過，這裡只是取資料)
-        WalletPO wallet = getWalletForCurrentUser();
-        
-        // 4. (關鍵 - "連接" 2) 驗證「餘額」
-        // (使用 .compareTo() 比較 BigDecimal)
-        // wallet.getBalance().compareTo(amount) < 0 
-        // 代表 balance < amount
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            logger.warn("提款失敗：賣家 {} 餘額不足 (餘額: {}, 提款: {})", 
-                        seller.getEmail(), wallet.getBalance(), amount);
+        // 3. (業務) 先把結帳時只寫入流水帳的收款併入餘額
+        // (提款只能動用「已入帳」的餘額，絕不會超提)
+        walletLedgerService.settlePendingCredits(seller.getUserId());
+        Long walletId = getWalletIdForUser(seller);
+
+        // 4. (關鍵 - "連接" 2) 驗證餘額 + 扣款，在「同一句 SQL」完成
+        // (UPDATE ... WHERE balance >= ?)：兩個提款同時進來，餘額也不會被扣成負數
+        if (walletDAO.deductFromBalanceIfSufficient(walletId, amount) == 0) {
+            logger.warn("提款失敗：賣家 {} 餘額不足 (餘額: {}, 提款: {})",
+                        seller.getEmail(), walletDAO.findBalanceByWalletId(walletId), amount);
             throw new Exception("提款失敗：餘額不足");
         }
 
-        // 5. (執行) 更新餘額 (使用 .subtract() )
-        BigDecimal newBalance = wallet.getBalance().subtract(amount);
-        wallet.setBalance(newBalance);
-        
-        // 6. (執行) 儲存「錢包」 (UPDATE wallets ...)
-        WalletPO savedWallet = walletDAO.save(wallet);
+        // 5. 讀回新餘額
+        BigDecimal newBalance = walletDAO.findBalanceByWalletId(walletId);
 
-        // 7. (執行) 建立「交易紀錄」
+        // 6. (執行) 建立「交易紀錄」
         // (關鍵) 提款 (出帳) 的 amount 必須是「負數」
         // 我們使用 amount.negate() 來取得負值
-        WalletTransactionPO transaction = new WalletTransactionPO(
-                savedWallet,
-                TransactionType.WITHDRAWAL, // (類型)
-                amount.negate()             // (金額：負數)
-        );
-        
-        // 8. (執行) 儲存「交易紀錄」 (INSERT ...)
-        walletTransactionDAO.save(transaction);
-        
-        logger.info("賣家 {} 提款 {} 成功，新餘額: {} (交易 ID: {})", 
-                seller.getEmail(), amount, newBalance, transaction.getTxId());
-        
-        // 9. (完成) 回傳更新後的錢包
-        return savedWallet;
+        WalletPO wallet = recordTransaction(seller, walletId, TransactionType.WITHDRAWAL, amount.negate(), newBalance);
+
+        logger.info("賣家 {} 提款 {} 成功，新餘額: {}", seller.getEmail(), amount, newBalance);
+        return wallet;
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package demo.bigwork.service;
 
+import demo.bigwork.model.vo.OrderPageVO;
 import demo.bigwork.model.vo.OrderResponseVO;
+import demo.bigwork.model.vo.OrderSummaryVO;
+import demo.bigwork.model.vo.PendingPaymentVO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.security.access.AccessDeniedException;
 
@@ -19,12 +22,12 @@ public interface OrderService {
 	List<OrderResponseVO> checkoutFromMyCart() throws AccessDeniedException, Exception;
 
 	/**
-	 * (查詢) 取得「我 (買家)」的所有訂單
+	 * (查詢) 取得「我 (買家)」的所有訂單 (摘要；明細請呼叫 getMyOrderDetails)
 	 *
 	 * @return
 	 * @throws AccessDeniedException (如果不是 BUYER)
 	 */
-	List<OrderResponseVO> getMyOrdersAsBuyer() throws AccessDeniedException;
+	List<OrderSummaryVO> getMyOrdersAsBuyer() throws AccessDeniedException;
 
 	/**
 	 * (查詢) 取得「我 (買家)」的「單筆」訂單詳情 (Service 內部必須驗證所有權)
@@ -36,17 +39,57 @@ public interface OrderService {
 	 */
 	OrderResponseVO getMyOrderDetails(Long orderId) throws AccessDeniedException, EntityNotFoundException;
 
-	List<OrderResponseVO> getMyOrdersAsSeller() throws AccessDeniedException;
+	List<OrderSummaryVO> getMyOrdersAsSeller() throws AccessDeniedException;
 
 	/**
-	 * (新) 處理綠界直接結帳 (Callback 觸發)
-	 * 邏輯：
-	 * 1. 找到買家購物車
-	 * 2. 驗證總金額是否正確
-	 * 3. 拆分訂單、扣庫存
-	 * 4. (關鍵) 賣家錢包入帳 (因為綠界代收了)
-	 * 5. (關鍵) 不扣買家錢包餘額 (因為是外部付款)
+	 * (查詢) 「我 (買家)」的訂單歷史 (游標分頁，最新優先)
+	 * (效能) 一頁 = 一句單表 SQL (order_summaries)，與明細筆數無關
+	 *
+	 * @param cursor 上一頁回傳的 nextCursor；第一頁傳 null
+	 * @param size   每頁筆數
+	 * @throws AccessDeniedException    (如果不是 BUYER)
+	 * @throws IllegalArgumentException 游標格式錯誤
+	 */
+	OrderPageVO getMyOrderHistoryAsBuyer(String cursor, int size) throws AccessDeniedException;
+
+	/**
+	 * (查詢) 「我 (賣家)」收到的訂單歷史 (游標分頁，最新優先)
+	 *
+	 * @throws AccessDeniedException    (如果不是 SELLER)
+	 * @throws IllegalArgumentException 游標格式錯誤
+	 */
+	OrderPageVO getMyOrderHistoryAsSeller(String cursor, int size) throws AccessDeniedException;
+
+	/**
+	 * (回填) 重新產生 orderId 區間 (afterId, upToId] 的 order_summaries (一個區間一個交易)
+	 * (由 OrderSummaryBackfillJob 平行呼叫)
+	 *
+	 * @return MySQL 的受影響列數 (新增一列計 1、覆蓋一列計 2)
+	 */
+	int rebuildOrderSummaries(Long afterId, Long upToId);
+
+	/**
+	 * (新) 綠界付款前：快照購物車、保留庫存，建立「待付款訂單」
+	 *
+	 * @return 送往綠界所需的資料 (MerchantTradeNo、金額、商品名稱)
+	 * @throws AccessDeniedException (如果不是 BUYER)
+	 * @throws Exception             (e.g., 購物車為空, 庫存不足)
+	 */
+	PendingPaymentVO createEcpayPendingPayment() throws AccessDeniedException, Exception;
+
+	/**
+	 * (新) 綠界付款成功：待付款訂單 PENDING -> PAID，並依快照建立訂單
+	 * 1. 重複的通知不會重複建單
+	 * 2. (關鍵) 賣家收款寫入流水帳 (因為綠界代收了)
+	 * 3. (關鍵) 不扣買家錢包餘額 (因為是外部付款)
+	 */
+	void confirmEcpayPayment(String tradeNo, BigDecimal amount) throws Exception;
+
+	/**
+	 * (排程) 釋放「已過期仍未付款」的待付款訂單，並歸還保留的庫存
+	 *
+	 * @return 本次釋放的筆數
 	 */
-	void processEcpayCheckout(Long userId, BigDecimal amount, String tradeNo) throws Exception;
+	int releaseExpiredPendingPayments(int batchSize);
 
 }
\ No newline at end of file
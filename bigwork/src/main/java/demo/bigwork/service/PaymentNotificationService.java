@@ -0,0 +1,34 @@
+package demo.bigwork.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * 綠界付款通知「收件匣」服務
+ *
+ * /notify 只呼叫 receive() 把通知寫入 payment_notifications 就回覆 1|OK，
+ * 真正的建單由 PaymentNotificationWorker 在背景呼叫 process() 完成。
+ */
+public interface PaymentNotificationService {
+
+    /**
+     * 收下一筆付款通知 (只做一次 INSERT)
+     *
+     * @return 新通知的 ID；同一個 MerchantTradeNo 已經收過時回傳 empty (綠界重送，直接忽略)
+     */
+    Optional<Long> receive(String merchantTradeNo, Long userId, BigDecimal tradeAmt, String payload);
+
+    /**
+     * 處理一筆通知 (建單)，每個 MerchantTradeNo 只會成功處理一次
+     *
+     * @return true = 本次完成建單；false = 已被其他執行緒處理過 (或還沒到重試時間)
+     * @throws Exception 建單失敗 (整筆交易回滾，通知維持 PENDING)
+     */
+    boolean process(Long notificationId) throws Exception;
+
+    /**
+     * 記錄一次處理失敗：下次重試時間依失敗次數指數退避；
+     * 失敗次數達上限時標記為 FAILED，不再自動重試
+     */
+    void recordFailure(Long notificationId, String error);
+}
@@ -1,7 +1,11 @@
 package demo.bigwork.service;
 
 import demo.bigwork.model.po.ProductPO;
+import demo.bigwork.model.vo.ProductPageVO;
 import demo.bigwork.model.vo.ProductRequestVO;
+import demo.bigwork.model.vo.ProductResponseVO;
+import demo.bigwork.model.vo.ProductSearchResultVO;
+import demo.bigwork.model.vo.ProductSuggestionVO;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.security.access.AccessDeniedException;
@@ -46,20 +50,51 @@ public interface ProductService {
             throws AccessDeniedException, EntityNotFoundException;
     ProductPO updateProductImage(Long productId, MultipartFile file)
             throws AccessDeniedException, EntityNotFoundException, Exception;
+
     /**
-     * (新) 業務邏輯：(公開) 取得所有商品列表
+     * (賣家 API) 把商品 PO 轉成回傳用的 VO，並帶入評價彙總 (與公開 API 相同：沒有評價時 ratingCount = 0)
+     * (效能) 整批商品只查一次 product_rating_stats (主鍵)
      */
-    List<ProductPO> getAllPublicProducts();
+    List<ProductResponseVO> toResponseVOs(List<ProductPO> products);
+
+    ProductResponseVO toResponseVO(ProductPO product);
+    /**
+     * (新) 業務邏輯：(公開) 取得商品列表 (游標分頁)
+     *
+     * @param cursor 上一頁回傳的 nextCursor；第一頁傳 null
+     * @param size   每頁筆數
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    ProductPageVO getAllPublicProducts(String cursor, int size);
 
     /**
      * (新) 業務邏輯：(公開) 透過 ID 取得單一商品
      */
-    ProductPO getPublicProductById(Long productId) throws EntityNotFoundException;
+    ProductResponseVO getPublicProductById(Long productId) throws EntityNotFoundException;
     
     /**
      * (關鍵新增！)
      * 我們需要一個新的服務方法來「專門處理篩選」
-     * 這將會呼叫`productDAO.findByCategory_CategoryId(categoryId)`
+     * (包含所有子孫分類，游標分頁)
+     *
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    ProductPageVO getPublicProductsByCategory(Integer categoryId, String cursor, int size);
+
+    /**
+     * (新) 業務邏輯：(公開) 以關鍵字全文搜尋商品名稱 / 描述 (依相關度排序)
+     *
+     * @param query 關鍵字 (中文以兩字為單位比對，英數以單字比對)
+     * @param page  第幾頁 (從 0 開始)
+     * @param size  每頁筆數
+     */
+    ProductSearchResultVO searchPublicProducts(String query, int page, int size);
+
+    /**
+     * (新) 業務邏輯：(公開) 搜尋框自動完成 (商品 / 分類名稱，依銷量排序)
+     *
+     * @param prefix 使用者目前輸入的文字
+     * @param limit  最多回傳幾筆
      */
-    List<ProductPO> getPublicProductsByCategory(Integer categoryId);
+    List<ProductSuggestionVO> suggestPublicProducts(String prefix, int limit);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package demo.bigwork.service;
 
+import demo.bigwork.model.enums.RatingSort;
 import demo.bigwork.model.vo.CreateRatingRequestVO;
+import demo.bigwork.model.vo.RatingPageVO;
 import demo.bigwork.model.vo.RatingResponseVO;
+import demo.bigwork.model.vo.SellerRatingSummaryVO;
 import demo.bigwork.model.vo.UpdateRatingRequestVO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.security.access.AccessDeniedException;
@@ -25,13 +28,16 @@ public interface RatingService {
 
     /**
      * (公開查詢) 
-     * 取得「某個商品」的所有評價
+     * 取得「某個商品」的評價 (游標分頁)
      * (這會被 PublicProductController 呼叫)
      *
      * @param productId 商品 ID
-     * @return
+     * @param cursor    上一頁回傳的 nextCursor；第一頁傳 null
+     * @param size      每頁筆數
+     * @param sort      NEWEST = 最新優先、STARS = 星等高者優先
+     * @throws IllegalArgumentException 游標格式錯誤
      */
-    List<RatingResponseVO> getRatingsForProduct(Long productId);
+    RatingPageVO getRatingsForProduct(Long productId, String cursor, int size, RatingSort sort);
 
     /**
      * (買家查詢) 
@@ -48,6 +54,33 @@ public interface RatingService {
     void deleteMyRating(Long ratingId) 
             throws AccessDeniedException, EntityNotFoundException;
     
-    List<RatingResponseVO> getRatingsForMyProducts() 
+    /**
+     * (賣家查詢) 
+     * 「我 (賣家)」的評價總覽：全店合計 + 一頁商品的平均 / 評價數 / 星等分布
+     * (只讀彙總表，成本與商品數成正比、與評價筆數無關)
+     *
+     * @param afterProductId 上一頁回傳的 nextAfterProductId；第一頁傳 null
+     * @param size           每頁商品數
+     * @throws AccessDeniedException (如果不是 SELLER)
+     */
+    SellerRatingSummaryVO getRatingSummaryForMyProducts(Long afterProductId, int size)
             throws AccessDeniedException;
+
+    /**
+     * (賣家查詢) 
+     * 展開「我 (賣家)」某個商品的評價內容 (游標分頁，規則同 getRatingsForProduct)
+     *
+     * @throws AccessDeniedException (如果不是 SELLER，或商品不屬於我)
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    RatingPageVO getRatingsForMyProduct(Long productId, String cursor, int size, RatingSort sort)
+            throws AccessDeniedException;
+
+    /**
+     * (回填) 依 product_ratings 重新計算某個 productId 區間 (afterId, upToId] 的評價彙總
+     * (一個區間一個交易，由 ProductRatingStatsBackfillJob 平行呼叫)
+     *
+     * @return MySQL 的受影響列數 (新增一列計 1、覆蓋一列計 2)
+     */
+    int recomputeRatingStats(Long afterId, Long upToId);
 }
\ No newline at end of file
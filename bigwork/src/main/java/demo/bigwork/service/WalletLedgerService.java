@@ -0,0 +1,22 @@
+package demo.bigwork.service;
+
+import java.math.BigDecimal;
+
+/**
+ * 賣家收款「流水帳」入帳服務
+ *
+ * 結帳時賣家的收款只會寫入 wallet_transactions (settled = false)，
+ * 不會去更新 wallets 那一列 (熱門賣家的錢包不再是所有結帳的瓶頸)。
+ * 這個服務負責把「尚未入帳」的紀錄彙總後加回 wallets.balance。
+ */
+public interface WalletLedgerService {
+
+    /**
+     * 將某使用者「尚未入帳」的收款併入錢包餘額
+     * (必須在呼叫端的交易中執行，之後讀到的錢包餘額才會包含這些收款)
+     *
+     * @param userId 錢包擁有者 ID
+     * @return 本次併入的金額 (沒有待入帳紀錄時為 0)
+     */
+    BigDecimal settlePendingCredits(Long userId);
+}
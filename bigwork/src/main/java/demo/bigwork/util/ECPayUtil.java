@@ -1,7 +1,7 @@
 package demo.bigwork.util;
 
-import java.net.URLEncoder;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 public class ECPayUtil {
@@ -10,7 +10,7 @@ public class ECPayUtil {
      * 產生訂單用的 CheckMacValue
      */
     public static String genCheckMacValue(Map<String, String> params, String hashKey, String hashIV) {
-        return generateMacValue(params, hashKey, hashIV, false);
+        return ENCODER.get().compute(params, hashKey, hashIV, false)[0];
     }
 
     /**
@@ -36,9 +36,10 @@ public class ECPayUtil {
         
         String receivedMacValue = params.get("CheckMacValue");
         
-        // 嘗試兩種計算方式
-        String macPlus = generateMacValue(params, hashKey, hashIV, false);
-        String macPercent = generateMacValue(params, hashKey, hashIV, true);
+        // 嘗試兩種計算方式 (空白編成 '+' 或 '%20')，一次走訪同時算出
+        String[] macValues = generateMacValues(params, hashKey, hashIV);
+        String macPlus = macValues[0];
+        String macPercent = macValues[1];
 
         if (receivedMacValue.equalsIgnoreCase(macPlus) || receivedMacValue.equalsIgnoreCase(macPercent)) {
             return true;
@@ -50,80 +51,170 @@ public class ECPayUtil {
         }
     }
 
+    /**
+     * 一次算出兩種 CheckMacValue：[0] 空白編成 '+'，[1] 空白編成 '%20'
+     */
+    static String[] generateMacValues(Map<String, String> params, String hashKey, String hashIV) {
+        return ENCODER.get().compute(params, hashKey, hashIV, true);
+    }
+
+    /**
+     * (效能) 每個執行緒一個 MacEncoder：緩衝區與 MessageDigest 重複使用，不必每次重新建立
+     */
+    private static final ThreadLocal<MacEncoder> ENCODER = ThreadLocal.withInitial(MacEncoder::new);
+
+    private static final byte[] HEX_LOWER = "0123456789abcdef".getBytes();
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+
     /**
      * 核心邏輯：過濾、排序、串接、編碼、加密
+     *
+     * 結果與「串接字串 -> URLEncoder.encode (UTF-8) -> 還原 ! ( ) -> 轉小寫 -> SHA-256 -> 轉大寫」完全相同，
+     * 但只走訪一次：每個字元直接編碼成小寫後寫入 byte 緩衝區，不產生中間字串
+     * (轉小寫只處理 ASCII，不受 JVM 預設語系影響)
      */
-    private static String generateMacValue(Map<String, String> params, String hashKey, String hashIV, boolean usePercentForSpace) {
-        // 1. 過濾參數
-        Map<String, String> filtered = new HashMap<>();
-        
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            
-            // ★ 關鍵修正：過濾掉 CheckMacValue 以及「值為 null 或 空字串」的參數
-            if (!"CheckMacValue".equalsIgnoreCase(key) && 
-                value != null && 
-                !value.isEmpty()) { 
-                
-                filtered.put(key, value);
+    private static final class MacEncoder {
+
+        private final MessageDigest digest = newSha256();
+        private final byte[] utf8 = new byte[4];
+
+        // [0] = 空白編成 '+'，[1] = 空白編成 '%20'
+        private byte[] plus = new byte[1024];
+        private byte[] percent = new byte[1024];
+        private int plusLength;
+        private int percentLength;
+        private boolean bothVariants;
+
+        String[] compute(Map<String, String> params, String hashKey, String hashIV, boolean bothVariants) {
+            this.bothVariants = bothVariants;
+            plusLength = 0;
+            percentLength = 0;
+
+            // 1. 過濾參數：去掉 CheckMacValue 以及「值為 null 或 空字串」的參數
+            List<Map.Entry<String, String>> entries = new ArrayList<>(params.size());
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                String value = entry.getValue();
+                if (!"CheckMacValue".equalsIgnoreCase(entry.getKey()) && value != null && !value.isEmpty()) {
+                    entries.add(entry);
+                }
+            }
+
+            // 2. 依照參數名稱排序 (與 TreeMap 相同的自然排序)
+            entries.sort(Map.Entry.comparingByKey());
+
+            // 3. 串接 + 編碼
+            encode("HashKey=");
+            encode(hashKey);
+            for (Map.Entry<String, String> entry : entries) {
+                encode("&");
+                encode(entry.getKey());
+                encode("=");
+                encode(entry.getValue());
             }
+            encode("&HashIV=");
+            encode(hashIV);
+
+            // 4. SHA-256 並轉大寫
+            String macPlus = sha256Hex(plus, plusLength);
+            String macPercent = bothVariants ? sha256Hex(percent, percentLength) : null;
+            return new String[] {macPlus, macPercent};
         }
 
-        // 2. 依照參數名稱排序 (使用 TreeMap 確保自然排序)
-        Map<String, String> sortedMap = new TreeMap<>(filtered);
+        private void encode(String str) {
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+                        || c == '.' || c == '-' || c == '*' || c == '_'
+                        || c == '!' || c == '(' || c == ')') {
+                    // URLEncoder 不編碼的字元 + 被還原的 ! ( )
+                    write((byte) c);
+                } else if (c >= 'A' && c <= 'Z') {
+                    write((byte) (c + ('a' - 'A')));
+                } else if (c == ' ') {
+                    writePlus((byte) '+');
+                    writePercent((byte) '%');
+                    writePercent((byte) '2');
+                    writePercent((byte) '0');
+                } else {
+                    int codePoint = c;
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                        codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    } else if (Character.isSurrogate(c)) {
+                        codePoint = '?'; // (與 String.getBytes 相同：落單的代理字元變成 '?')
+                    }
+                    int count = toUtf8(codePoint);
+                    for (int b = 0; b < count; b++) {
+                        write((byte) '%');
+                        write(HEX_LOWER[(utf8[b] >> 4) & 0xF]);
+                        write(HEX_LOWER[utf8[b] & 0xF]);
+                    }
+                }
+            }
+        }
 
-        // 3. 組合字串
-        StringBuilder sb = new StringBuilder();
-        sb.append("HashKey=").append(hashKey);
-        for (Map.Entry<String, String> entry : sortedMap.entrySet()) {
-            sb.append("&").append(entry.getKey()).append("=").append(entry.getValue());
+        private int toUtf8(int codePoint) {
+            if (codePoint < 0x80) {
+                utf8[0] = (byte) codePoint;
+                return 1;
+            } else if (codePoint < 0x800) {
+                utf8[0] = (byte) (0xC0 | (codePoint >> 6));
+                utf8[1] = (byte) (0x80 | (codePoint & 0x3F));
+                return 2;
+            } else if (codePoint < 0x10000) {
+                utf8[0] = (byte) (0xE0 | (codePoint >> 12));
+                utf8[1] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                utf8[2] = (byte) (0x80 | (codePoint & 0x3F));
+                return 3;
+            } else {
+                utf8[0] = (byte) (0xF0 | (codePoint >> 18));
+                utf8[1] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                utf8[2] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                utf8[3] = (byte) (0x80 | (codePoint & 0x3F));
+                return 4;
+            }
         }
-        sb.append("&HashIV=").append(hashIV);
-        
-        String rawString = sb.toString();
 
-        // 4. URL Encode (根據參數決定是否將 + 轉為 %20)
-        String encoded = urlEncode(rawString, usePercentForSpace).toLowerCase();
-        
-        // (Debug) 印出最終編碼字串 (可選)
-        // if (usePercentForSpace) System.out.println("DEBUG [Final Encoded String]: " + encoded);
+        private void write(byte b) {
+            writePlus(b);
+            writePercent(b);
+        }
 
-        // 5. SHA-256 加密並轉大寫
-        return sha256(encoded).toUpperCase();
-    }
+        private void writePlus(byte b) {
+            if (plusLength == plus.length) {
+                plus = Arrays.copyOf(plus, plus.length * 2);
+            }
+            plus[plusLength++] = b;
+        }
 
-    private static String urlEncode(String str, boolean usePercentForSpace) {
-        try {
-            String encoded = URLEncoder.encode(str, "UTF-8");
-            if (usePercentForSpace) {
-                encoded = encoded.replace("+", "%20");
+        private void writePercent(byte b) {
+            if (!bothVariants) {
+                return;
             }
-            return encoded.replace("%21", "!")
-                          .replace("%28", "(")
-                          .replace("%29", ")")
-                          .replace("%2A", "*")
-                          .replace("%2D", "-")
-                          .replace("%2E", ".")
-                          .replace("%5F", "_");
-        } catch (Exception e) {
-            throw new RuntimeException("Encoding Error", e);
+            if (percentLength == percent.length) {
+                percent = Arrays.copyOf(percent, percent.length * 2);
+            }
+            percent[percentLength++] = b;
+        }
+
+        private String sha256Hex(byte[] input, int length) {
+            digest.reset();
+            digest.update(input, 0, length);
+            byte[] hash = digest.digest();
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX_UPPER[(hash[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX_UPPER[hash[i] & 0xF];
+            }
+            return new String(hex);
         }
-    }
 
-    private static String sha256(String str) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(str.getBytes("UTF-8"));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+        private static MessageDigest newSha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("SHA256 Error", e);
             }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("SHA256 Error", e);
         }
     }
-}
\ No newline at end of file
+}
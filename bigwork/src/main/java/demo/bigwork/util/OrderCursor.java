@@ -0,0 +1,49 @@
+package demo.bigwork.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * (分頁) 訂單歷史的「游標」：最後一筆訂單的 (createdAt, orderId)
+ *
+ * 對前端來說是不透明的字串 (Base64URL)，只要原封不動帶回 ?cursor= 即可
+ * e.g., "1735689600000_42" -> "MTczNTY4OTYwMDAwMF80Mg"
+ */
+public final class OrderCursor {
+
+    private final Timestamp createdAt;
+    private final Long orderId;
+
+    public OrderCursor(Timestamp createdAt, Long orderId) {
+        this.createdAt = createdAt;
+        this.orderId = orderId;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + "_" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException 游標格式錯誤 (被竄改或不是由我們產生的)
+     */
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf('_');
+            return new OrderCursor(new Timestamp(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("無效的分頁游標：" + cursor);
+        }
+    }
+}
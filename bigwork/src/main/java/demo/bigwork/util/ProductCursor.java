@@ -0,0 +1,49 @@
+package demo.bigwork.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * (分頁) 公開商品列表的「游標」：最後一筆商品的 (createdAt, productId)
+ *
+ * 對前端來說是不透明的字串 (Base64URL)，只要原封不動帶回 ?cursor= 即可
+ * e.g., "1735689600000_42" -> "MTczNTY4OTYwMDAwMF80Mg"
+ */
+public final class ProductCursor {
+
+    private final Timestamp createdAt;
+    private final Long productId;
+
+    public ProductCursor(Timestamp createdAt, Long productId) {
+        this.createdAt = createdAt;
+        this.productId = productId;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + "_" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException 游標格式錯誤 (被竄改或不是由我們產生的)
+     */
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf('_');
+            return new ProductCursor(new Timestamp(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("無效的分頁游標：" + cursor);
+        }
+    }
+}
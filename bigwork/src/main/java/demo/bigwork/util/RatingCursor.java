@@ -0,0 +1,57 @@
+package demo.bigwork.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * (分頁) 商品評價列表的「游標」：最後一筆評價的 (ratingStars, createdAt, ratingId)
+ * (依「最新」排序時不使用 ratingStars，但一樣帶著，游標格式只有一種)
+ *
+ * 對前端來說是不透明的字串 (Base64URL)，只要原封不動帶回 ?cursor= 即可
+ * e.g., "5_1735689600000_42" -> "NV8xNzM1Njg5NjAwMDAwXzQy"
+ */
+public final class RatingCursor {
+
+    private final Integer ratingStars;
+    private final Timestamp createdAt;
+    private final Long ratingId;
+
+    public RatingCursor(Integer ratingStars, Timestamp createdAt, Long ratingId) {
+        this.ratingStars = ratingStars;
+        this.createdAt = createdAt;
+        this.ratingId = ratingId;
+    }
+
+    public Integer getRatingStars() {
+        return ratingStars;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getRatingId() {
+        return ratingId;
+    }
+
+    public String encode() {
+        String raw = ratingStars + "_" + createdAt.getTime() + "_" + ratingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException 游標格式錯誤 (被竄改或不是由我們產生的)
+     */
+    public static RatingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split("_", 3);
+            return new RatingCursor(Integer.parseInt(parts[0]),
+                    new Timestamp(Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("無效的分頁游標：" + cursor);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package demo.bigwork.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (關鍵) 綠界 MerchantTradeNo / 訂單編號產生器 (Snowflake 格式，不需要查資料庫)
+ *
+ * 64 位元 ID = [0][41 位元 毫秒時間][10 位元 節點 ID][12 位元 同一毫秒內的序號]
+ * - 同一台主機：時間 + 序號 由一個 AtomicLong 以 CAS 推進，不需要加鎖
+ * - 多台主機：各自設定不同的 trade-no.node-id (0 ~ 1023)，ID 就不會重複
+ * - 同一毫秒超過 4096 個 / 系統時間倒退：直接「借用」下一毫秒，ID 仍然遞增不重複
+ *
+ * 綠界的 MerchantTradeNo 最長 20 碼 (英數字)，
+ * 所以轉成 36 進位 (固定 13 碼) 再加上前綴，e.g., "TOSN" + 13 碼 = 17 碼
+ */
+@Component
+public class TradeNoGenerator {
+
+    // 自訂紀元 2025-01-01T00:00:00Z (41 位元毫秒約可用 69 年)
+    static final long EPOCH_MS = 1735689600000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Long.MAX_VALUE 的 36 進位長度 ("1y2p0ij32e8e7")
+    static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+
+    // (關鍵) 高位 = 上一次使用的毫秒，低 12 位 = 該毫秒內的序號
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    public TradeNoGenerator(@Value("${trade-no.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("trade-no.node-id 必須介於 0 ~ " + MAX_NODE_ID + "：" + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 產生下一個 ID (可直接當作訂單編號)
+     */
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MS;
+            long last = lastTimeAndSequence.get();
+            // 時間前進：序號歸 0；同一毫秒 (或時間倒退)：序號 + 1，滿了自動進位到下一毫秒
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastTimeAndSequence.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 產生綠界 MerchantTradeNo：前綴 + 固定 13 碼的 36 進位 (大寫)
+     * (固定長度：字串排序 = 產生順序)
+     *
+     * @param prefix 英數字前綴，長度不可超過 7 (20 - 13)
+     */
+    public String nextTradeNo(String prefix) {
+        if (prefix.length() > 20 - ENCODED_LENGTH) {
+            throw new IllegalArgumentException("MerchantTradeNo 前綴過長：" + prefix);
+        }
+        String encoded = Long.toString(nextId(), 36).toUpperCase();
+        StringBuilder sb = new StringBuilder(prefix.length() + ENCODED_LENGTH).append(prefix);
+        for (int i = encoded.length(); i < ENCODED_LENGTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(encoded).toString();
+    }
+}
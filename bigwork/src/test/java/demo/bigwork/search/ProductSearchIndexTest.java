@@ -0,0 +1,81 @@
+package demo.bigwork.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void tokenizesCjkBigramsAndLatinWords() {
+        assertEquals(List.of("藍牙", "牙耳", "耳機", "usb", "c"), ProductTokenizer.tokenize("藍牙耳機 ＵＳＢ-C"));
+        assertEquals(List.of("鞋", "nike"), ProductTokenizer.tokenize("鞋/Nike"));
+        assertTrue(ProductTokenizer.tokenize("  !! ").isEmpty());
+    }
+
+    @Test
+    void indexesCjkUnigramsSoSingleCharacterQueriesMatch() {
+        assertEquals(List.of("運動", "運", "動鞋", "動", "鞋"), ProductTokenizer.tokenizeForIndex("運動鞋"));
+
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(ProductSearchIndex.analyze(1, "運動鞋", null));
+        index.put(ProductSearchIndex.analyze(2, "後背包", null));
+        index.put(ProductSearchIndex.analyze(3, "鞋", null));
+
+        assertEquals(2, index.search("鞋", 0, 10).total());
+        assertTrue(index.search("鞋", 0, 10).productIds().containsAll(List.of(1L, 3L)));
+        assertEquals(List.of(2L), index.search("包", 0, 10).productIds());
+        assertEquals(List.of(1L), index.search("運動鞋", 0, 10).productIds());
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(ProductSearchIndex.analyze(1, "手機殼", "適用藍牙耳機收納"));
+        index.put(ProductSearchIndex.analyze(2, "藍牙耳機", "降噪"));
+        index.put(ProductSearchIndex.analyze(3, "運動鞋", "輕量"));
+
+        ProductSearchIndex.SearchHits hits = index.search("藍牙耳機", 0, 10);
+
+        assertEquals(List.of(2L, 1L), hits.productIds());
+        assertEquals(2, hits.total());
+    }
+
+    @Test
+    void updatesAndRemovalsAreVisibleToSearch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(ProductSearchIndex.analyze(1, "iPhone 15 Pro", null));
+        index.put(ProductSearchIndex.analyze(1, "Pixel 9", null));
+        index.put(ProductSearchIndex.analyze(2, "iphone 15 case", null));
+
+        assertEquals(List.of(2L), index.search("iphone", 0, 10).productIds());
+        assertEquals(List.of(1L), index.search("pixel", 0, 10).productIds());
+
+        index.remove(1);
+        assertEquals(0, index.search("pixel", 0, 10).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void pagesThroughRankedHitsAndSurvivesCompaction() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 30_000; id++) {
+            index.put(ProductSearchIndex.analyze(id, "商品 " + id, id % 2 == 0 ? "熱賣" : "新品"));
+        }
+        for (long id = 1; id <= 25_000; id++) {
+            index.remove(id); // (超過門檻，觸發整理)
+        }
+
+        ProductSearchIndex.SearchHits first = index.search("熱賣", 0, 10);
+        ProductSearchIndex.SearchHits second = index.search("熱賣", 10, 10);
+
+        assertEquals(2_500, first.total());
+        assertEquals(10, first.productIds().size());
+        assertEquals(10, second.productIds().size());
+        assertTrue(first.productIds().stream().noneMatch(second.productIds()::contains));
+        assertTrue(first.productIds().stream().allMatch(id -> id > 25_000 && id % 2 == 0));
+    }
+}
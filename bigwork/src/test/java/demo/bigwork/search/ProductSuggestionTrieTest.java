@@ -0,0 +1,83 @@
+package demo.bigwork.search;
+
+import demo.bigwork.model.enums.SuggestionType;
+import demo.bigwork.model.vo.ProductSuggestionVO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSuggestionTrieTest {
+
+    private static ProductSuggestionTrie.Entry product(long id, String name, long sales) {
+        return new ProductSuggestionTrie.Entry(name, sales, new ProductSuggestionVO(name, SuggestionType.PRODUCT, id));
+    }
+
+    private static List<String> texts(List<ProductSuggestionVO> suggestions) {
+        return suggestions.stream().map(ProductSuggestionVO::getText).toList();
+    }
+
+    @Test
+    void returnsPrefixMatchesOrderedBySales() {
+        ProductSuggestionTrie trie = ProductSuggestionTrie.build(List.of(
+                product(1, "iPhone 15", 50),
+                product(2, "iPhone 15 Pro", 80),
+                product(3, "iPad Air", 30),
+                product(4, "藍牙耳機", 5),
+                new ProductSuggestionTrie.Entry("3C 周邊", 200,
+                        new ProductSuggestionVO("3C 周邊", SuggestionType.CATEGORY, 9L))), 10);
+
+        assertEquals(List.of("iPhone 15 Pro", "iPhone 15", "iPad Air"), texts(trie.suggest("ip", 10)));
+        assertEquals(List.of("iPhone 15 Pro", "iPhone 15"), texts(trie.suggest(" ＩＰＨＯＮＥ", 10)));
+        assertEquals(List.of("iPhone 15 Pro"), texts(trie.suggest("iphone", 1)));
+        assertEquals(List.of("藍牙耳機"), texts(trie.suggest("藍牙", 10)));
+        assertEquals(List.of("3C 周邊"), texts(trie.suggest("3c", 10)));
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+        assertTrue(trie.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void duplicateNamesKeepTheBestSeller() {
+        ProductSuggestionTrie trie = ProductSuggestionTrie.build(List.of(
+                product(1, "Mouse", 3),
+                product(2, "mouse", 9)), 10);
+
+        List<ProductSuggestionVO> suggestions = trie.suggest("mo", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(2L, suggestions.get(0).getId());
+    }
+
+    @Test
+    void matchesBruteForceOnRandomNames() {
+        Random random = new Random(42);
+        String alphabet = "abc藍牙";
+        List<ProductSuggestionTrie.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            entries.add(product(i, name.toString() + i, random.nextInt(1000)));
+        }
+        int topK = 5;
+        ProductSuggestionTrie trie = ProductSuggestionTrie.build(entries, topK);
+
+        for (String prefix : List.of("a", "ab", "藍", "c藍牙", "ba1", "牙牙")) {
+            List<Long> expected = entries.stream()
+                    .filter(e -> e.text().startsWith(prefix))
+                    .sorted(Comparator.comparingLong(ProductSuggestionTrie.Entry::weight).reversed()
+                            .thenComparing(ProductSuggestionTrie.Entry::text))
+                    .limit(topK)
+                    .map(e -> e.suggestion().getId())
+                    .toList();
+            List<Long> actual = trie.suggest(prefix, topK).stream().map(ProductSuggestionVO::getId).toList();
+            assertEquals(expected, actual, prefix);
+        }
+    }
+}
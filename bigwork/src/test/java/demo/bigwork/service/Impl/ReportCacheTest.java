@@ -0,0 +1,66 @@
+package demo.bigwork.service.Impl;
+
+import demo.bigwork.model.vo.AdminReportVO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportCacheTest {
+
+    private static AdminReportVO report(LocalDate start, LocalDate end) {
+        AdminReportVO vo = new AdminReportVO();
+        vo.setStartDate(start);
+        vo.setEndDate(end);
+        vo.setMissingSections(List.of());
+        return vo;
+    }
+
+    @Test
+    void closedPeriodsSurviveNewOrders() {
+        ReportCache cache = new ReportCache(60_000);
+        LocalDate end = LocalDate.now().minusDays(ReportCache.CLOSED_AFTER_DAYS);
+        AdminReportVO closed = report(end.minusDays(6), end);
+
+        cache.put(closed, cache.currentGeneration());
+        cache.invalidateOpenPeriodsAfterCommit();
+
+        assertSame(closed, cache.get(end.minusDays(6), end));
+        assertEquals(1, cache.getMetrics().getHitCount());
+        assertEquals(1, cache.getMetrics().getClosedEntryCount());
+    }
+
+    @Test
+    void openPeriodIsInvalidatedByNewOrders() {
+        ReportCache cache = new ReportCache(60_000);
+        LocalDate today = LocalDate.now();
+        AdminReportVO open = report(today.minusDays(3), today.plusDays(3));
+
+        cache.put(open, cache.currentGeneration());
+        assertSame(open, cache.get(today.minusDays(3), today.plusDays(3)));
+
+        cache.invalidateOpenPeriodsAfterCommit();
+        assertNull(cache.get(today.minusDays(3), today.plusDays(3)));
+        assertEquals(1, cache.getMetrics().getMissCount());
+    }
+
+    @Test
+    void staleOrPartialReportsAreNotCached() {
+        ReportCache cache = new ReportCache(60_000);
+        LocalDate today = LocalDate.now();
+
+        long generation = cache.currentGeneration();
+        cache.invalidateRangeAfterCommit(today.minusDays(2), today.plusDays(1)); // (計算期間彙總被重算)
+        cache.put(report(today.minusDays(1), today), generation);
+        assertNull(cache.get(today.minusDays(1), today));
+
+        AdminReportVO partial = report(today.minusDays(30), today.minusDays(20));
+        partial.setPartial(true);
+        cache.put(partial, cache.currentGeneration());
+        assertNull(cache.get(today.minusDays(30), today.minusDays(20)));
+    }
+}
@@ -0,0 +1,87 @@
+package demo.bigwork.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (效能) CheckMacValue：改寫前 (LegacyECPayMac) vs 現在 (ECPayUtil)
+ *
+ * 執行：mvn -Pbenchmark test-compile exec:exec
+ * (開始量測前會先確認兩者輸出完全相同，不同就直接失敗)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ECPayUtilBenchmark {
+
+    private static final String HASH_KEY = "pwFHCqoQZGmho4w6";
+    private static final String HASH_IV = "EkRm7iFT261dpevs";
+
+    private Map<String, String> params;
+
+    @Setup
+    public void setUp() {
+        params = ECPayUtilTest.sampleParams();
+
+        String[] current = ECPayUtil.generateMacValues(params, HASH_KEY, HASH_IV);
+        String[] legacy = {
+                LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, false),
+                LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, true)
+        };
+        if (!Arrays.equals(current, legacy)) {
+            throw new IllegalStateException("輸出不一致：" + Arrays.toString(current) + " vs " + Arrays.toString(legacy));
+        }
+    }
+
+    // --- genCheckMacValue (建立訂單：只算 '+' 版本) ---
+
+    @Benchmark
+    public String legacyGenCheckMacValue() {
+        return LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, false);
+    }
+
+    @Benchmark
+    public String currentGenCheckMacValue() {
+        return ECPayUtil.genCheckMacValue(params, HASH_KEY, HASH_IV);
+    }
+
+    // --- checkMacValue (驗證通知：'+' 與 '%20' 兩種版本) ---
+
+    @Benchmark
+    public String[] legacyBothVariants() {
+        return new String[] {
+                LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, false),
+                LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, true)
+        };
+    }
+
+    @Benchmark
+    public String[] currentBothVariants() {
+        return ECPayUtil.generateMacValues(params, HASH_KEY, HASH_IV);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ECPayUtilBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package demo.bigwork.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ECPayUtilTest {
+
+    private static final String HASH_KEY = "pwFHCqoQZGmho4w6";
+    private static final String HASH_IV = "EkRm7iFT261dpevs";
+
+    // 涵蓋：英數、空白、URLEncoder 會還原的 ! ( ) * - . _、保留字元、中文、emoji、落單的代理字元
+    private static final String ALPHABET =
+            "abcXYZ019 !()*-._~+&=%#/?:@'\"<>交易成功商品測試😀\uD800";
+
+    static Map<String, String> sampleParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("MerchantID", "3002607");
+        params.put("MerchantTradeNo", "TOSN0A1B2C3D4E5F6");
+        params.put("MerchantTradeDate", "2025/01/01 12:34:56");
+        params.put("PaymentType", "aio");
+        params.put("TotalAmount", "1280");
+        params.put("TradeDesc", "E-Shop Order");
+        params.put("ChoosePayment", "ALL");
+        params.put("ItemName", "藍牙耳機 x 1#USB-C (1m) 充電線 x 2#50% OFF 禮物卡! x 1");
+        params.put("EncryptType", "1");
+        params.put("CustomField1", "42");
+        params.put("ClientBackURL", "http://127.0.0.1:5500/html/cart.html");
+        params.put("ReturnURL", "https://example.ngrok-free.dev/notify");
+        params.put("RtnMsg", "");
+        params.put("CheckMacValue", "IGNORED");
+        return params;
+    }
+
+    @Test
+    void matchesLegacyImplementationOnOrderParams() {
+        Map<String, String> params = sampleParams();
+        assertSameAsLegacy(params);
+        assertEquals(LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, false),
+                ECPayUtil.genCheckMacValue(params, HASH_KEY, HASH_IV));
+    }
+
+    @Test
+    void matchesLegacyImplementationOnRandomParams() {
+        Random random = new Random(20250101L);
+        for (int round = 0; round < 2_000; round++) {
+            Map<String, String> params = new HashMap<>();
+            int count = 1 + random.nextInt(12);
+            for (int i = 0; i < count; i++) {
+                params.put(randomText(random, 1 + random.nextInt(10)), randomText(random, random.nextInt(30)));
+            }
+            assertSameAsLegacy(params);
+        }
+    }
+
+    private static void assertSameAsLegacy(Map<String, String> params) {
+        String[] macValues = ECPayUtil.generateMacValues(params, HASH_KEY, HASH_IV);
+        assertEquals(LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, false), macValues[0], params.toString());
+        assertEquals(LegacyECPayMac.generateMacValue(params, HASH_KEY, HASH_IV, true), macValues[1], params.toString());
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package demo.bigwork.util;
+
+import java.net.URLEncoder;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * (測試用) 改寫前的 ECPayUtil CheckMacValue 計算方式，原封不動保留
+ * 用來確認新版輸出「完全相同」，並作為效能比較的基準 (ECPayUtilBenchmark)
+ */
+class LegacyECPayMac {
+
+    /**
+     * 核心邏輯：過濾、排序、串接、編碼、加密
+     */
+    static String generateMacValue(Map<String, String> params, String hashKey, String hashIV, boolean usePercentForSpace) {
+        // 1. 過濾參數
+        Map<String, String> filtered = new HashMap<>();
+        
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            
+            // ★ 關鍵修正：過濾掉 CheckMacValue 以及「值為 null 或 空字串」的參數
+            if (!"CheckMacValue".equalsIgnoreCase(key) && 
+                value != null && 
+                !value.isEmpty()) { 
+                
+                filtered.put(key, value);
+            }
+        }
+
+        // 2. 依照參數名稱排序 (使用 TreeMap 確保自然排序)
+        Map<String, String> sortedMap = new TreeMap<>(filtered);
+
+        // 3. 組合字串
+        StringBuilder sb = new StringBuilder();
+        sb.append("HashKey=").append(hashKey);
+        for (Map.Entry<String, String> entry : sortedMap.entrySet()) {
+            sb.append("&").append(entry.getKey()).append("=").append(entry.getValue());
+        }
+        sb.append("&HashIV=").append(hashIV);
+        
+        String rawString = sb.toString();
+
+        // 4. URL Encode (根據參數決定是否將 + 轉為 %20)
+        String encoded = urlEncode(rawString, usePercentForSpace).toLowerCase();
+        
+        // (Debug) 印出最終編碼字串 (可選)
+        // if (usePercentForSpace) System.out.println("DEBUG [Final Encoded String]: " + encoded);
+
+        // 5. SHA-256 加密並轉大寫
+        return sha256(encoded).toUpperCase();
+    }
+
+    private static String urlEncode(String str, boolean usePercentForSpace) {
+        try {
+            String encoded = URLEncoder.encode(str, "UTF-8");
+            if (usePercentForSpace) {
+                encoded = encoded.replace("+", "%20");
+            }
+            return encoded.replace("%21", "!")
+                          .replace("%28", "(")
+                          .replace("%29", ")")
+                          .replace("%2A", "*")
+                          .replace("%2D", "-")
+                          .replace("%2E", ".")
+                          .replace("%5F", "_");
+        } catch (Exception e) {
+            throw new RuntimeException("Encoding Error", e);
+        }
+    }
+
+    private static String sha256(String str) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(str.getBytes("UTF-8"));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hash) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) hexString.append('0');
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("SHA256 Error", e);
+        }
+    }
+}
\ No newline at end of file
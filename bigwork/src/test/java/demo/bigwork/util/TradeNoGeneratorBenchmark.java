@@ -0,0 +1,58 @@
+package demo.bigwork.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (效能) TradeNoGenerator 的吞吐量：單執行緒 / 8 條執行緒搶同一個產生器
+ * (唯一性由 TradeNoGeneratorTest 驗證；這裡只量每秒可產生幾個 ID)
+ *
+ * 執行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark.class=demo.bigwork.util.TradeNoGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeNoGeneratorBenchmark {
+
+    private final TradeNoGenerator generator = new TradeNoGenerator(7);
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdSingleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextTradeNoContended() {
+        return generator.nextTradeNo("TOSN");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TradeNoGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
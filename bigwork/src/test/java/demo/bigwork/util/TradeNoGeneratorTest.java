@@ -0,0 +1,94 @@
+package demo.bigwork.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TradeNoGeneratorTest {
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        TradeNoGenerator generator = new TradeNoGenerator(7);
+        int threads = 8;
+        int perThread = 250_000;
+        Set<Long> seen = ConcurrentHashMap.newKeySet(threads * perThread);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Long> task = () -> {
+                    start.await();
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    long duplicates = 0;
+                    for (long id : ids) {
+                        if (!seen.add(id)) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                };
+                results.add(pool.submit(task));
+            }
+
+            start.countDown();
+            long duplicates = 0;
+            for (Future<Long> result : results) {
+                duplicates += result.get();
+            }
+
+            assertEquals(0, duplicates);
+            assertEquals(threads * perThread, seen.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsIncreaseAndCarryNodeId() {
+        TradeNoGenerator generator = new TradeNoGenerator(1023);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(1023, (id >>> TradeNoGenerator.SEQUENCE_BITS) & TradeNoGenerator.MAX_NODE_ID);
+            previous = id;
+        }
+    }
+
+    @Test
+    void tradeNoFitsEcpayLimit() {
+        TradeNoGenerator generator = new TradeNoGenerator(0);
+        String previous = generator.nextTradeNo("TOSN");
+        for (int i = 0; i < 10_000; i++) {
+            String tradeNo = generator.nextTradeNo("TOSN");
+            assertEquals(17, tradeNo.length());
+            assertTrue(tradeNo.matches("TOSN[0-9A-Z]{13}"));
+            assertTrue(tradeNo.compareTo(previous) > 0);
+            previous = tradeNo;
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.nextTradeNo("TOOLONGX"));
+    }
+
+    @Test
+    void rejectsInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TradeNoGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new TradeNoGenerator(1024));
+    }
+}
@@ -153,6 +153,9 @@ async function loadReport(period) {
     try {
         const data = await apiGetJson(url);
         fillText(data, label);
+        if (data.partial) {
+            $("errorMsg").textContent = "部分資料查詢逾時，報表數字可能不完整";
+        }
     } catch (e) {
         console.error(e);
         $("errorMsg").textContent = "營運報表產生失敗";
@@ -161,6 +164,9 @@ async function loadReport(period) {
     try {
         const fin = await apiGetJson(`/api/admin/reports/financial?period=${period}`);
         fillFinancial(fin);
+        if (fin.partial) {
+            $("errorMsg").textContent = "部分資料查詢逾時，報表數字可能不完整";
+        }
     } catch (e) {
         console.error(e);
     }
@@ -198,6 +204,31 @@ $("exportBtn").onclick = async () => {
     }
 };
 
+// 訂單明細 (財務用，期間可任意長)
+$("exportDetailBtn").onclick = async () => {
+    const from = $("detailFrom").value;
+    const to = $("detailTo").value;
+    if (!from || !to || from > to) {
+        alert("請選擇有效的起訖日期");
+        return;
+    }
+    try {
+        const res = await fetch(`${apiBase}/api/admin/reports/export/details?from=${from}&to=${to}`, {
+            headers: { "Authorization": "Bearer " + token }
+        });
+        if (!res.ok) throw new Error("匯出失敗");
+        const blob = await res.blob();
+        const a = document.createElement("a");
+        a.href = URL.createObjectURL(blob);
+        a.download = `訂單明細_${from}_${to}.xlsx`;
+        document.body.appendChild(a);
+        a.click();
+        a.remove();
+    } catch (e) {
+        alert(e.message || "匯出失敗");
+    }
+};
+
 // ===== 會員管理 =====
 const buyerBody = $("buyerTableBody");
 const sellerBody = $("sellerTableBody");
@@ -45,18 +45,32 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
 
-    // --- (C) (核心) 獲取我的訂單 (GET /api/orders/me) ---
-    async function fetchMyOrders() {
+    // --- (C) (核心) 獲取我的訂單 (GET /api/orders/history，游標分頁) ---
+    // (分頁) 每次載入 20 筆，按「載入更多訂單」再接著讀下一頁
+    let orderNextCursor = null;
+    const loadMoreOrdersBtn = document.createElement('button');
+    loadMoreOrdersBtn.className = 'button-primary';
+    loadMoreOrdersBtn.textContent = '載入更多訂單';
+    loadMoreOrdersBtn.style.display = 'none';
+    loadMoreOrdersBtn.addEventListener('click', () => fetchMyOrders(orderNextCursor));
+
+    async function fetchMyOrders(cursor = null) {
         try {
+            const params = new URLSearchParams({ size: 20 });
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
             // (呼叫 OrderController 的 GET API)
-            const response = await fetch(`${API_BASE_URL}/api/orders/me`, {
+            const response = await fetch(`${API_BASE_URL}/api/orders/history?${params}`, {
                 method: 'GET',
                 headers: {'Authorization': `Bearer ${token}`}
             });
             
             if (response.ok) {
-                const orders = await response.json(); // 這是一個 List<OrderResponseVO>
-                renderOrders(orders);
+                const page = await response.json(); // { items: List<OrderResponseVO>, nextCursor }
+                renderOrders(page.items, !cursor);
+                orderNextCursor = page.nextCursor;
+                loadMoreOrdersBtn.style.display = orderNextCursor ? 'block' : 'none';
             } else {
                 const errorText = await response.text();
                 showMessage(`載入訂單失敗: ${errorText}`, 'error');
@@ -69,14 +83,16 @@ document.addEventListener("DOMContentLoaded", () => {
     }
 
     // --- (D) 繪製訂單卡片 ---
-    function renderOrders(orders) {
-        if (!orders || orders.length === 0) {
-            orderListContainer.innerHTML = '<p class="info-text">您目前沒有任何訂單。</p>';
-            return;
+    function renderOrders(orders, firstPage = true) {
+        if (firstPage) {
+            if (!orders || orders.length === 0) {
+                orderListContainer.innerHTML = '<p class="info-text">您目前沒有任何訂單。</p>';
+                return;
+            }
+            orderListContainer.innerHTML = ''; // 清空「載入中...」
+            orderListContainer.appendChild(loadMoreOrdersBtn);
         }
 
-        orderListContainer.innerHTML = ''; // 清空「載入中...」
-
         orders.forEach(order => {
             const card = document.createElement('div');
             card.className = 'order-card';
@@ -96,6 +112,7 @@ document.addEventListener("DOMContentLoaded", () => {
                     <span class="order-status">${order.status || '已完成'}</span>
                 </div>
                 <div class="order-card-body">
+                    <span class="order-items">${order.firstItemName || '【商品已失效】'}${order.itemCount > 1 ? ` 等 ${order.itemCount} 項` : ''}${order.rated ? '（已評價）' : ''}</span>
                     <span class="order-total">總金額: TWD $${order.totalPrice.toFixed(2)}</span>
                     <span class="order-date">下單時間: ${orderDate}</span>
                 </div>
@@ -106,7 +123,8 @@ document.addEventListener("DOMContentLoaded", () => {
                 </div>
             `;
             
-            orderListContainer.appendChild(card);
+            // (按鈕永遠留在最後)
+            orderListContainer.insertBefore(card, loadMoreOrdersBtn);
         });
     }
 
@@ -79,18 +79,58 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
     
-    // --- (D: 獲取商品評價 - 不變) ---
-    async function fetchProductRatings(productId) {
+    // --- (D: 獲取商品評價 - 游標分頁) ---
+    // ( 回傳 { items, nextCursor }；sort = NEWEST (最新) / STARS (星等) )
+    const RATING_PAGE_SIZE = 10;
+    let ratingSort = 'NEWEST';
+    let ratingNextCursor = null;
+
+    // (新增) 排序下拉選單 (放在評價列表上方) 與「載入更多」按鈕 (放在下方)
+    const ratingSortSelect = document.createElement('select');
+    ratingSortSelect.id = 'rating-sort-select';
+    ratingSortSelect.innerHTML = `
+        <option value="NEWEST">最新優先</option>
+        <option value="STARS">星等最高</option>
+    `;
+    ratingSortSelect.addEventListener('change', () => {
+        ratingSort = ratingSortSelect.value;
+        ratingsList.innerHTML = '<p>評價 載入中...</p>';
+        fetchProductRatings(currentProductId, null);
+    });
+    ratingsList.insertAdjacentElement('beforebegin', ratingSortSelect);
+
+    const loadMoreRatingsBtn = document.createElement('button');
+    loadMoreRatingsBtn.id = 'load-more-ratings-btn';
+    loadMoreRatingsBtn.className = 'nav-link-button';
+    loadMoreRatingsBtn.textContent = '載入更多評價';
+    loadMoreRatingsBtn.style.display = 'none';
+    loadMoreRatingsBtn.addEventListener('click', () => fetchProductRatings(currentProductId, ratingNextCursor));
+    ratingsList.insertAdjacentElement('afterend', loadMoreRatingsBtn);
+
+    async function fetchProductRatings(productId, cursor = null) {
+        const requestedSort = ratingSort;
+        let url = `${API_BASE_URL}/api/public/products/${productId}/ratings?sort=${requestedSort}&size=${RATING_PAGE_SIZE}`;
+        if (cursor) {
+            url += `&cursor=${encodeURIComponent(cursor)}`;
+        }
+
+        loadMoreRatingsBtn.disabled = true;
         try {
-            const response = await fetch(`${API_BASE_URL}/api/public/products/${productId}/ratings`);
+            const response = await fetch(url);
             if (response.ok) {
-                const ratings = await response.json();
-                renderProductRatings(ratings);
-            } else {
+                const page = await response.json();
+                // (切換排序時 舊的 請求 可能 較晚 回來，直接 丟棄)
+                if (requestedSort !== ratingSort) return;
+                renderProductRatings(page.items, !cursor);
+                ratingNextCursor = page.nextCursor;
+                loadMoreRatingsBtn.style.display = ratingNextCursor ? 'block' : 'none';
+            } else if (!cursor) {
                 ratingsList.innerHTML = '<p>載入評價失敗。</p>';
             }
         } catch (error) {
             console.error('獲取商品評價 API 錯誤:', error);
+        } finally {
+            loadMoreRatingsBtn.disabled = false;
         }
     }
 
@@ -118,12 +158,14 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
     
-    // --- (F) 繪製評價區塊 (★ 關鍵修正處 ★) ---
-    function renderProductRatings(ratings) {
-        ratingsList.innerHTML = ''; // 清空「載入中...」
-        if (ratings.length === 0) {
-            ratingsList.innerHTML = '<p>此商品尚未有任何評價。</p>';
-            return;
+    // --- (F) 繪製評價區塊 (firstPage = true 時 先清空；否則 接在後面) ---
+    function renderProductRatings(ratings, firstPage = true) {
+        if (firstPage) {
+            ratingsList.innerHTML = ''; // 清空「載入中...」
+            if (ratings.length === 0) {
+                ratingsList.innerHTML = '<p>此商品尚未有任何評價。</p>';
+                return;
+            }
         }
         
         ratings.forEach(rating => {
@@ -48,41 +48,68 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
 
-    // --- (C) （不變） 獲取「篩選後」 的商品 ---
-    // ( 這個 函數 已經是「正確的」， 它 會 呼叫 /products 或 /products/category/{id} )
+    // --- (C) 獲取「篩選後」 的商品 (游標分頁) ---
+    // ( 呼叫 /products 或 /products/category/{id}，回傳 { items, nextCursor } )
+    const PAGE_SIZE = 20;
+    let currentCategoryId = null;
+    let nextCursor = null;
+
+    // (新增) 「載入更多」按鈕，放在商品列表下方
+    const loadMoreBtn = document.createElement('button');
+    loadMoreBtn.id = 'load-more-btn';
+    loadMoreBtn.className = 'nav-link-button';
+    loadMoreBtn.textContent = '載入更多';
+    loadMoreBtn.style.display = 'none';
+    loadMoreBtn.addEventListener('click', () => fetchProductPage(currentCategoryId, nextCursor));
+    productGrid.insertAdjacentElement('afterend', loadMoreBtn);
+
     async function fetchAllProducts(categoryId, categoryName = "所有商品") {
-        let url;
-        if (categoryId) {
-            url = `${API_BASE_URL}/api/public/products/category/${categoryId}`;
-        } else {
-            url = `${API_BASE_URL}/api/public/products`;
-        }
-        
+        currentCategoryId = categoryId;
         productListTitle.textContent = categoryName;
         productGrid.innerHTML = '<p>載入商品中...</p>'; // (新增 載入 提示)
-        
+        await fetchProductPage(categoryId, null);
+    }
+
+    async function fetchProductPage(categoryId, cursor) {
+        let url = categoryId
+            ? `${API_BASE_URL}/api/public/products/category/${categoryId}`
+            : `${API_BASE_URL}/api/public/products`;
+        url += `?size=${PAGE_SIZE}`;
+        if (cursor) {
+            url += `&cursor=${encodeURIComponent(cursor)}`;
+        }
+
+        loadMoreBtn.disabled = true;
         try {
             const response = await fetch(url, { method: 'GET' });
             if (response.ok) {
-                const products = await response.json();
-                renderProducts(products); 
+                const page = await response.json();
+                // (切換分類時 舊的 請求 可能 較晚 回來，直接 丟棄)
+                if (categoryId !== currentCategoryId) return;
+                renderProducts(page.items, !cursor);
+                nextCursor = page.nextCursor;
+                loadMoreBtn.style.display = nextCursor ? 'block' : 'none';
             } else {
                  const errorText = await response.text();
                  showMessage(`載入商品失敗: ${errorText}`, 'error');
-                 productGrid.innerHTML = '<p>載入商品失敗。</p>';
+                 if (!cursor) productGrid.innerHTML = '<p>載入商品失敗。</p>';
             }
         } catch (error) {
             console.error('獲取公開商品 API 錯誤:', error);
             showMessage(error.message, 'error');
+        } finally {
+            loadMoreBtn.disabled = false;
         }
     }
 
-    // --- (D) 繪製商品卡片 (不變) ---
-    function renderProducts(products) {
-        productGrid.innerHTML = ''; 
-        if (products.length === 0) {
-            productGrid.innerHTML = '<p>這個分類下 目前沒有商品。</p>';
-            return;
+    // --- (D) 繪製商品卡片 (firstPage = true 時 先清空；否則 接在後面) ---
+    function renderProducts(products, firstPage = true) {
+        if (firstPage) {
+            productGrid.innerHTML = ''; 
+            if (products.length === 0) {
+                productGrid.innerHTML = '<p>這個分類下 目前沒有商品。</p>';
+                return;
+            }
         }
         products.forEach(product => {
             const card = document.createElement('div');
@@ -95,6 +122,9 @@ document.addEventListener("DOMContentLoaded", () => {
                 <div class="product-card-body">
                     <h5>${product.name}</h5>
                     <span class="product-card-price">TWD $${product.price}</span>
+                    ${product.ratingCount > 0
+                        ? `<small class="product-card-rating">★ ${product.averageRating.toFixed(1)} (${product.ratingCount})</small>`
+                        : ''}
                 </div>
             `;
             card.addEventListener('click', () => {
@@ -46,17 +46,31 @@ document.addEventListener("DOMContentLoaded", () => {
     }
 
     // --- (C) (核心) 獲取「我的」收到的訂單 ---
-    async function fetchMySellerOrders() {
+    // (分頁) 每次載入 20 筆，按「載入更多訂單」再接著讀下一頁
+    let orderNextCursor = null;
+    const loadMoreOrdersBtn = document.createElement('button');
+    loadMoreOrdersBtn.className = 'button-primary';
+    loadMoreOrdersBtn.textContent = '載入更多訂單';
+    loadMoreOrdersBtn.style.display = 'none';
+    loadMoreOrdersBtn.addEventListener('click', () => fetchMySellerOrders(orderNextCursor));
+
+    async function fetchMySellerOrders(cursor = null) {
         try {
+            const params = new URLSearchParams({ size: 20 });
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
             // (呼叫 SellerOrderController 的 GET API)
-            const response = await fetch(`${API_BASE_URL}/api/seller/orders/me`, {
+            const response = await fetch(`${API_BASE_URL}/api/seller/orders/history?${params}`, {
                 method: 'GET',
                 headers: {'Authorization': `Bearer ${token}`}
             });
             
             if (response.ok) {
-                const orders = await response.json(); // List<OrderResponseVO>
-                renderSellerOrders(orders);
+                const page = await response.json(); // { items: List<OrderResponseVO>, nextCursor }
+                renderSellerOrders(page.items, !cursor);
+                orderNextCursor = page.nextCursor;
+                loadMoreOrdersBtn.style.display = orderNextCursor ? 'block' : 'none';
             } else {
                 const errorText = await response.text();
                 showMessage(`載入訂單失敗: ${errorText}`, 'error');
@@ -69,16 +83,18 @@ document.addEventListener("DOMContentLoaded", () => {
     }
 
     // --- (D) 繪製訂單卡片 (賣家版) ---
-    function renderSellerOrders(orders) {
-        if (!orders || orders.length === 0) {
-            orderListContainer.innerHTML = '<p class="info-text">您目前尚未收到任何訂單。</p>';
-            return;
+    function renderSellerOrders(orders, firstPage = true) {
+        if (firstPage) {
+            if (!orders || orders.length === 0) {
+                orderListContainer.innerHTML = '<p class="info-text">您目前尚未收到任何訂單。</p>';
+                return;
+            }
+            orderListContainer.innerHTML = ''; // 清空「載入中...」
+            orderListContainer.appendChild(loadMoreOrdersBtn);
         }
 
-        orderListContainer.innerHTML = ''; // 清空「載入中...」
-
-        // 將訂單倒序排列，讓最新的在最上面
-        orders.reverse().forEach(order => {
+        // (後端已依時間由新到舊排序)
+        orders.forEach(order => {
             const card = document.createElement('div');
             card.className = 'seller-order-card';
             
@@ -88,23 +104,16 @@ document.addEventListener("DOMContentLoaded", () => {
                 hour: '2-digit', minute: '2-digit'
             });
 
-            // (2. ★ 關鍵 ★) 動態產生「商品項目」 的 HTML 字串
-            // (我們 `order.items` ，它是 `OrderItemResponseVO` )
-            let itemsHtml = '';
-            order.items.forEach(item => {
-                const itemSubtotal = (item.pricePerUnit * item.quantity).toFixed(2);
-                itemsHtml += `
-                    <div class="order-item-row">
-                        <div class="order-item-details">
-                            <span class="item-name">${item.productName || 'N/A'}</span>
-                            <span class="item-qty">(x ${item.quantity})</span>
-                        </div>
-                        <div class="order-item-price">
-                            TWD $${itemSubtotal}
-                        </div>
+            // (2. 商品摘要) 列表只帶「第一項商品 + 明細筆數」(來自 order_summaries)
+            const moreItems = order.itemCount > 1 ? ` 等 ${order.itemCount} 項商品` : '';
+            const itemsHtml = `
+                <div class="order-item-row">
+                    <div class="order-item-details">
+                        <span class="item-name">${order.firstItemName || '【商品已失效】'}${moreItems}</span>
+                        <span class="item-qty">(已評價 ${order.ratedItemCount} / ${order.itemCount})</span>
                     </div>
-                `;
-            });
+                </div>
+            `;
 
             // (3. 組合完整卡片)
             card.innerHTML = `
@@ -123,7 +132,8 @@ document.addEventListener("DOMContentLoaded", () => {
                 </div>
             `;
             
-            orderListContainer.appendChild(card);
+            // (按鈕永遠留在最後)
+            orderListContainer.insertBefore(card, loadMoreOrdersBtn);
         });
     }
 
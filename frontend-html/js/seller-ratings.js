@@ -45,18 +45,32 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
 
-    // --- (C) (核心) 獲取「我的」商品收到的評價 ---
-    async function fetchMyRatings() {
+    // --- (C) (核心) 評價總覽：全店合計 + 各商品的平均 / 評價數 / 星等分布 ---
+    // (效能) 總覽只讀彙總資料；評價內容等賣家點「查看評價」才分頁載入
+    let summaryNextAfterProductId = null;
+    const loadMoreProductsBtn = document.createElement('button');
+    loadMoreProductsBtn.className = 'nav-link-button';
+    loadMoreProductsBtn.textContent = '載入更多商品';
+    loadMoreProductsBtn.style.display = 'none';
+    loadMoreProductsBtn.addEventListener('click', () => fetchRatingSummary(summaryNextAfterProductId));
+
+    async function fetchRatingSummary(afterProductId = null) {
         try {
+            const params = new URLSearchParams({ size: 20 });
+            if (afterProductId) {
+                params.set('afterProductId', afterProductId);
+            }
             // (呼叫 SellerRatingController 的 GET API)
-            const response = await fetch(`${API_BASE_URL}/api/seller/ratings/me`, {
+            const response = await fetch(`${API_BASE_URL}/api/seller/ratings/summary?${params}`, {
                 method: 'GET',
                 headers: {'Authorization': `Bearer ${token}`}
             });
             
             if (response.ok) {
-                const ratings = await response.json(); // List<RatingResponseVO>
-                renderRatings(ratings);
+                const summary = await response.json(); // SellerRatingSummaryVO
+                renderSummary(summary, !afterProductId);
+                summaryNextAfterProductId = summary.nextAfterProductId;
+                loadMoreProductsBtn.style.display = summaryNextAfterProductId ? 'block' : 'none';
             } else {
                 const errorText = await response.text();
                 showMessage(`載入評價失敗: ${errorText}`, 'error');
@@ -68,66 +82,142 @@ document.addEventListener("DOMContentLoaded", () => {
         }
     }
 
-    // --- (D) 繪製評價卡片 (賣家版) ---
-    function renderRatings(ratings) {
-        if (!ratings || ratings.length === 0) {
-            ratingsListContainer.innerHTML = '<p class="info-text">您的商品目前尚未收到任何評價。</p>';
-            return;
-        }
+    // (輔助) 星等分布文字，例如 "5★ 10 / 4★ 3 / ..."
+    function formatHistogram(histogram) {
+        return [4, 3, 2, 1, 0].map(i => `${i + 1}★ ${histogram[i]}`).join(' / ');
+    }
 
-        ratingsListContainer.innerHTML = ''; // 清空「載入中...」
+    // --- (D) 繪製總覽 + 商品卡片 (賣家版) ---
+    function renderSummary(summary, firstPage) {
+        if (firstPage) {
+            ratingsListContainer.innerHTML = ''; // 清空「載入中...」
+            if (summary.products.length === 0) {
+                ratingsListContainer.innerHTML = '<p class="info-text">您目前沒有任何商品。</p>';
+                return;
+            }
+            const overview = document.createElement('div');
+            overview.className = 'rating-card';
+            overview.innerHTML = summary.totalRatingCount > 0
+                ? `<div class="rating-card-stars">★ ${summary.averageRating.toFixed(2)} (${summary.totalRatingCount} 則評價)</div>
+                   <p class="rating-card-comment">${formatHistogram(summary.ratingHistogram)}</p>`
+                : '<p class="info-text">您的商品目前尚未收到任何評價。</p>';
+            ratingsListContainer.appendChild(overview);
+            ratingsListContainer.appendChild(loadMoreProductsBtn);
+        }
 
-        // 將評價倒序排列，讓最新的在最上面
-        ratings.reverse().forEach(rating => {
+        summary.products.forEach(product => {
             const card = document.createElement('div');
             // (重用 .rating-card 樣式)
-            card.className = 'rating-card'; 
-            
-            // (1. 產生星星)
-            const stars = '★'.repeat(rating.ratingStars) + '☆'.repeat(5 - rating.ratingStars);
+            card.className = 'rating-card';
 
-            // (2. 格式化 createdAt 時間)
-            const formattedDate = new Date(rating.createdAt).toLocaleString('zh-TW', {
-                year: 'numeric', month: '2-digit', day: '2-digit'
-            });
-
-            // (3. 處理商品圖片)
-            const imageUrl = rating.productImageUrl 
-                             ? `${API_BASE_URL}${rating.productImageUrl}` 
+            // (處理商品圖片)
+            const imageUrl = product.productImageUrl 
+                             ? `${API_BASE_URL}${product.productImageUrl}` 
                              : 'https://via.placeholder.com/60';
+            const ratingText = product.ratingCount > 0
+                ? `★ ${product.averageRating.toFixed(2)} (${product.ratingCount}) ・ ${formatHistogram(product.ratingHistogram)}`
+                : '尚無評價';
 
-            // (4. 組合賣家版卡片)
-            // 我們在卡片頂部插入了「商品資訊」區塊
             card.innerHTML = `
                 <div class="rating-card-product">
-                    <img src="${imageUrl}" alt="${rating.productName}" class="rating-card-product-image">
+                    <img src="${imageUrl}" alt="${product.productName}" class="rating-card-product-image">
                     <div>
-                        <a href="product-detail.html?id=${rating.productId}" 
+                        <a href="product-detail.html?id=${product.productId}" 
                            class="rating-card-product-name" 
                            target="_blank"> 
-                            ${rating.productName || 'N/A'}
+                            ${product.productName || 'N/A'}
                         </a>
+                        <div class="rating-card-date">${ratingText}</div>
                     </div>
                 </div>
-
-                <div class="rating-card-content">
-                    <div class="rating-card-header">
-                        <span class="rating-card-user">${rating.buyerName || '匿名使用者'}</span>
-                        <span class="rating-card-date">${formattedDate}</span>
-                    </div>
-                    <div class="rating-card-stars">${stars}</div>
-                    <p class="rating-card-comment">${rating.comment || '此使用者沒有留下評論。'}</p>
-                </div>
+                <div class="rating-card-content"></div>
             `;
-            
-            ratingsListContainer.appendChild(card);
+
+            if (product.ratingCount > 0) {
+                attachDrillDown(card, product.productId);
+            }
+            // (按鈕永遠留在最後)
+            ratingsListContainer.insertBefore(card, loadMoreProductsBtn);
+        });
+    }
+
+    // --- (D-1) 展開某個商品的評價 (第一次點開才載入，之後分頁載入更多) ---
+    function attachDrillDown(card, productId) {
+        const content = card.querySelector('.rating-card-content');
+        const toggleBtn = document.createElement('button');
+        toggleBtn.className = 'nav-link-button';
+        toggleBtn.textContent = '查看評價';
+        const list = document.createElement('div');
+        list.style.display = 'none';
+        const moreBtn = document.createElement('button');
+        moreBtn.className = 'nav-link-button';
+        moreBtn.textContent = '載入更多評價';
+        moreBtn.style.display = 'none';
+        content.append(toggleBtn, list, moreBtn);
+
+        let loaded = false;
+        let nextCursor = null;
+
+        async function loadPage(cursor) {
+            const params = new URLSearchParams({ sort: 'NEWEST', size: 10 });
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
+            try {
+                const response = await fetch(
+                    `${API_BASE_URL}/api/seller/ratings/products/${productId}?${params}`, {
+                    method: 'GET',
+                    headers: {'Authorization': `Bearer ${token}`}
+                });
+                if (!response.ok) {
+                    showMessage(`載入評價失敗: ${await response.text()}`, 'error');
+                    return;
+                }
+                const page = await response.json(); // { items, nextCursor }
+                page.items.forEach(rating => list.appendChild(renderRating(rating)));
+                nextCursor = page.nextCursor;
+                moreBtn.style.display = nextCursor ? 'block' : 'none';
+            } catch (error) {
+                console.error('獲取評價 API 錯誤:', error);
+                showMessage('無法連線到伺服器', 'error');
+            }
+        }
+
+        toggleBtn.addEventListener('click', async () => {
+            const expanded = list.style.display !== 'none';
+            list.style.display = expanded ? 'none' : 'block';
+            moreBtn.style.display = !expanded && nextCursor ? 'block' : 'none';
+            toggleBtn.textContent = expanded ? '查看評價' : '收合評價';
+            if (!expanded && !loaded) {
+                loaded = true;
+                await loadPage(null);
+            }
+        });
+        moreBtn.addEventListener('click', () => loadPage(nextCursor));
+    }
+
+    // (單筆評價)
+    function renderRating(rating) {
+        const item = document.createElement('div');
+        const stars = '★'.repeat(rating.ratingStars) + '☆'.repeat(5 - rating.ratingStars);
+        const formattedDate = new Date(rating.createdAt).toLocaleString('zh-TW', {
+            year: 'numeric', month: '2-digit', day: '2-digit'
         });
+        item.innerHTML = `
+            <div class="rating-card-header">
+                <span class="rating-card-user">${rating.buyerName || '匿名使用者'}</span>
+                <span class="rating-card-date">${formattedDate}</span>
+            </div>
+            <div class="rating-card-stars">${stars}</div>
+            <p class="rating-card-comment">${rating.comment || '此使用者沒有留下評論。'}</p>
+        `;
+        return item;
     }
 
     // --- (E) 初始化 ---
     function init() {
         fetchMyProfile();
-        fetchMyRatings(); // (關鍵) 載入評價
+        fetchRatingSummary(); // (關鍵) 載入評價總覽
     }
     
     // (輔助功能：顯示訊息)